@@ -0,0 +1,28 @@
+package lt.esdc.shape.action;
+
+/**
+ * Computes perimeter, area and volume for many Tetrahedrons at once from coordinate columns.
+ * Column {@code point * 3 + axis} of the coordinates holds that coordinate of every Tetrahedron, with points
+ * ordered A, B, C, D and axes x, y, z, the layout used by the columnar store. The results are written to
+ * the metric columns indexed by {@link ShapeMetric#ordinal()}.
+ */
+public interface BatchShapeCalculator {
+    int COORDINATES_COUNT = 12;
+
+    /**
+     * Computes the metrics of the Tetrahedrons in {@code [from, to)}.
+     *
+     * @param coordinates the twelve coordinate columns
+     * @param metrics     the three metric columns to write
+     * @param from        the first index, inclusive
+     * @param to          the last index, exclusive
+     */
+    void computeAll(double[][] coordinates, double[][] metrics, int from, int to);
+
+    /**
+     * @return the number of Tetrahedrons processed by one operation, 1 for scalar implementations
+     */
+    default int getLaneCount() {
+        return 1;
+    }
+}
@@ -1,8 +1,11 @@
 package lt.esdc.shape.action;
 
+import lt.esdc.shape.action.impl.ScalarBatchCalculator;
 import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
 import lt.esdc.shape.entity.AbstractShape;
 import lt.esdc.shape.entity.Tetrahedron;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * Factory class for creating ShapeCalculator instances based on the type of Shape.
@@ -10,6 +13,11 @@ import lt.esdc.shape.entity.Tetrahedron;
  */
 
 public class CalculatorFactory {
+    private static final Logger logger = LogManager.getLogger(CalculatorFactory.class);
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_CALCULATOR = "lt.esdc.shape.action.impl.VectorBatchCalculator";
+    private static BatchShapeCalculator batchCalculator;
+
     public static ShapeCalculator getCalculator(AbstractShape abstractShape) {
         if (abstractShape instanceof Tetrahedron) {
             return new TetrahedronCalculatorImpl();
@@ -17,4 +25,36 @@ public class CalculatorFactory {
             throw new UnsupportedOperationException("No calculator available for shape type: " + abstractShape.getClass().getSimpleName());
         }
     }
+
+    /**
+     * Returns the batch calculator for Tetrahedron coordinate columns.
+     * The vectorized implementation is used when it was built with the {@code vector} profile and the JVM was
+     * started with {@code --add-modules jdk.incubator.vector}; otherwise the scalar one is.
+     *
+     * @return the shared batch calculator
+     */
+    public static synchronized BatchShapeCalculator getBatchCalculator() {
+        if (batchCalculator == null) {
+            batchCalculator = createBatchCalculator();
+        }
+        return batchCalculator;
+    }
+
+    private static BatchShapeCalculator createBatchCalculator() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                BatchShapeCalculator calculator = (BatchShapeCalculator) Class.forName(VECTOR_CALCULATOR)
+                        .getDeclaredConstructor().newInstance();
+                logger.info("Using vectorized batch calculator with {} lanes", calculator.getLaneCount());
+                return calculator;
+            } catch (ClassNotFoundException e) {
+                logger.info("Vectorized batch calculator not built, using scalar batch calculator");
+            } catch (ReflectiveOperationException | LinkageError e) {
+                logger.warn("Vector API could not be initialized, falling back to scalar batch calculator", e);
+            }
+        } else {
+            logger.info("Module {} not available, using scalar batch calculator", VECTOR_MODULE);
+        }
+        return new ScalarBatchCalculator();
+    }
 }
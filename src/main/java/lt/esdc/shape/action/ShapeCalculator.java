@@ -1,6 +1,7 @@
 package lt.esdc.shape.action;
 
 import lt.esdc.shape.entity.AbstractShape;
+import lt.esdc.shape.warehouse.Warehouse;
 
 /**
  * Interface for calculating properties of shapes.
@@ -33,4 +34,29 @@ public interface ShapeCalculator {
      * @return the volume value (for 2D shapes, returns 0)
      */
     double computeVolume(AbstractShape abstractShape);
+
+    /**
+     * Calculates perimeter, area and volume of a shape together.
+     * Implementations should override it to share intermediate results between the three metrics.
+     *
+     * @param abstractShape the shape to calculate the parameters for
+     * @return the parameters, ready to be stored in the Warehouse
+     */
+    default Warehouse.ShapeParameters computeAll(AbstractShape abstractShape) {
+        return new Warehouse.ShapeParameters(computePerimeter(abstractShape), computeArea(abstractShape),
+                computeVolume(abstractShape));
+    }
+
+    /**
+     * Calculates perimeter, area and volume of a shape together into an array instead of a new object,
+     * for callers that measure shapes in a loop and must not allocate.
+     *
+     * @param abstractShape the shape to calculate the parameters for
+     * @param metrics       receives the parameters indexed by {@link ShapeMetric#ordinal()}
+     */
+    default void computeAll(AbstractShape abstractShape, double[] metrics) {
+        metrics[ShapeMetric.PERIMETER.ordinal()] = computePerimeter(abstractShape);
+        metrics[ShapeMetric.AREA.ordinal()] = computeArea(abstractShape);
+        metrics[ShapeMetric.VOLUME.ordinal()] = computeVolume(abstractShape);
+    }
 }
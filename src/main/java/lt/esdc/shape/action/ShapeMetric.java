@@ -0,0 +1,75 @@
+package lt.esdc.shape.action;
+
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.AbstractShape;
+import lt.esdc.shape.warehouse.Warehouse;
+
+/**
+ * The scalar metrics a ShapeCalculator can compute for a shape.
+ */
+public enum ShapeMetric {
+    PERIMETER,
+    AREA,
+    VOLUME;
+
+    /**
+     * Computes this metric for the shape.
+     *
+     * @param calculator    the calculator to use
+     * @param abstractShape the shape to measure
+     * @return the metric value
+     */
+    public double compute(ShapeCalculator calculator, AbstractShape abstractShape) {
+        return switch (this) {
+            case PERIMETER -> calculator.computePerimeter(abstractShape);
+            case AREA -> calculator.computeArea(abstractShape);
+            case VOLUME -> calculator.computeVolume(abstractShape);
+        };
+    }
+
+    /**
+     * Reads this metric from the Warehouse, falling back to computing it.
+     * The cached value is used only for the default calculator and for shapes whose current state
+     * the Warehouse tracks; anything else, including shapes that are not in the repository, is computed.
+     *
+     * @param calculator    the calculator to use when the metric is not cached
+     * @param abstractShape the shape to measure
+     * @return the metric value
+     */
+    public double lookup(ShapeCalculator calculator, AbstractShape abstractShape) {
+        if (calculator instanceof TetrahedronCalculatorImpl && abstractShape.isTrackedByWarehouse()) {
+            Warehouse warehouse = Warehouse.getInstance();
+            long shapeId = abstractShape.getNumericId();
+            double cached = switch (this) {
+                case PERIMETER -> warehouse.getPerimeter(shapeId);
+                case AREA -> warehouse.getArea(shapeId);
+                case VOLUME -> warehouse.getVolume(shapeId);
+            };
+            if (!Double.isNaN(cached)) {
+                return cached;
+            }
+        }
+        return compute(calculator, abstractShape);
+    }
+
+    /**
+     * Reads every metric of a shape from a Warehouse, falling back to computing them all when it has none.
+     *
+     * @param warehouse     the Warehouse to read from, or null to always compute
+     * @param calculator    the calculator to use when the metrics are not cached
+     * @param abstractShape the shape to measure
+     * @return the metric values, indexed by ordinal
+     */
+    public static double[] lookupAll(Warehouse warehouse, ShapeCalculator calculator, AbstractShape abstractShape) {
+        Warehouse.ShapeParameters parameters = warehouse == null ? null
+                : warehouse.getParameters(abstractShape.getNumericId());
+        if (parameters == null) {
+            parameters = calculator.computeAll(abstractShape);
+        }
+        double[] values = new double[values().length];
+        values[PERIMETER.ordinal()] = parameters.perimeter();
+        values[AREA.ordinal()] = parameters.area();
+        values[VOLUME.ordinal()] = parameters.volume();
+        return values;
+    }
+}
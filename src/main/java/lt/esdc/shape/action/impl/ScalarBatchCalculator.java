@@ -0,0 +1,41 @@
+package lt.esdc.shape.action.impl;
+
+import lt.esdc.shape.action.BatchShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.util.action.VectorUtil;
+
+/**
+ * Batch calculator that processes one Tetrahedron at a time with the same arithmetic, in the same order,
+ * as {@link TetrahedronCalculatorImpl#computeAll}. Used where the Vector API is not available
+ * and for the tails of vectorized batches.
+ */
+public class ScalarBatchCalculator implements BatchShapeCalculator {
+
+    @Override
+    public void computeAll(double[][] coordinates, double[][] metrics, int from, int to) {
+        double[] perimeters = metrics[ShapeMetric.PERIMETER.ordinal()];
+        double[] areas = metrics[ShapeMetric.AREA.ordinal()];
+        double[] volumes = metrics[ShapeMetric.VOLUME.ordinal()];
+        for (int i = from; i < to; i++) {
+            double ax = coordinates[0][i], ay = coordinates[1][i], az = coordinates[2][i];
+            double abX = coordinates[3][i] - ax, abY = coordinates[4][i] - ay, abZ = coordinates[5][i] - az;
+            double acX = coordinates[6][i] - ax, acY = coordinates[7][i] - ay, acZ = coordinates[8][i] - az;
+            double adX = coordinates[9][i] - ax, adY = coordinates[10][i] - ay, adZ = coordinates[11][i] - az;
+            double bcX = acX - abX, bcY = acY - abY, bcZ = acZ - abZ;
+            double bdX = adX - abX, bdY = adY - abY, bdZ = adZ - abZ;
+            double cdX = adX - acX, cdY = adY - acY, cdZ = adZ - acZ;
+
+            perimeters[i] = VectorUtil.magnitude(abX, abY, abZ) + VectorUtil.magnitude(acX, acY, acZ)
+                    + VectorUtil.magnitude(adX, adY, adZ) + VectorUtil.magnitude(bcX, bcY, bcZ)
+                    + VectorUtil.magnitude(bdX, bdY, bdZ) + VectorUtil.magnitude(cdX, cdY, cdZ);
+
+            double acdX = acY * adZ - acZ * adY, acdY = acZ * adX - acX * adZ, acdZ = acX * adY - acY * adX;
+            areas[i] = 0.5 * (VectorUtil.crossMagnitude(abX, abY, abZ, acX, acY, acZ)
+                    + VectorUtil.crossMagnitude(abX, abY, abZ, adX, adY, adZ)
+                    + VectorUtil.magnitude(acdX, acdY, acdZ)
+                    + VectorUtil.crossMagnitude(bcX, bcY, bcZ, bdX, bdY, bdZ));
+
+            volumes[i] = Math.abs(VectorUtil.dot(abX, abY, abZ, acdX, acdY, acdZ)) / 6.0;
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package lt.esdc.shape.action.impl;
 
 import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
 import lt.esdc.shape.entity.AbstractShape;
 import lt.esdc.shape.entity.Point;
 import lt.esdc.shape.entity.Tetrahedron;
 import lt.esdc.shape.util.action.GeometryUtil;
 import lt.esdc.shape.util.action.VectorUtil;
-import lt.esdc.shape.util.entity.Vector3D;
+import lt.esdc.shape.warehouse.Warehouse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -16,6 +17,10 @@ import org.apache.logging.log4j.Logger;
  */
 public class TetrahedronCalculatorImpl implements ShapeCalculator {
     private static final Logger logger = LogManager.getLogger(TetrahedronCalculatorImpl.class);
+    private static final int PERIMETER = ShapeMetric.PERIMETER.ordinal();
+    private static final int AREA = ShapeMetric.AREA.ordinal();
+    private static final int VOLUME = ShapeMetric.VOLUME.ordinal();
+    private static final int METRICS_COUNT = ShapeMetric.values().length;
 
     /**
      * Computes the surface area of the given Tetrahedron.
@@ -34,13 +39,12 @@ public class TetrahedronCalculatorImpl implements ShapeCalculator {
         Point d = tetrahedron.getPointD();
 
         double areaABC = GeometryUtil.computeTriangleArea(a, b, c);
-        logger.info("Area ABC: {}", areaABC);
         double areaABD = GeometryUtil.computeTriangleArea(a, b, d);
-        logger.info("Area ABD: {}", areaABD);
         double areaACD = GeometryUtil.computeTriangleArea(a, c, d);
-        logger.info("Area ACD: {}", areaACD);
         double areaBCD = GeometryUtil.computeTriangleArea(b, c, d);
-        logger.info("Area BCD: {}", areaBCD);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Face areas ABC: {}, ABD: {}, ACD: {}, BCD: {}", areaABC, areaABD, areaACD, areaBCD);
+        }
 
         return areaABC + areaABD + areaACD + areaBCD;
     }
@@ -87,12 +91,61 @@ public class TetrahedronCalculatorImpl implements ShapeCalculator {
         Point c = tetrahedron.getPointC();
         Point d = tetrahedron.getPointD();
 
-        Vector3D ab = new Vector3D(b.x() - a.x(), b.y() - a.y(), b.z() - a.z());
-        Vector3D ac = new Vector3D(c.x() - a.x(), c.y() - a.y(), c.z() - a.z());
-        Vector3D ad = new Vector3D(d.x() - a.x(), d.y() - a.y(), d.z() - a.z());
+        return Math.abs(GeometryUtil.computeSignedVolume(a, b, c, d));
+    }
+
+    /**
+     * Computes perimeter, area and volume of the given Tetrahedron in a single pass.
+     * The three edges leaving point A are derived once; the other three edges, the face normals
+     * and the triple product for the volume are all built from them without allocating intermediate vectors.
+     * The only allocation is the returned object; see {@link #computeAll(AbstractShape, double[])} to avoid it.
+     *
+     * @param abstractShape The shape (Tetrahedron) for which the parameters are to be computed.
+     * @return The perimeter, area and volume of the Tetrahedron.
+     */
+    @Override
+    public Warehouse.ShapeParameters computeAll(AbstractShape abstractShape) {
+        double[] metrics = new double[METRICS_COUNT];
+        computeAll(abstractShape, metrics);
+        return new Warehouse.ShapeParameters(metrics[PERIMETER], metrics[AREA], metrics[VOLUME]);
+    }
+
+    /**
+     * Computes perimeter, area and volume like {@link #computeAll(AbstractShape)} without allocating anything.
+     *
+     * @param abstractShape The shape (Tetrahedron) for which the parameters are to be computed.
+     * @param metrics       Receives the perimeter, area and volume at the ordinals of the matching ShapeMetric.
+     */
+    @Override
+    public void computeAll(AbstractShape abstractShape, double[] metrics) {
+        Tetrahedron tetrahedron = (Tetrahedron) abstractShape;
+
+        Point a = tetrahedron.getPointA();
+        Point b = tetrahedron.getPointB();
+        Point c = tetrahedron.getPointC();
+        Point d = tetrahedron.getPointD();
+
+        double abX = b.x() - a.x(), abY = b.y() - a.y(), abZ = b.z() - a.z();
+        double acX = c.x() - a.x(), acY = c.y() - a.y(), acZ = c.z() - a.z();
+        double adX = d.x() - a.x(), adY = d.y() - a.y(), adZ = d.z() - a.z();
+        double bcX = acX - abX, bcY = acY - abY, bcZ = acZ - abZ;
+        double bdX = adX - abX, bdY = adY - abY, bdZ = adZ - abZ;
+        double cdX = adX - acX, cdY = adY - acY, cdZ = adZ - acZ;
+
+        double perimeter = VectorUtil.magnitude(abX, abY, abZ) + VectorUtil.magnitude(acX, acY, acZ)
+                + VectorUtil.magnitude(adX, adY, adZ) + VectorUtil.magnitude(bcX, bcY, bcZ)
+                + VectorUtil.magnitude(bdX, bdY, bdZ) + VectorUtil.magnitude(cdX, cdY, cdZ);
+
+        double acdX = acY * adZ - acZ * adY, acdY = acZ * adX - acX * adZ, acdZ = acX * adY - acY * adX;
+        double area = 0.5 * (VectorUtil.crossMagnitude(abX, abY, abZ, acX, acY, acZ)
+                + VectorUtil.crossMagnitude(abX, abY, abZ, adX, adY, adZ)
+                + VectorUtil.magnitude(acdX, acdY, acdZ)
+                + VectorUtil.crossMagnitude(bcX, bcY, bcZ, bdX, bdY, bdZ));
 
-        Vector3D cross = VectorUtil.cross(ac, ad);
+        double volume = Math.abs(VectorUtil.dot(abX, abY, abZ, acdX, acdY, acdZ)) / 6.0;
 
-        return Math.abs(VectorUtil.dot(ab, cross)) / 6.0;
+        metrics[PERIMETER] = perimeter;
+        metrics[AREA] = area;
+        metrics[VOLUME] = volume;
     }
 }
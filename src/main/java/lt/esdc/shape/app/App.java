@@ -1,17 +1,17 @@
 package lt.esdc.shape.app;
 
+import lt.esdc.shape.action.ShapeMetric;
 import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
-import lt.esdc.shape.comparator.TetrahedronByAreaComparator;
-import lt.esdc.shape.comparator.TetrahedronByIdComparator;
-import lt.esdc.shape.comparator.TetrahedronByPerimeterComparator;
-import lt.esdc.shape.comparator.TetrahedronByVolumeComparator;
 import lt.esdc.shape.entity.Point;
 import lt.esdc.shape.entity.Tetrahedron;
 import lt.esdc.shape.exception.FileReadException;
 import lt.esdc.shape.exception.ShapeValidationException;
 import lt.esdc.shape.factory.TetrahedronFactory;
 import lt.esdc.shape.loader.impl.TetrahedronLoader;
+import lt.esdc.shape.comparator.TetrahedronByIdComparator;
 import lt.esdc.shape.repository.TetrahedronRepository;
+import lt.esdc.shape.repository.page.Page;
+import lt.esdc.shape.repository.sort.SortKey;
 import lt.esdc.shape.specification.TetrahedronSpecification;
 import lt.esdc.shape.specification.impl.AreaRangeTetrahedronSpecification;
 import lt.esdc.shape.specification.impl.IdTetrahedronSpecification;
@@ -23,10 +23,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
 
 public class App {
     private static final Logger logger = LogManager.getLogger(App.class);
+    private static final int PAGE_SIZE = 20;
     private static final Scanner scanner = new Scanner(System.in);
     private static TetrahedronRepository repository;
     private static TetrahedronCalculatorImpl calculator;
@@ -72,6 +74,7 @@ public class App {
                 default -> System.out.println("Invalid choice. Please try again.");
             }
         }
+        repository.shutdown();
         logger.info("Application terminated");
     }
 
@@ -107,33 +110,44 @@ public class App {
     }
 
     private static void displayAllTetrahedrons() {
-        List<Tetrahedron> tetrahedrons = repository.getAllTetrahedrons();
+        Page page = repository.queryPage(null, 0, PAGE_SIZE);
 
-        if (tetrahedrons.isEmpty()) {
+        if (page.items().isEmpty()) {
             System.out.println("No tetrahedrons in the repository.");
             return;
         }
 
         System.out.println("\n--- All Tetrahedrons ---");
-        for (Tetrahedron tetrahedron : tetrahedrons) {
-            System.out.println(tetrahedron);
+        int shown = 0;
+        while (true) {
+            for (Tetrahedron tetrahedron : page.items()) {
+                System.out.println(tetrahedron);
+            }
+            shown += page.items().size();
+            if (!page.hasNext()) {
+                break;
+            }
+            System.out.print("Show more? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                break;
+            }
+            page = repository.queryPage(null, page.nextCursor(), PAGE_SIZE);
         }
-        System.out.println("Total: " + tetrahedrons.size() + " tetrahedrons");
+        System.out.println("Shown: " + shown + " tetrahedrons");
     }
 
     private static void calculateShapeProperties() {
         System.out.println("Enter tetrahedron ID:");
         String id = scanner.nextLine();
 
-        TetrahedronSpecification specification = new IdTetrahedronSpecification(id);
-        List<Tetrahedron> results = repository.query(specification);
+        Optional<Tetrahedron> result = repository.findById(id);
 
-        if (results.isEmpty()) {
+        if (result.isEmpty()) {
             System.out.println("No tetrahedron found with ID: " + id);
             return;
         }
 
-        Tetrahedron tetrahedron = results.get(0);
+        Tetrahedron tetrahedron = result.get();
 
         double area = calculator.computeArea(tetrahedron);
         double perimeter = calculator.computePerimeter(tetrahedron);
@@ -217,9 +231,9 @@ public class App {
 
         switch (choice) {
             case 1 -> repository.sortBy(new TetrahedronByIdComparator());
-            case 2 -> repository.sortBy(new TetrahedronByAreaComparator());
-            case 3 -> repository.sortBy(new TetrahedronByPerimeterComparator());
-            case 4 -> repository.sortBy(new TetrahedronByVolumeComparator());
+            case 2 -> repository.sortBy(SortKey.byMetric(ShapeMetric.AREA), SortKey.byNumericId());
+            case 3 -> repository.sortBy(SortKey.byMetric(ShapeMetric.PERIMETER), SortKey.byNumericId());
+            case 4 -> repository.sortBy(SortKey.byMetric(ShapeMetric.VOLUME), SortKey.byNumericId());
             default -> {
                 System.out.println("Invalid choice.");
                 return;
@@ -234,8 +248,14 @@ public class App {
         System.out.println("Enter tetrahedron ID:");
         String id = scanner.nextLine();
 
+        Optional<Tetrahedron> result = repository.findById(id);
+        if (result.isEmpty()) {
+            System.out.println("No tetrahedron found with ID: " + id);
+            return;
+        }
+
         try {
-            Warehouse.ShapeParameters parameters = warehouse.getParameters(id);
+            Warehouse.ShapeParameters parameters = warehouse.getParameters(result.get().getNumericId());
 
             System.out.println("\n--- Warehouse Information ---");
             System.out.println("ID: " + id);
@@ -250,14 +270,7 @@ public class App {
     private static void editTetrahedron() {
         System.out.print("Enter Tetrahedron ID to update: ");
         String id = scanner.nextLine();
-        TetrahedronSpecification specification = new IdTetrahedronSpecification(id);
-
-        List<Tetrahedron> result = repository.query(specification);
-        if (result.isEmpty()) {
-            System.out.println("Tetrahedron not found.");
-            return;
-        }
-        Tetrahedron tetrahedron = result.get(0);
+        Tetrahedron tetrahedron = repository.findById(id).orElse(null);
         if (tetrahedron == null) {
             System.out.println("Tetrahedron not found.");
             logger.warn("Tetrahedron with ID {} not found.", id);
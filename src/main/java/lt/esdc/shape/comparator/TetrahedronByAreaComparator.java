@@ -1,5 +1,6 @@
 package lt.esdc.shape.comparator;
 
+import lt.esdc.shape.action.ShapeMetric;
 import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
 import lt.esdc.shape.entity.Tetrahedron;
 import org.apache.logging.log4j.LogManager;
@@ -9,7 +10,7 @@ import java.util.Comparator;
 
 /**
  * Comparator for Tetrahedron objects based on their surface area.
- * This class uses TetrahedronCalculatorImpl to compute the area of the Tetrahedrons.
+ * This class reads the area cached in the Warehouse and uses TetrahedronCalculatorImpl to compute it otherwise.
  */
 
 public class TetrahedronByAreaComparator implements Comparator<Tetrahedron> {
@@ -35,8 +36,8 @@ public class TetrahedronByAreaComparator implements Comparator<Tetrahedron> {
     public int compare(Tetrahedron o1, Tetrahedron o2) {
         logger.debug("Comparing Tetrahedrons: {} and {}", o1, o2);
         try {
-            double area1 = calculator.computeArea(o1);
-            double area2 = calculator.computeArea(o2);
+            double area1 = ShapeMetric.AREA.lookup(calculator, o1);
+            double area2 = ShapeMetric.AREA.lookup(calculator, o2);
             return Double.compare(area1, area2);
         } catch (Exception e) {
             logger.error("Error calculating area for Tetrahedrons: {} and {}", o1, o2, e);
@@ -4,9 +4,14 @@ import lt.esdc.shape.entity.Tetrahedron;
 
 import java.util.Comparator;
 
+/**
+ * Orders Tetrahedrons by identifier: generated IDs first in numeric order, so that {@code tetrahedron_10} follows
+ * {@code tetrahedron_9}, then explicitly named Tetrahedrons by name.
+ */
 public class TetrahedronByIdComparator implements Comparator<Tetrahedron> {
     /**
-     * Compares two Tetrahedron objects based on their unique identifiers.
+     * Compares two Tetrahedron objects based on their identifiers.
+     * Tetrahedrons sharing a name are ordered by their hidden numeric IDs to keep the order total.
      *
      * @param o1 the first Tetrahedron to compare
      * @param o2 the second Tetrahedron to compare
@@ -15,6 +20,16 @@ public class TetrahedronByIdComparator implements Comparator<Tetrahedron> {
      */
     @Override
     public int compare(Tetrahedron o1, Tetrahedron o2) {
-        return Comparator.comparing(Tetrahedron::getId).compare(o1, o2);
+        boolean generated = o1.isIdGenerated();
+        if (generated != o2.isIdGenerated()) {
+            return generated ? -1 : 1;
+        }
+        if (!generated) {
+            int byName = o1.getId().compareTo(o2.getId());
+            if (byName != 0) {
+                return byName;
+            }
+        }
+        return Long.compare(o1.getNumericId(), o2.getNumericId());
     }
 }
@@ -1,5 +1,6 @@
 package lt.esdc.shape.comparator;
 
+import lt.esdc.shape.action.ShapeMetric;
 import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
 import lt.esdc.shape.entity.Tetrahedron;
 import org.apache.logging.log4j.LogManager;
@@ -8,8 +9,8 @@ import org.apache.logging.log4j.Logger;
 import java.util.Comparator;
 
 /**
- * Comparator for Tetrahedron objects based on their surface area.
- * This class uses TetrahedronCalculatorImpl to compute the area of the Tetrahedrons.
+ * Comparator for Tetrahedron objects based on their perimeter.
+ * This class reads the perimeter cached in the Warehouse and uses TetrahedronCalculatorImpl to compute it otherwise.
  */
 
 public class TetrahedronByPerimeterComparator implements Comparator<Tetrahedron> {
@@ -35,8 +36,8 @@ public class TetrahedronByPerimeterComparator implements Comparator<Tetrahedron>
     public int compare(Tetrahedron o1, Tetrahedron o2) {
         logger.debug("Comparing Tetrahedrons: {} and {}", o1, o2);
         try {
-            double perimeter1 = calculator.computePerimeter(o1);
-            double perimeter2 = calculator.computePerimeter(o2);
+            double perimeter1 = ShapeMetric.PERIMETER.lookup(calculator, o1);
+            double perimeter2 = ShapeMetric.PERIMETER.lookup(calculator, o2);
             return Double.compare(perimeter1, perimeter2);
         } catch (Exception e) {
             logger.error("Error calculating perimeter for Tetrahedrons: {} and {}", o1, o2, e);
@@ -1,5 +1,6 @@
 package lt.esdc.shape.comparator;
 
+import lt.esdc.shape.action.ShapeMetric;
 import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
 import lt.esdc.shape.entity.Tetrahedron;
 import org.apache.logging.log4j.LogManager;
@@ -8,8 +9,8 @@ import org.apache.logging.log4j.Logger;
 import java.util.Comparator;
 
 /**
- * Comparator for Tetrahedron objects based on their surface area.
- * This class uses TetrahedronCalculatorImpl to compute the area of the Tetrahedrons.
+ * Comparator for Tetrahedron objects based on their volume.
+ * This class reads the volume cached in the Warehouse and uses TetrahedronCalculatorImpl to compute it otherwise.
  */
 public class TetrahedronByVolumeComparator implements Comparator<Tetrahedron> {
     private final TetrahedronCalculatorImpl calculator;
@@ -34,8 +35,8 @@ public class TetrahedronByVolumeComparator implements Comparator<Tetrahedron> {
     public int compare(Tetrahedron o1, Tetrahedron o2) {
         logger.debug("Comparing Tetrahedrons: {} and {}", o1, o2);
         try {
-            double volume1 = calculator.computeVolume(o1);
-            double volume2 = calculator.computeVolume(o2);
+            double volume1 = ShapeMetric.VOLUME.lookup(calculator, o1);
+            double volume2 = ShapeMetric.VOLUME.lookup(calculator, o2);
             return Double.compare(volume1, volume2);
         } catch (Exception e) {
             logger.error("Error calculating volume for Tetrahedrons: {} and {}", o1, o2, e);
@@ -1,35 +1,121 @@
 package lt.esdc.shape.entity;
 
+import lt.esdc.shape.generator.impl.SequenceBlockIdGenerator;
 import lt.esdc.shape.observer.ShapeObservable;
 import lt.esdc.shape.observer.ShapeObserver;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Abstract base class representing a geometric shape.
  * Each shape has a unique identifier and supports observer notifications.
+ * The identifier is held as a primitive long; its string form is built only when {@link #getId()} is called.
+ * Observers may be added, removed and notified from different threads; notification iterates over a snapshot.
  */
 public abstract class AbstractShape implements ShapeObservable {
-    private final String id;
-    private final List<ShapeObserver> observers = new ArrayList<>();
+    private final long numericId;
+    private final String name;
+    private volatile List<ShapeObserver> observers;
 
     /**
-     * Constructs a Shape with the specified unique identifier.
+     * Constructs a Shape with the specified numeric identifier.
+     *
+     * @param numericId the unique identifier for the shape
+     */
+    public AbstractShape(long numericId) {
+        this.numericId = numericId;
+        this.name = null;
+    }
+
+    /**
+     * Constructs a Shape with an explicit string identifier.
+     * A numeric identifier is still drawn from the shared generator so that the shape can be indexed.
      *
      * @param id the unique identifier for the shape
      */
     public AbstractShape(String id) {
-        this.id = id;
+        this.numericId = SequenceBlockIdGenerator.getInstance().nextId();
+        this.name = id;
+    }
+
+    /**
+     * Constructs a Shape that restores both identifiers of an existing shape.
+     *
+     * @param numericId the numeric identifier
+     * @param name      the explicit string identifier, or null if it is generated
+     */
+    protected AbstractShape(long numericId, String name) {
+        this.numericId = numericId;
+        this.name = name;
     }
 
     /**
      * Gets the unique identifier of the shape.
      *
-     * @return the unique identifier
+     * @return the explicit identifier, or the type prefix followed by the numeric identifier
      */
     public String getId() {
-        return id;
+        return name != null ? name : getIdPrefix() + numericId;
+    }
+
+    /**
+     * Gets the numeric identifier of the shape.
+     *
+     * @return the numeric identifier
+     */
+    public long getNumericId() {
+        return numericId;
+    }
+
+    /**
+     * Checks whether the string identifier is derived from the numeric one.
+     *
+     * @return true if the shape was created without an explicit string identifier
+     */
+    public boolean isIdGenerated() {
+        return name == null;
+    }
+
+    /**
+     * Gets the explicit string identifier.
+     *
+     * @return the identifier given at construction, or null if it is generated
+     */
+    protected String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the prefix used to format generated identifiers.
+     *
+     * @return the identifier prefix
+     */
+    protected String getIdPrefix() {
+        return "shape_";
+    }
+
+    /**
+     * Checks whether this shape has the same identifier as another one without formatting either of them.
+     *
+     * @param other the shape to compare with
+     * @return true if both identifiers are equal
+     */
+    protected boolean hasSameId(AbstractShape other) {
+        if (name == null && other.name == null) {
+            return numericId == other.numericId && getIdPrefix().equals(other.getIdPrefix());
+        }
+        return getId().equals(other.getId());
+    }
+
+    /**
+     * Checks whether parameters cached in the Warehouse under this shape's ID describe this object.
+     * Copies that keep an older state of a stored shape return false so that their parameters are computed.
+     *
+     * @return true unless this object is a detached copy of another shape
+     */
+    public boolean isTrackedByWarehouse() {
+        return true;
     }
 
     /**
@@ -38,6 +124,13 @@ public abstract class AbstractShape implements ShapeObservable {
      * @param observer the observer to add
      */
     public void addObserver(ShapeObserver observer) {
+        if (observers == null) {
+            synchronized (this) {
+                if (observers == null) {
+                    observers = new CopyOnWriteArrayList<>();
+                }
+            }
+        }
         observers.add(observer);
     }
 
@@ -47,14 +140,34 @@ public abstract class AbstractShape implements ShapeObservable {
      * @param observer the observer to remove
      */
     public void removeObserver(ShapeObserver observer) {
-        observers.remove(observer);
+        List<ShapeObserver> current = observers;
+        if (current != null) {
+            current.remove(observer);
+        }
+    }
+
+    /**
+     * Notifies all observers that the shape is about to change, while they can still read its old state.
+     */
+    public void notifyBeforeUpdate() {
+        List<ShapeObserver> current = observers;
+        if (current == null) {
+            return;
+        }
+        for (ShapeObserver observer : current) {
+            observer.beforeUpdate(this);
+        }
     }
 
     /**
      * Notifies all observers of changes to the shape.
      */
     public void notifyObservers() {
-        for (ShapeObserver observer : observers) {
+        List<ShapeObserver> current = observers;
+        if (current == null) {
+            return;
+        }
+        for (ShapeObserver observer : current) {
             observer.update(this);
         }
     }
@@ -2,12 +2,16 @@ package lt.esdc.shape.entity;
 
 /**
  * Represents a Tetrahedron defined by four points in 3D space.
+ * Points are immutable and the fields holding them are volatile, so a point set by one thread is seen whole
+ * by every other thread that reads it afterwards.
  */
 public class Tetrahedron extends AbstractShape {
-    private Point pointA;
-    private Point pointB;
-    private Point pointC;
-    private Point pointD;
+    public static final String ID_PREFIX = "tetrahedron_";
+    public static final long NOT_GENERATED = -1;
+    private volatile Point pointA;
+    private volatile Point pointB;
+    private volatile Point pointC;
+    private volatile Point pointD;
 
     /**
      * Constructs a Tetrahedron with the specified points and unique identifier.
@@ -26,6 +30,68 @@ public class Tetrahedron extends AbstractShape {
         this.pointD = pointD;
     }
 
+    /**
+     * Constructs a Tetrahedron with the specified points and numeric identifier.
+     * The caller is responsible for the identifier being unique: the repository rejects a shape whose numeric
+     * identifier is already taken by another one.
+     *
+     * @param numericId the unique identifier for the Tetrahedron
+     * @param pointA    the first point of the Tetrahedron
+     * @param pointB    the second point of the Tetrahedron
+     * @param pointC    the third point of the Tetrahedron
+     * @param pointD    the fourth point of the Tetrahedron
+     */
+    public Tetrahedron(long numericId, Point pointA, Point pointB, Point pointC, Point pointD) {
+        super(numericId);
+        this.pointA = pointA;
+        this.pointB = pointB;
+        this.pointC = pointC;
+        this.pointD = pointD;
+    }
+
+    /**
+     * Constructs a Tetrahedron that restores both identifiers of an existing one.
+     * Subclasses that keep their points elsewhere may pass null points and override the accessors.
+     *
+     * @param numericId the numeric identifier
+     * @param name      the explicit string identifier, or null if it is generated
+     * @param pointA    the first point of the Tetrahedron
+     * @param pointB    the second point of the Tetrahedron
+     * @param pointC    the third point of the Tetrahedron
+     * @param pointD    the fourth point of the Tetrahedron
+     */
+    protected Tetrahedron(long numericId, String name, Point pointA, Point pointB, Point pointC, Point pointD) {
+        super(numericId, name);
+        this.pointA = pointA;
+        this.pointB = pointB;
+        this.pointC = pointC;
+        this.pointD = pointD;
+    }
+
+    @Override
+    protected String getIdPrefix() {
+        return ID_PREFIX;
+    }
+
+    /**
+     * Extracts the numeric identifier from a generated identifier such as {@code tetrahedron_42}.
+     *
+     * @param id the identifier to parse
+     * @return the numeric identifier, or {@link #NOT_GENERATED} if the identifier is not in generated form
+     */
+    public static long parseGeneratedId(String id) {
+        if (id == null || !id.startsWith(ID_PREFIX)) {
+            return NOT_GENERATED;
+        }
+        String digits = id.substring(ID_PREFIX.length());
+        try {
+            long parsed = Long.parseLong(digits);
+            return Long.toString(parsed).equals(digits) ? parsed : NOT_GENERATED;
+        } catch (NumberFormatException e) {
+            return NOT_GENERATED;
+        }
+    }
+
     /**
      * Gets the first point of the Tetrahedron.
      *
@@ -36,11 +102,12 @@ public class Tetrahedron extends AbstractShape {
     }
 
     /**
-     * Sets the first point of the Tetrahedron and notifies observers.
+     * Sets the first point of the Tetrahedron and notifies observers before and after the change.
      *
      * @param pointA the new first point
      */
     public void setPointA(Point pointA) {
+        notifyBeforeUpdate();
         this.pointA = pointA;
         notifyObservers();
     }
@@ -55,11 +122,12 @@ public class Tetrahedron extends AbstractShape {
     }
 
     /**
-     * Sets the second point of the Tetrahedron and notifies observers.
+     * Sets the second point of the Tetrahedron and notifies observers before and after the change.
      *
      * @param pointB the new second point
      */
     public void setPointB(Point pointB) {
+        notifyBeforeUpdate();
         this.pointB = pointB;
         notifyObservers();
     }
@@ -74,11 +142,12 @@ public class Tetrahedron extends AbstractShape {
     }
 
     /**
-     * Sets the third point of the Tetrahedron and notifies observers.
+     * Sets the third point of the Tetrahedron and notifies observers before and after the change.
      *
      * @param pointC the new third point
      */
     public void setPointC(Point pointC) {
+        notifyBeforeUpdate();
         this.pointC = pointC;
         notifyObservers();
     }
@@ -93,11 +162,12 @@ public class Tetrahedron extends AbstractShape {
     }
 
     /**
-     * Sets the fourth point of the Tetrahedron and notifies observers.
+     * Sets the fourth point of the Tetrahedron and notifies observers before and after the change.
      *
      * @param pointD the new fourth point
      */
     public void setPointD(Point pointD) {
+        notifyBeforeUpdate();
         this.pointD = pointD;
         notifyObservers();
     }
@@ -111,15 +181,15 @@ public class Tetrahedron extends AbstractShape {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Tetrahedron)) return false;
 
         Tetrahedron tetrahedron = (Tetrahedron) o;
 
-        if (!getId().equals(tetrahedron.getId())) return false;
-        if (!pointA.equals(tetrahedron.pointA)) return false;
-        if (!pointB.equals(tetrahedron.pointB)) return false;
-        if (!pointC.equals(tetrahedron.pointC)) return false;
-        return pointD.equals(tetrahedron.pointD);
+        if (!hasSameId(tetrahedron)) return false;
+        if (!getPointA().equals(tetrahedron.getPointA())) return false;
+        if (!getPointB().equals(tetrahedron.getPointB())) return false;
+        if (!getPointC().equals(tetrahedron.getPointC())) return false;
+        return getPointD().equals(tetrahedron.getPointD());
     }
 
     /**
@@ -129,10 +199,10 @@ public class Tetrahedron extends AbstractShape {
      */
     @Override
     public int hashCode() {
-        int result = pointA.hashCode();
-        result = 31 * result + pointB.hashCode();
-        result = 31 * result + pointC.hashCode();
-        result = 31 * result + pointD.hashCode();
+        int result = getPointA().hashCode();
+        result = 31 * result + getPointB().hashCode();
+        result = 31 * result + getPointC().hashCode();
+        result = 31 * result + getPointD().hashCode();
         return result;
     }
 
@@ -144,10 +214,10 @@ public class Tetrahedron extends AbstractShape {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("Tetrahedron{");
-        sb.append("pointA=").append(pointA);
-        sb.append(", pointB=").append(pointB);
-        sb.append(", pointC=").append(pointC);
-        sb.append(", pointD=").append(pointD);
+        sb.append("pointA=").append(getPointA());
+        sb.append(", pointB=").append(getPointB());
+        sb.append(", pointC=").append(getPointC());
+        sb.append(", pointD=").append(getPointD());
         sb.append(", id=").append(getId());
         sb.append('}');
         return sb.toString();
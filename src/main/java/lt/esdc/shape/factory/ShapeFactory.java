@@ -13,4 +13,6 @@ import java.util.List;
 public interface ShapeFactory {
 
     AbstractShape createShape(List<Double> parameters) throws ShapeValidationException;
+
+    AbstractShape createShape(double[] parameters) throws ShapeValidationException;
 }
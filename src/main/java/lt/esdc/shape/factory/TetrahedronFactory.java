@@ -2,14 +2,30 @@ package lt.esdc.shape.factory;
 
 import lt.esdc.shape.entity.Point;
 import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.generator.IdGenerator;
+import lt.esdc.shape.generator.impl.SequenceBlockIdGenerator;
 
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Factory class for creating Tetrahedron objects.
+ * Identifiers come from an {@link IdGenerator}, by default the shared {@link SequenceBlockIdGenerator}. The Warehouse,
+ * the stores and the indexes are keyed by numeric ID, so a generator that may repeat an identifier handed out
+ * elsewhere leads to shapes the repository rejects.
  */
 public class TetrahedronFactory implements ShapeFactory {
+    private final IdGenerator idGenerator;
+
+    public TetrahedronFactory() {
+        this(SequenceBlockIdGenerator.getInstance());
+    }
+
+    /**
+     * @param idGenerator the generator used to assign identifiers
+     */
+    public TetrahedronFactory(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
 
     /**
      * Creates a Tetrahedron object from the specified parameters.
@@ -24,9 +40,23 @@ public class TetrahedronFactory implements ShapeFactory {
             Point pointC = new Point(parameters.get(6), parameters.get(7), parameters.get(8));
             Point pointD = new Point(parameters.get(9), parameters.get(10), parameters.get(11));
 
-            String id = "tetrahedron_" + UUID.randomUUID();
+            return new Tetrahedron(idGenerator.nextId(), pointA, pointB, pointC, pointD);
+    }
+
+    /**
+     * Creates a Tetrahedron object from primitive coordinates without unboxing.
+     *
+     * @param parameters twelve coordinates, x y z of each point in order A, B, C, D
+     * @return the created Tetrahedron object
+     */
+    @Override
+    public Tetrahedron createShape(double[] parameters) {
+        Point pointA = new Point(parameters[0], parameters[1], parameters[2]);
+        Point pointB = new Point(parameters[3], parameters[4], parameters[5]);
+        Point pointC = new Point(parameters[6], parameters[7], parameters[8]);
+        Point pointD = new Point(parameters[9], parameters[10], parameters[11]);
 
-            return new Tetrahedron(id, pointA, pointB, pointC, pointD);
+        return new Tetrahedron(idGenerator.nextId(), pointA, pointB, pointC, pointD);
     }
 
 }
@@ -0,0 +1,16 @@
+package lt.esdc.shape.generator;
+
+/**
+ * Strategy for generating unique numeric shape identifiers.
+ * Implementations must be safe to call from several threads at once.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * Returns the next identifier.
+     *
+     * @return a positive identifier never returned before by this generator
+     */
+    long nextId();
+}
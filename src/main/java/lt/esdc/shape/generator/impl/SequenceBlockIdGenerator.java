@@ -0,0 +1,50 @@
+package lt.esdc.shape.generator.impl;
+
+import lt.esdc.shape.generator.IdGenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator that hands every thread a private block of consecutive identifiers.
+ * A thread touches the shared counter only once per block, so creation does not contend
+ * even when many threads create shapes at the same time. Identifiers are unique but
+ * only increasing within one thread.
+ * Every instance reserves its blocks from one process-wide counter, so generators with different block sizes
+ * never hand out the same identifier.
+ */
+public class SequenceBlockIdGenerator implements IdGenerator {
+    private static final AtomicLong nextBlockStart = new AtomicLong(1);
+    private static final SequenceBlockIdGenerator instance = new SequenceBlockIdGenerator(1024);
+    private final ThreadLocal<long[]> block;
+    private final int blockSize;
+
+    /**
+     * @param blockSize the number of identifiers reserved by a thread at once
+     */
+    public SequenceBlockIdGenerator(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.block = ThreadLocal.withInitial(() -> new long[]{0, 0});
+    }
+
+    /**
+     * Returns the shared generator, used by shapes created without an explicit generator.
+     *
+     * @return the shared generator
+     */
+    public static SequenceBlockIdGenerator getInstance() {
+        return instance;
+    }
+
+    @Override
+    public long nextId() {
+        long[] range = block.get();
+        if (range[0] == range[1]) {
+            range[0] = nextBlockStart.getAndAdd(blockSize);
+            range[1] = range[0] + blockSize;
+        }
+        return range[0]++;
+    }
+}
@@ -0,0 +1,16 @@
+package lt.esdc.shape.loader;
+
+/**
+ * Callback notified periodically while shapes are being loaded in streaming mode.
+ */
+@FunctionalInterface
+public interface LoadProgressListener {
+
+    /**
+     * Called after every reporting interval and once more when loading finishes.
+     *
+     * @param linesRead    the number of non-blank lines read so far
+     * @param shapesLoaded the number of shapes created and stored so far
+     */
+    void onProgress(long linesRead, long shapesLoaded);
+}
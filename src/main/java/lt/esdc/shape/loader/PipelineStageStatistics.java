@@ -0,0 +1,90 @@
+package lt.esdc.shape.loader;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of one stage of an ingestion pipeline.
+ * A stage is idle while it waits on its input queue and stalled while it waits for room in its output queue,
+ * so a stage with high stall time is being throttled by a slower stage downstream.
+ */
+public class PipelineStageStatistics {
+    private final String name;
+    private final BlockingQueue<?> inputQueue;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder stallNanos = new LongAdder();
+    private final LongAdder idleNanos = new LongAdder();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    /**
+     * @param name       the stage name
+     * @param inputQueue the queue the stage consumes from, or null for the source stage
+     */
+    public PipelineStageStatistics(String name, BlockingQueue<?> inputQueue) {
+        this.name = name;
+        this.inputQueue = inputQueue;
+    }
+
+    public void recordProcessed() {
+        processed.increment();
+    }
+
+    public void recordStall(long nanos) {
+        stallNanos.add(nanos);
+    }
+
+    public void recordIdle(long nanos) {
+        idleNanos.add(nanos);
+    }
+
+    public void markFinished() {
+        endNanos = System.nanoTime();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    /**
+     * @return the number of items currently waiting in front of this stage
+     */
+    public int getQueueDepth() {
+        return inputQueue == null ? 0 : inputQueue.size();
+    }
+
+    public long getStallMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(stallNanos.sum());
+    }
+
+    public long getIdleMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(idleNanos.sum());
+    }
+
+    /**
+     * @return items processed per second since the stage started, until it finished
+     */
+    public double getThroughput() {
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        double seconds = Math.max(end - startNanos, 1) / 1e9;
+        return getProcessed() / seconds;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PipelineStageStatistics{");
+        sb.append("name=").append(name);
+        sb.append(", processed=").append(getProcessed());
+        sb.append(", queueDepth=").append(getQueueDepth());
+        sb.append(", stallMillis=").append(getStallMillis());
+        sb.append(", idleMillis=").append(getIdleMillis());
+        sb.append(", throughput=").append(String.format("%.1f/s", getThroughput()));
+        sb.append('}');
+        return sb.toString();
+    }
+}
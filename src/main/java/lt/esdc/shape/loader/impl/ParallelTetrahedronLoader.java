@@ -0,0 +1,245 @@
+package lt.esdc.shape.loader.impl;
+
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.exception.FileReadException;
+import lt.esdc.shape.exception.ShapeValidationException;
+import lt.esdc.shape.factory.TetrahedronFactory;
+import lt.esdc.shape.loader.ShapeLoader;
+import lt.esdc.shape.parser.CoordinateScanner;
+import lt.esdc.shape.repository.TetrahedronRepository;
+import lt.esdc.shape.validator.TetrahedronValidatorImpl;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loader that memory-maps the input file and parses it on a ForkJoin pool.
+ * The file is cut into chunks that end on a newline, and each chunk is parsed and validated independently into
+ * coordinates. The Tetrahedrons are then created from them in chunk order on the calling thread, so both the output
+ * order and the order in which identifiers are drawn match the line order, however the chunks were scheduled.
+ * The whole file is validated before anything is stored: an invalid Tetrahedron leaves the repository untouched.
+ * The pool belongs to the loader and is reused by every load; its workers are daemon threads that exit when idle.
+ */
+public class ParallelTetrahedronLoader implements ShapeLoader<Tetrahedron> {
+    private static final Logger logger = LogManager.getLogger(ParallelTetrahedronLoader.class);
+    private static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final long MAX_CHUNK_LENGTH = Integer.MAX_VALUE;
+    private static final int COORDINATES_COUNT = 12;
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private final TetrahedronFactory factory;
+    private final TetrahedronValidatorImpl validator;
+    private final int chunkSize;
+    private final long maxChunkLength;
+    private final ForkJoinPool pool;
+
+    public ParallelTetrahedronLoader(TetrahedronFactory factory) {
+        this(factory, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param factory     the factory used to create Tetrahedrons
+     * @param parallelism the number of worker threads
+     * @param chunkSize   the approximate number of bytes parsed by a single task
+     */
+    public ParallelTetrahedronLoader(TetrahedronFactory factory, int parallelism, int chunkSize) {
+        this(factory, parallelism, chunkSize, MAX_CHUNK_LENGTH);
+    }
+
+    /**
+     * @param maxChunkLength the longest chunk, and so the longest line, the loader accepts
+     */
+    ParallelTetrahedronLoader(TetrahedronFactory factory, int parallelism, int chunkSize, long maxChunkLength) {
+        if (parallelism <= 0 || chunkSize <= 0 || maxChunkLength < chunkSize || maxChunkLength > MAX_CHUNK_LENGTH) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive and chunks must fit "
+                    + MAX_CHUNK_LENGTH + " bytes");
+        }
+        this.factory = factory;
+        this.validator = new TetrahedronValidatorImpl();
+        this.chunkSize = chunkSize;
+        this.maxChunkLength = maxChunkLength;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public List<Tetrahedron> loadShapesFromFile(String filePath) throws ShapeValidationException, FileReadException {
+        List<ChunkResult> results;
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            results = parseChunks(channel, splitIntoChunks(channel));
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error mapping file: {}{}", filePath, e.getMessage());
+            throw new FileReadException("Error mapping file: " + filePath, e);
+        }
+
+        int total = 0;
+        for (ChunkResult result : results) {
+            if (result.invalid != null) {
+                String points = Arrays.toString(result.invalid);
+                logger.warn("Invalid Tetrahedron with coordinates: {}", points);
+                throw new ShapeValidationException("Invalid Tetrahedron with coordinates: " + points);
+            }
+            total += result.count;
+        }
+
+        List<Tetrahedron> tetrahedrons = new ArrayList<>(total);
+        double[] parameters = new double[COORDINATES_COUNT];
+        for (ChunkResult result : results) {
+            for (int i = 0; i < result.count; i++) {
+                System.arraycopy(result.coordinates, i * COORDINATES_COUNT, parameters, 0, COORDINATES_COUNT);
+                tetrahedrons.add(factory.createShape(parameters));
+            }
+        }
+        TetrahedronRepository.getInstance().addAll(tetrahedrons);
+        logger.info("Successfully loaded {} tetrahedrons from {} chunks of file: {}", total, results.size(), filePath);
+        return tetrahedrons;
+    }
+
+    /**
+     * Computes chunk boundaries so that every chunk but the last ends right after a newline.
+     * A chunk is mapped as one buffer and indexed by int, so a line that would stretch it past
+     * the maximum chunk length, at most {@value #MAX_CHUNK_LENGTH} bytes, fails the load.
+     */
+    private List<long[]> splitIntoChunks(FileChannel channel) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        long size = channel.size();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            if (end < size) {
+                long limit = Math.min(start + maxChunkLength, size);
+                end = findNextNewLine(channel, end - 1, limit, probe);
+                if (end == limit && limit < size) {
+                    throw new IOException("Line starting before offset " + limit + " is longer than "
+                            + maxChunkLength + " bytes");
+                }
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * @return the position right after the first newline in {@code [from, limit)}, or {@code limit} if there is none
+     */
+    private static long findNextNewLine(FileChannel channel, long from, long limit, ByteBuffer probe)
+            throws IOException {
+        long position = from;
+        while (position < limit) {
+            probe.clear();
+            probe.limit((int) Math.min(probe.capacity(), limit - position));
+            int read = channel.read(probe, position);
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == NEW_LINE) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return limit;
+    }
+
+    private List<ChunkResult> parseChunks(FileChannel channel, List<long[]> chunks) {
+        List<ChunkTask> tasks = new ArrayList<>(chunks.size());
+        for (long[] chunk : chunks) {
+            ChunkTask task = new ChunkTask(channel, chunk[0], chunk[1]);
+            tasks.add(task);
+            pool.execute(task);
+        }
+        List<ChunkResult> results = new ArrayList<>(tasks.size());
+        for (ChunkTask task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    /**
+     * The valid shapes of a chunk as {@value #COORDINATES_COUNT} coordinates each, and the coordinates of the first
+     * invalid one, if any.
+     */
+    private record ChunkResult(double[] coordinates, int count, double[] invalid) {
+    }
+
+    /**
+     * Parses the lines of one mapped region.
+     */
+    private class ChunkTask extends RecursiveTask<ChunkResult> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            CoordinateScanner scanner = new CoordinateScanner();
+            double[] line = new double[COORDINATES_COUNT];
+            double[] coordinates = new double[COORDINATES_COUNT * 64];
+            int count = 0;
+            int limit = buffer.limit();
+            int lineStart = 0;
+
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != NEW_LINE) {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == CARRIAGE_RETURN ? lineEnd - 1 : lineEnd;
+
+                int scanned = scanner.scan(buffer, lineStart, contentEnd, line);
+                if (scanned == COORDINATES_COUNT) {
+                    if (!isValid(line)) {
+                        return new ChunkResult(coordinates, count, line);
+                    }
+                    if ((count + 1) * COORDINATES_COUNT > coordinates.length) {
+                        coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+                    }
+                    System.arraycopy(line, 0, coordinates, count * COORDINATES_COUNT, COORDINATES_COUNT);
+                    count++;
+                } else if (scanned != 0) {
+                    logger.warn("Skipping invalid line: {}", lineText(buffer, lineStart, contentEnd));
+                }
+                lineStart = lineEnd + 1;
+            }
+            return new ChunkResult(coordinates, count, null);
+        }
+
+        private boolean isValid(double[] line) {
+            return validator.isValid(new Point(line[0], line[1], line[2]), new Point(line[3], line[4], line[5]),
+                    new Point(line[6], line[7], line[8]), new Point(line[9], line[10], line[11]));
+        }
+    }
+
+    private static String lineText(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,265 @@
+package lt.esdc.shape.loader.impl;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.exception.FileReadException;
+import lt.esdc.shape.exception.ShapeValidationException;
+import lt.esdc.shape.factory.TetrahedronFactory;
+import lt.esdc.shape.loader.PipelineStageStatistics;
+import lt.esdc.shape.loader.ShapeLoader;
+import lt.esdc.shape.parser.CoordinateScanner;
+import lt.esdc.shape.reader.ShapeCoordinateReader;
+import lt.esdc.shape.repository.TetrahedronRepository;
+import lt.esdc.shape.validator.TetrahedronValidatorImpl;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Loader that runs read, parse, create/validate and store as separate stages.
+ * Every stage has its own worker pool and hands items to the next one through a bounded queue,
+ * so a slow stage blocks the stages before it instead of letting them buffer the whole file.
+ * With more than one parse or validation worker the store order may differ from the line order.
+ * Shapes stored before an invalid Tetrahedron is detected stay in the repository, as with {@link TetrahedronLoader}.
+ * The first failure of any stage stops the pipeline and is rethrown by {@link #loadShapesFromFile(String)}.
+ * Each queue carries its items as they are and ends with a shared end-of-stream constant that no real item can equal:
+ * an empty line, which the reader never yields, an empty coordinate array and a Tetrahedron without points.
+ */
+public class PipelineTetrahedronLoader implements ShapeLoader<Tetrahedron> {
+    private static final Logger logger = LogManager.getLogger(PipelineTetrahedronLoader.class);
+    private static final int COORDINATES_COUNT = 12;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final String END_OF_LINES = "";
+    private static final double[] END_OF_COORDINATES = new double[0];
+    private static final Tetrahedron END_OF_SHAPES = new Tetrahedron(Tetrahedron.NOT_GENERATED, null, null, null, null);
+    private final TetrahedronFactory factory;
+    private final TetrahedronValidatorImpl validator;
+    private final ShapeCoordinateReader reader;
+    private final int parseWorkers;
+    private final int validateWorkers;
+    private final int queueCapacity;
+    private volatile List<PipelineStageStatistics> statistics = List.of();
+
+    public PipelineTetrahedronLoader(TetrahedronFactory factory) {
+        this(factory, 2, 2, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param factory         the factory used to create Tetrahedrons
+     * @param parseWorkers    the number of parser threads
+     * @param validateWorkers the number of create/validate threads
+     * @param queueCapacity   the capacity of each queue between two stages
+     */
+    public PipelineTetrahedronLoader(TetrahedronFactory factory, int parseWorkers, int validateWorkers, int queueCapacity) {
+        if (parseWorkers <= 0 || validateWorkers <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Worker counts and queue capacity must be positive");
+        }
+        this.factory = factory;
+        this.validator = new TetrahedronValidatorImpl();
+        this.reader = new ShapeCoordinateReader();
+        this.parseWorkers = parseWorkers;
+        this.validateWorkers = validateWorkers;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Returns the statistics of the current or last run, in stage order: read, parse, validate, store.
+     * The returned objects are live and may be polled while a load is in progress.
+     *
+     * @return the per-stage statistics
+     */
+    public List<PipelineStageStatistics> getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public List<Tetrahedron> loadShapesFromFile(String filePath) throws ShapeValidationException, FileReadException {
+        BlockingQueue<String> lines = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<double[]> coordinates = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Tetrahedron> shapes = new ArrayBlockingQueue<>(queueCapacity);
+        PipelineStageStatistics readStats = new PipelineStageStatistics("read", null);
+        PipelineStageStatistics parseStats = new PipelineStageStatistics("parse", lines);
+        PipelineStageStatistics validateStats = new PipelineStageStatistics("validate", coordinates);
+        PipelineStageStatistics storeStats = new PipelineStageStatistics("store", shapes);
+        statistics = List.of(readStats, parseStats, validateStats, storeStats);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger activeParsers = new AtomicInteger(parseWorkers);
+        AtomicInteger activeValidators = new AtomicInteger(validateWorkers);
+        List<Tetrahedron> stored = new ArrayList<>();
+        Stream<String> source = reader.streamShapesFromFile(filePath);
+
+        ExecutorService readPool = Executors.newSingleThreadExecutor();
+        ExecutorService parsePool = Executors.newFixedThreadPool(parseWorkers);
+        ExecutorService validatePool = Executors.newFixedThreadPool(validateWorkers);
+        ExecutorService storePool = Executors.newSingleThreadExecutor();
+        try {
+            readPool.execute(() -> read(source, lines, readStats, failure));
+            for (int i = 0; i < parseWorkers; i++) {
+                parsePool.execute(() -> parse(lines, coordinates, parseStats, failure, activeParsers));
+            }
+            for (int i = 0; i < validateWorkers; i++) {
+                validatePool.execute(() -> validate(coordinates, shapes, validateStats, failure, activeValidators));
+            }
+            storePool.submit(() -> store(shapes, stored, storeStats, failure)).get();
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } finally {
+            readPool.shutdownNow();
+            parsePool.shutdownNow();
+            validatePool.shutdownNow();
+            storePool.shutdownNow();
+            source.close();
+        }
+
+        statistics.forEach(stage -> logger.info("Pipeline stage finished: {}", stage));
+        Throwable error = failure.get();
+        if (error instanceof ShapeValidationException validationException) {
+            throw validationException;
+        }
+        if (error instanceof FileReadException fileReadException) {
+            throw fileReadException;
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        if (error != null) {
+            throw new IllegalStateException("Ingestion pipeline failed for file: " + filePath, error);
+        }
+        logger.info("Successfully loaded {} tetrahedrons through the pipeline", stored.size());
+        return stored;
+    }
+
+    private void read(Stream<String> source, BlockingQueue<String> out, PipelineStageStatistics stats,
+                      AtomicReference<Throwable> failure) {
+        try {
+            Iterator<String> iterator = source.iterator();
+            while (failure.get() == null && iterator.hasNext()) {
+                put(out, iterator.next(), stats);
+                stats.recordProcessed();
+            }
+        } catch (UncheckedIOException e) {
+            failure.compareAndSet(null, new FileReadException("Error streaming lines from file", e.getCause()));
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            for (int i = 0; i < parseWorkers; i++) {
+                put(out, END_OF_LINES, stats);
+            }
+            stats.markFinished();
+        }
+    }
+
+    private void parse(BlockingQueue<String> in, BlockingQueue<double[]> out, PipelineStageStatistics stats,
+                       AtomicReference<Throwable> failure, AtomicInteger active) {
+        CoordinateScanner scanner = new CoordinateScanner();
+        String line;
+        while (!(line = take(in, stats)).isEmpty()) {
+            if (failure.get() != null) {
+                continue;
+            }
+            try {
+                double[] parsed = new double[COORDINATES_COUNT];
+                if (scanner.scan(line, parsed) == COORDINATES_COUNT) {
+                    put(out, parsed, stats);
+                } else {
+                    logger.warn("Skipping invalid line: {}", line);
+                }
+                stats.recordProcessed();
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+        if (active.decrementAndGet() == 0) {
+            for (int i = 0; i < validateWorkers; i++) {
+                put(out, END_OF_COORDINATES, stats);
+            }
+            stats.markFinished();
+        }
+    }
+
+    private void validate(BlockingQueue<double[]> in, BlockingQueue<Tetrahedron> out,
+                          PipelineStageStatistics stats, AtomicReference<Throwable> failure, AtomicInteger active) {
+        double[] parsed;
+        while ((parsed = take(in, stats)).length != 0) {
+            if (failure.get() != null) {
+                continue;
+            }
+            try {
+                Tetrahedron tetrahedron = factory.createShape(parsed);
+                if (validator.isValid(tetrahedron)) {
+                    put(out, tetrahedron, stats);
+                } else {
+                    logger.warn("Invalid Tetrahedron: {}", tetrahedron);
+                    failure.compareAndSet(null, new ShapeValidationException("Invalid Tetrahedron: " + tetrahedron));
+                }
+                stats.recordProcessed();
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+        if (active.decrementAndGet() == 0) {
+            put(out, END_OF_SHAPES, stats);
+            stats.markFinished();
+        }
+    }
+
+    private void store(BlockingQueue<Tetrahedron> in, List<Tetrahedron> stored,
+                       PipelineStageStatistics stats, AtomicReference<Throwable> failure) {
+        TetrahedronRepository repository = TetrahedronRepository.getInstance();
+        Tetrahedron tetrahedron;
+        while ((tetrahedron = take(in, stats)) != END_OF_SHAPES) {
+            if (failure.get() != null) {
+                continue;
+            }
+            try {
+                repository.add(tetrahedron);
+                stored.add(tetrahedron);
+                stats.recordProcessed();
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+        stats.markFinished();
+    }
+
+    private static <T> void put(BlockingQueue<T> queue, T item, PipelineStageStatistics stats) {
+        long start = System.nanoTime();
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pipeline stage interrupted", e);
+        }
+        stats.recordStall(System.nanoTime() - start);
+    }
+
+    private static <T> T take(BlockingQueue<T> queue, PipelineStageStatistics stats) {
+        long start = System.nanoTime();
+        try {
+            T item = queue.take();
+            stats.recordIdle(System.nanoTime() - start);
+            return item;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pipeline stage interrupted", e);
+        }
+    }
+}
@@ -4,7 +4,8 @@ import lt.esdc.shape.entity.Tetrahedron;
 import lt.esdc.shape.exception.FileReadException;
 import lt.esdc.shape.exception.ShapeValidationException;
 import lt.esdc.shape.factory.TetrahedronFactory;
-import lt.esdc.shape.parser.CoordinateParser;
+import lt.esdc.shape.loader.LoadProgressListener;
+import lt.esdc.shape.parser.CoordinateScanner;
 import lt.esdc.shape.loader.ShapeLoader;
 import lt.esdc.shape.reader.ShapeCoordinateReader;
 import lt.esdc.shape.repository.TetrahedronRepository;
@@ -12,21 +13,29 @@ import lt.esdc.shape.validator.TetrahedronValidatorImpl;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Loads Tetrahedrons from text files, one Tetrahedron per line, and adds them to the repository.
+ * Every load parses with its own scanner and coordinate buffer, so one loader may run several loads at once.
+ */
 public class TetrahedronLoader implements ShapeLoader<Tetrahedron> {
     private static final Logger logger = LogManager.getLogger(TetrahedronLoader.class);
+    private static final long DEFAULT_PROGRESS_INTERVAL = 100_000;
+    private static final int COORDINATES_COUNT = 12;
     private final TetrahedronValidatorImpl validator;
     private final TetrahedronFactory factory;
-    private final CoordinateParser parser;
     private final ShapeCoordinateReader reader;
 
     public TetrahedronLoader(TetrahedronFactory factory) {
         this.factory = factory;
         this.validator = new TetrahedronValidatorImpl();
-        this.parser = new CoordinateParser();
         this.reader = new ShapeCoordinateReader();
     }
 
@@ -39,26 +48,81 @@ public class TetrahedronLoader implements ShapeLoader<Tetrahedron> {
         return processLines(lines);
     }
 
+    /**
+     * Loads shapes from the file one line at a time without materializing the file or the result.
+     * Every valid Tetrahedron is added to the repository and then handed to the consumer.
+     * Unparsable lines are skipped and an invalid Tetrahedron aborts the load, as in {@link #loadShapesFromFile(String)}.
+     *
+     * @param filePath the path of the file to load
+     * @param consumer receives each stored Tetrahedron; it should not retain them if memory must stay bounded
+     * @param listener notified every {@value #DEFAULT_PROGRESS_INTERVAL} lines and when loading finishes
+     * @return the number of Tetrahedrons loaded
+     * @throws ShapeValidationException if a parsed Tetrahedron is invalid
+     * @throws FileReadException if the file cannot be read
+     */
+    public long loadShapesFromFileStreaming(String filePath, Consumer<Tetrahedron> consumer, LoadProgressListener listener)
+            throws ShapeValidationException, FileReadException {
+        return loadShapesFromFileStreaming(filePath, consumer, listener, DEFAULT_PROGRESS_INTERVAL);
+    }
+
+    /**
+     * Same as {@link #loadShapesFromFileStreaming(String, Consumer, LoadProgressListener)} with a custom reporting interval.
+     *
+     * @param progressInterval the number of lines between two progress notifications
+     */
+    public long loadShapesFromFileStreaming(String filePath, Consumer<Tetrahedron> consumer, LoadProgressListener listener,
+                                            long progressInterval) throws ShapeValidationException, FileReadException {
+        if (progressInterval <= 0) {
+            throw new IllegalArgumentException("Progress interval must be positive: " + progressInterval);
+        }
+        TetrahedronRepository repository = TetrahedronRepository.getInstance();
+        CoordinateScanner scanner = new CoordinateScanner();
+        double[] coordinates = new double[COORDINATES_COUNT];
+        long linesRead = 0;
+        long shapesLoaded = 0;
+
+        try (Stream<String> lines = reader.streamShapesFromFile(filePath)) {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                linesRead++;
+
+                Optional<Tetrahedron> tetrahedronOpt = processLine(line, scanner, coordinates);
+                if (tetrahedronOpt.isPresent()) {
+                    Tetrahedron tetrahedron = tetrahedronOpt.get();
+                    repository.add(tetrahedron);
+                    consumer.accept(tetrahedron);
+                    shapesLoaded++;
+                }
+
+                if (linesRead % progressInterval == 0) {
+                    logger.info("Streaming progress: {} lines read, {} tetrahedrons loaded", linesRead, shapesLoaded);
+                    listener.onProgress(linesRead, shapesLoaded);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            logger.error("Error streaming lines from file: {}{}", filePath, e.getMessage());
+            throw new FileReadException("Error streaming lines from file: " + filePath, e.getCause());
+        }
+
+        listener.onProgress(linesRead, shapesLoaded);
+        logger.info("Successfully streamed {} valid tetrahedrons out of {} lines", shapesLoaded, linesRead);
+        return shapesLoaded;
+    }
+
     private List<Tetrahedron> processLines(List<String> lines) throws ShapeValidationException {
         List<Tetrahedron> tetrahedrons = new ArrayList<>();
         TetrahedronRepository repository = TetrahedronRepository.getInstance();
+        CoordinateScanner scanner = new CoordinateScanner();
+        double[] coordinates = new double[COORDINATES_COUNT];
 
         for (String line : lines) {
-            Optional<List<Double>> coordinatesOpt = parser.parseCoordinates(line);
-            if (coordinatesOpt.isEmpty()) {
-                logger.warn("Skipping invalid line: {}", line);
-                continue;
-            }
-
-            List<Double> coordinates = coordinatesOpt.get();
-            Tetrahedron tetrahedron = factory.createShape(coordinates);
-            if (validator.isValid(tetrahedron)) {
+            Optional<Tetrahedron> tetrahedronOpt = processLine(line, scanner, coordinates);
+            if (tetrahedronOpt.isPresent()) {
+                Tetrahedron tetrahedron = tetrahedronOpt.get();
                 repository.add(tetrahedron);
                 tetrahedrons.add(tetrahedron);
-                logger.info("Successfully created Tetrahedron: {}", tetrahedron);
-            } else {
-                logger.warn("Invalid Tetrahedron: {}", tetrahedron);
-                throw new ShapeValidationException("Invalid Tetrahedron: " + tetrahedron);
+                logger.debug("Successfully created Tetrahedron {}", tetrahedron.getId());
             }
         }
 
@@ -66,5 +130,27 @@ public class TetrahedronLoader implements ShapeLoader<Tetrahedron> {
         return tetrahedrons;
     }
 
+    /**
+     * Parses, creates and validates a single Tetrahedron.
+     *
+     * @param line        the line to process
+     * @param scanner     the scanner of the running load
+     * @param coordinates the coordinate buffer of the running load
+     * @return the Tetrahedron, or empty if the line cannot be parsed
+     * @throws ShapeValidationException if the parsed Tetrahedron is invalid
+     */
+    private Optional<Tetrahedron> processLine(String line, CoordinateScanner scanner, double[] coordinates)
+            throws ShapeValidationException {
+        if (scanner.scan(line, coordinates) != COORDINATES_COUNT) {
+            logger.warn("Skipping invalid line: {}", line);
+            return Optional.empty();
+        }
 
+        Tetrahedron tetrahedron = factory.createShape(coordinates);
+        if (!validator.isValid(tetrahedron)) {
+            logger.warn("Invalid Tetrahedron: {}", tetrahedron);
+            throw new ShapeValidationException("Invalid Tetrahedron: " + tetrahedron);
+        }
+        return Optional.of(tetrahedron);
+    }
 }
@@ -14,4 +14,13 @@ public interface ShapeObserver {
      * @param abstractShape the updated Shape
      */
     void update(AbstractShape abstractShape);
+
+    /**
+     * Called before the observed Shape changes, while it still has its old state.
+     * Observers that only react to the new state need not implement it.
+     *
+     * @param abstractShape the Shape about to change
+     */
+    default void beforeUpdate(AbstractShape abstractShape) {
+    }
 }
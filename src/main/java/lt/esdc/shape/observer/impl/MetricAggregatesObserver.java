@@ -0,0 +1,26 @@
+package lt.esdc.shape.observer.impl;
+
+import lt.esdc.shape.entity.AbstractShape;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.ShapeObserver;
+import lt.esdc.shape.repository.aggregate.MetricAggregates;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Observer that replaces a Tetrahedron's contribution to the repository aggregates when its points change.
+ */
+public class MetricAggregatesObserver implements ShapeObserver {
+    private static final Logger logger = LogManager.getLogger(MetricAggregatesObserver.class);
+    private final MetricAggregates aggregates;
+
+    public MetricAggregatesObserver(MetricAggregates aggregates) {
+        this.aggregates = aggregates;
+    }
+
+    @Override
+    public void update(AbstractShape abstractShape) {
+        aggregates.update((Tetrahedron) abstractShape);
+        logger.debug("Aggregates updated for shape {}", abstractShape.getNumericId());
+    }
+}
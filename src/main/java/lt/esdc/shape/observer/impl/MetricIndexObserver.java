@@ -0,0 +1,26 @@
+package lt.esdc.shape.observer.impl;
+
+import lt.esdc.shape.entity.AbstractShape;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.ShapeObserver;
+import lt.esdc.shape.repository.index.MetricIndex;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Observer that re-indexes a Tetrahedron in the repository's metric indexes when its points change.
+ */
+public class MetricIndexObserver implements ShapeObserver {
+    private static final Logger logger = LogManager.getLogger(MetricIndexObserver.class);
+    private final MetricIndex metricIndex;
+
+    public MetricIndexObserver(MetricIndex metricIndex) {
+        this.metricIndex = metricIndex;
+    }
+
+    @Override
+    public void update(AbstractShape abstractShape) {
+        metricIndex.reindex((Tetrahedron) abstractShape);
+        logger.debug("Metric indexes updated for shape {}", abstractShape.getNumericId());
+    }
+}
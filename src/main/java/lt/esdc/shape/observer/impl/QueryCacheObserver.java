@@ -0,0 +1,27 @@
+package lt.esdc.shape.observer.impl;
+
+import lt.esdc.shape.entity.AbstractShape;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.ShapeObserver;
+import lt.esdc.shape.repository.cache.QueryResultCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Observer that drops the cached query results a Tetrahedron's point change could affect.
+ * Must be registered after the {@link WarehouseObserver}, since the cache checks the new parameters.
+ */
+public class QueryCacheObserver implements ShapeObserver {
+    private static final Logger logger = LogManager.getLogger(QueryCacheObserver.class);
+    private final QueryResultCache cache;
+
+    public QueryCacheObserver(QueryResultCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void update(AbstractShape abstractShape) {
+        cache.invalidate((Tetrahedron) abstractShape);
+        logger.debug("Query cache invalidated for shape {}", abstractShape.getNumericId());
+    }
+}
@@ -0,0 +1,32 @@
+package lt.esdc.shape.observer.impl;
+
+import lt.esdc.shape.entity.AbstractShape;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.ShapeObserver;
+import lt.esdc.shape.repository.snapshot.ShapeVersionTable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Observer that keeps the repository's version table informed of edits: the old state of a Tetrahedron is handed to
+ * the open snapshots before its points change, and a new version starts afterwards.
+ */
+public class ShapeVersionObserver implements ShapeObserver {
+    private static final Logger logger = LogManager.getLogger(ShapeVersionObserver.class);
+    private final ShapeVersionTable versionTable;
+
+    public ShapeVersionObserver(ShapeVersionTable versionTable) {
+        this.versionTable = versionTable;
+    }
+
+    @Override
+    public void beforeUpdate(AbstractShape abstractShape) {
+        versionTable.preserve((Tetrahedron) abstractShape);
+    }
+
+    @Override
+    public void update(AbstractShape abstractShape) {
+        versionTable.advance();
+        logger.debug("Version {} committed for shape {}", versionTable.getCurrentVersion(), abstractShape.getNumericId());
+    }
+}
@@ -8,23 +8,52 @@ import lt.esdc.shape.warehouse.Warehouse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Observer that updates the Warehouse with shape parameters when a shape is updated.
  * Implements the ShapeObserver interface to receive notifications about shape changes.
+ * Updates of one shape are serialized by a lock striped on its numeric ID, held while the parameters are computed
+ * and stored. Two threads editing the same shape can therefore not store their results out of order: whichever
+ * update runs last reads the points after both edits, so the Warehouse never keeps parameters of a stale state.
  */
 
 public class WarehouseObserver implements ShapeObserver {
     private static final Logger logger = LogManager.getLogger(WarehouseObserver.class);
+    private static final int STRIPES = 64;
+    private static final Lock[] locks = new Lock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the lock that serializes Warehouse updates of a shape. Code that computes and stores a shape's
+     * parameters outside this observer must hold it for the whole computation, or it could overwrite the
+     * parameters of a newer state.
+     *
+     * @param shapeId the numeric ID of the shape
+     * @return the lock of the stripe the shape belongs to
+     */
+    public static Lock getUpdateLock(long shapeId) {
+        return locks[Long.hashCode(shapeId * 0x9E3779B97F4A7C15L) & (STRIPES - 1)];
+    }
 
     @Override
     public void update(AbstractShape abstractShape) {
         Warehouse warehouse = Warehouse.getInstance();
         ShapeCalculator calculator = CalculatorFactory.getCalculator(abstractShape);
-        String shapeId = abstractShape.getId();
-        double shapePerimeter = calculator.computePerimeter(abstractShape);
-        double shapeArea = calculator.computeArea(abstractShape);
-        double shapeVolume = calculator.computeVolume(abstractShape);
-        warehouse.putParameters(shapeId, shapePerimeter, shapeArea, shapeVolume);
-        logger.info("Warehouse updated shape {}", abstractShape);
+        long shapeId = abstractShape.getNumericId();
+        Lock lock = getUpdateLock(shapeId);
+        lock.lock();
+        try {
+            warehouse.putParameters(shapeId, calculator.computeAll(abstractShape));
+        } finally {
+            lock.unlock();
+        }
+        logger.debug("Warehouse updated shape {}", shapeId);
     }
 }
@@ -0,0 +1,196 @@
+package lt.esdc.shape.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hand-written scanner that parses whitespace-separated coordinates straight into a caller-supplied array.
+ * Unlike {@link CoordinateParser} it does not split, box or wrap anything, so a well-formed line
+ * of plain decimal numbers is parsed without allocating.
+ * Tokens the fast path cannot represent exactly (more than 15 significant digits, large exponents,
+ * NaN, hexadecimal literals, ...) are delegated to {@link Double#parseDouble(String)}, which keeps
+ * the accepted syntax identical to {@link CoordinateParser}.
+ * Instances keep a reusable byte view and are not thread-safe.
+ */
+public class CoordinateScanner {
+    public static final int INVALID = -1;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private final ByteSequence byteView = new ByteSequence();
+    private double value;
+
+    /**
+     * Parses the whitespace-separated numbers of a line into the target array.
+     *
+     * @param line   the characters to parse
+     * @param target the array receiving the numbers, starting at index 0
+     * @return the number of values parsed, or {@link #INVALID} if a token is not a number
+     * or the line holds more values than the target can take
+     */
+    public int scan(CharSequence line, double[] target) {
+        int length = line.length();
+        int count = 0;
+        int position = 0;
+
+        while (true) {
+            while (position < length && isSeparator(line.charAt(position))) {
+                position++;
+            }
+            if (position == length) {
+                return count;
+            }
+            int start = position;
+            while (position < length && !isSeparator(line.charAt(position))) {
+                position++;
+            }
+            if (count == target.length) {
+                return INVALID;
+            }
+            if (!parseToken(line, start, position)) {
+                return INVALID;
+            }
+            target[count++] = value;
+        }
+    }
+
+    /**
+     * Parses the whitespace-separated numbers stored as ASCII bytes in {@code buffer[from, to)}.
+     * The buffer position and limit are left untouched.
+     *
+     * @param buffer the buffer holding the line
+     * @param from   the index of the first byte of the line
+     * @param to     the index after the last byte of the line
+     * @param target the array receiving the numbers, starting at index 0
+     * @return the number of values parsed, or {@link #INVALID} if the line is malformed
+     */
+    public int scan(ByteBuffer buffer, int from, int to, double[] target) {
+        byteView.wrap(buffer, from, to);
+        return scan(byteView, target);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    /**
+     * Parses {@code line[start, end)} into {@link #value}.
+     *
+     * @return false if the token is not a valid number
+     */
+    private boolean parseToken(CharSequence line, int start, int end) {
+        int position = start;
+        boolean negative = false;
+        char first = line.charAt(position);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean seenDot = false;
+        for (; position < end; position++) {
+            char c = line.charAt(position);
+            if (c >= '0' && c <= '9') {
+                if (mantissa >= MAX_EXACT_MANTISSA / 10) {
+                    return parseSlow(line, start, end);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (seenDot) {
+                    exponent--;
+                }
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return parseSlow(line, start, end);
+        }
+
+        if (position < end && (line.charAt(position) == 'e' || line.charAt(position) == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < end && (line.charAt(position) == '-' || line.charAt(position) == '+')) {
+                negativeExponent = line.charAt(position) == '-';
+                position++;
+            }
+            int exponentStart = position;
+            int explicitExponent = 0;
+            for (; position < end && explicitExponent < 1000; position++) {
+                char c = line.charAt(position);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                explicitExponent = explicitExponent * 10 + (c - '0');
+            }
+            if (position == exponentStart) {
+                return false;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (position != end || exponent < -22 || exponent > 22) {
+            return parseSlow(line, start, end);
+        }
+
+        double magnitude = exponent >= 0
+                ? mantissa * POWERS_OF_TEN[exponent]
+                : mantissa / POWERS_OF_TEN[-exponent];
+        value = negative ? -magnitude : magnitude;
+        return true;
+    }
+
+    private boolean parseSlow(CharSequence line, int start, int end) {
+        try {
+            value = Double.parseDouble(line.subSequence(start, end).toString());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reusable CharSequence view over a window of ASCII bytes.
+     */
+    private static final class ByteSequence implements CharSequence {
+        private ByteBuffer buffer;
+        private int offset;
+        private int length;
+
+        void wrap(ByteBuffer buffer, int from, int to) {
+            this.buffer = buffer;
+            this.offset = from;
+            this.length = to - from;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(offset + start + i);
+            }
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length).toString();
+        }
+    }
+}
@@ -32,4 +32,25 @@ public class ShapeCoordinateReader {
             throw new FileReadException("Error reading lines from file: " + filePath, e);
         }
     }
+
+    /**
+     * Opens a lazy stream over the non-blank lines of the file.
+     * Lines are read from disk only as the stream is consumed, so memory use does not grow with the file size.
+     * The caller is responsible for closing the returned stream; I/O errors during consumption
+     * surface as {@link java.io.UncheckedIOException}.
+     *
+     * @param filePath the path of the file to read
+     * @return a stream of non-blank lines
+     * @throws FileReadException if the file cannot be opened
+     */
+    public Stream<String> streamShapesFromFile(String filePath) throws FileReadException {
+        try {
+            logger.info("Streaming lines from file: {}", filePath);
+            return Files.lines(Paths.get(filePath))
+                    .filter(line -> !line.isBlank());
+        } catch (IOException e) {
+            logger.error("Error opening file for streaming: {}{}", filePath, e.getMessage());
+            throw new FileReadException("Error opening file for streaming: " + filePath, e);
+        }
+    }
 }
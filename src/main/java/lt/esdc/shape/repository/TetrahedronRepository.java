@@ -1,38 +1,167 @@
 package lt.esdc.shape.repository;
 
 import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.impl.MetricAggregatesObserver;
+import lt.esdc.shape.observer.impl.MetricIndexObserver;
+import lt.esdc.shape.observer.impl.QueryCacheObserver;
+import lt.esdc.shape.observer.impl.ShapeVersionObserver;
 import lt.esdc.shape.observer.impl.WarehouseObserver;
+import lt.esdc.shape.repository.aggregate.MetricAggregates;
+import lt.esdc.shape.repository.cache.QueryCacheStatistics;
+import lt.esdc.shape.repository.cache.QueryResultCache;
+import lt.esdc.shape.repository.index.MetricIndex;
+import lt.esdc.shape.repository.page.Page;
+import lt.esdc.shape.repository.page.TetrahedronCursor;
+import lt.esdc.shape.repository.parallel.ParallelQueryExecutor;
+import lt.esdc.shape.repository.parallel.QueryControl;
+import lt.esdc.shape.repository.plan.QueryPlan;
+import lt.esdc.shape.repository.plan.QueryPlanner;
+import lt.esdc.shape.repository.recompute.MetricRecomputer;
+import lt.esdc.shape.repository.snapshot.RepositorySnapshot;
+import lt.esdc.shape.repository.snapshot.ShapeVersionTable;
+import lt.esdc.shape.repository.sort.SortKey;
+import lt.esdc.shape.repository.sort.TetrahedronKeySorter;
+import lt.esdc.shape.repository.sort.TopKSelector;
+import lt.esdc.shape.specification.MetricRangeSpecification;
 import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.impl.AndTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.IdSetTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.IdTetrahedronSpecification;
+import lt.esdc.shape.store.TetrahedronStore;
+import lt.esdc.shape.store.impl.ObjectTetrahedronStore;
 import lt.esdc.shape.warehouse.Warehouse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A repository class that manages a collection of Tetrahedron entities.
  * Provides methods to add, remove, query, and sort Tetrahedron objects based on different criteria.
+ * The Tetrahedrons are kept by a pluggable {@link TetrahedronStore}, by default a plain object list.
+ * Lookups by ID, including queries with an {@link IdTetrahedronSpecification}, use the store's primary-key index
+ * and a small index of explicitly named Tetrahedrons instead of scanning.
+ * Metric range queries are answered from sorted {@link MetricIndex}es kept current through shape notifications,
+ * which also keep the {@link MetricAggregates} of the repository current.
+ * The repository is safe for concurrent use: queries share a read lock and only run exclusively with additions,
+ * removals and sorting, while the store, the indexes and the Warehouse guard their own state against shape edits.
+ * The parameters of every added Tetrahedron are stored in the {@link Warehouse} right away and kept current by
+ * the {@link WarehouseObserver}, so specifications and comparators can read them instead of recomputing.
+ * Long-running reads should use a {@link RepositorySnapshot}, which neither blocks edits nor observes them.
+ * All stored parameters can be refreshed at once with {@link #recomputeAll()}, which computes them in batches on
+ * a {@link MetricRecomputer} pool whose parallelism and chunk size are set by {@link #configureRecomputation}.
+ * Results of {@link #query} are kept in a {@link QueryResultCache} that additions, removals and shape edits
+ * invalidate only where they could change a result. Large queries are filtered in parallel on a dedicated
+ * {@link ParallelQueryExecutor} pool set by {@link #configureParallelQuery}, and can be given a timeout or
+ * cancelled through a {@link QueryControl}. Both worker pools are released by {@link #shutdown()}.
  */
 public class TetrahedronRepository {
     private static final Logger logger = LogManager.getLogger(TetrahedronRepository.class);
-    private static TetrahedronRepository instance;
-    private final List<Tetrahedron> tetrahedrons = new ArrayList<>();
+    public static final int DEFAULT_QUERY_CACHE_CAPACITY = 128;
     private final WarehouseObserver observer = new WarehouseObserver();
+    private final Map<String, List<Long>> namedIds = new HashMap<>();
+    private final MetricIndex metricIndex = new MetricIndex(Warehouse.getInstance());
+    private final MetricAggregates aggregates = new MetricAggregates(metricIndex, Warehouse.getInstance());
+    private final QueryPlanner planner = new QueryPlanner(aggregates);
+    private final ShapeVersionTable versionTable = new ShapeVersionTable();
+    private final QueryResultCache queryCache = new QueryResultCache(DEFAULT_QUERY_CACHE_CAPACITY);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile TetrahedronStore store;
+    private volatile WeakReference<RepositorySnapshot> latestSnapshot = new WeakReference<>(null);
+    private volatile MetricRecomputer recomputer;
+    private volatile ParallelQueryExecutor queryExecutor;
 
-    private TetrahedronRepository() {}
+    private TetrahedronRepository() {
+        useStore(new ObjectTetrahedronStore());
+    }
 
     public static TetrahedronRepository getInstance() {
-        if (instance == null) {
-            instance = new TetrahedronRepository();
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Replaces the storage backend. Only allowed while the repository is empty.
+     *
+     * @param store the store that will hold the Tetrahedrons
+     */
+    public void useStore(TetrahedronStore store) {
+        lock.writeLock().lock();
+        try {
+            if (this.store != null && this.store.size() > 0) {
+                throw new IllegalStateException("Cannot change the store of a non-empty repository");
+            }
+            store.registerObserver(observer);
+            store.registerObserver(new MetricIndexObserver(metricIndex));
+            store.registerObserver(new MetricAggregatesObserver(aggregates));
+            store.registerObserver(new ShapeVersionObserver(versionTable));
+            store.registerObserver(new QueryCacheObserver(queryCache));
+            this.store = store;
+            queryCache.clear();
+            logger.info("Repository now uses {}", store.getClass().getSimpleName());
+        } finally {
+            lock.writeLock().unlock();
         }
-        return instance;
     }
 
+    /**
+     * Adds a Tetrahedron to the repository.
+     * Adding a shape that is already stored changes nothing, but a different shape under a numeric ID that is already
+     * taken, for example one built with an explicit ID that a generator has handed out too, is rejected.
+     *
+     * @param tetrahedron the Tetrahedron to add
+     * @return true if the Tetrahedron was added, false if it was already in the repository
+     * @throws IllegalArgumentException if another Tetrahedron already has the same numeric ID
+     */
     public boolean add(Tetrahedron tetrahedron) {
-        tetrahedron.addObserver(observer);
-        tetrahedrons.add(tetrahedron);
-        logger.info("Tetrahedron added successfully and registered with warehouse");
-        return true;
+        lock.writeLock().lock();
+        try {
+            if (!store.add(tetrahedron)) {
+                checkNoCollision(tetrahedron);
+                logger.warn("Tetrahedron with ID {} is already in the repository", tetrahedron.getId());
+                return false;
+            }
+            register(tetrahedron);
+            logger.debug("Tetrahedron {} added and registered with warehouse", tetrahedron.getId());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a batch of Tetrahedrons to the repository, preserving their order.
+     * Shapes already stored are skipped; a shape whose numeric ID is taken by another one is rejected as in
+     * {@link #add(Tetrahedron)}, and the shapes before it in the batch stay added.
+     *
+     * @param batch the Tetrahedrons to add
+     * @return true if the repository changed
+     * @throws IllegalArgumentException if a Tetrahedron of the batch has the numeric ID of another one
+     */
+    public boolean addAll(Collection<Tetrahedron> batch) {
+        lock.writeLock().lock();
+        try {
+            int added = 0;
+            for (Tetrahedron tetrahedron : batch) {
+                if (store.add(tetrahedron)) {
+                    register(tetrahedron);
+                    added++;
+                } else {
+                    checkNoCollision(tetrahedron);
+                }
+            }
+            logger.info("{} tetrahedrons added successfully and registered with warehouse", added);
+            return added > 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -42,32 +171,413 @@ public class TetrahedronRepository {
      * @return true if the Tetrahedron was successfully removed; false otherwise.
      */
     public boolean remove(Tetrahedron tetrahedron) {
-        logger.debug("Removing tetrahedron from repository: {}", tetrahedron);
-        boolean removed = tetrahedrons.remove(tetrahedron);
-        if (removed) {
-            Warehouse warehouse = Warehouse.getInstance();
-            tetrahedron.removeObserver(observer);
+        lock.writeLock().lock();
+        try {
+            logger.debug("Removing tetrahedron from repository: {}", tetrahedron);
+            Tetrahedron stored = store.findById(tetrahedron.getNumericId());
+            if (stored != null) {
+                versionTable.preserve(stored);
+            }
+            boolean removed = store.remove(tetrahedron);
+            if (removed) {
+                unregister(tetrahedron);
+                logger.debug("Tetrahedron removed successfully");
+            } else {
+                logger.warn("Tetrahedron not found in repository");
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
 
-            warehouse.remove(tetrahedron.getId());
+    /**
+     * Finds a Tetrahedron by ID in constant time.
+     *
+     * @param id the generated or explicit ID
+     * @return the Tetrahedron, or empty if none has this ID
+     */
+    public Optional<Tetrahedron> findById(String id) {
+        lock.readLock().lock();
+        try {
+            List<Tetrahedron> found = lookupById(id);
+            return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
-            logger.debug("Tetrahedron removed successfully");
-        } else {
-            logger.warn("Tetrahedron not found in repository");
+    /**
+     * Removes every Tetrahedron with the given ID in constant time.
+     *
+     * @param id the generated or explicit ID
+     * @return true if a Tetrahedron was removed
+     */
+    public boolean removeById(String id) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = false;
+            for (Tetrahedron tetrahedron : lookupById(id)) {
+                versionTable.preserve(tetrahedron);
+                if (store.removeById(tetrahedron.getNumericId())) {
+                    unregister(tetrahedron);
+                    removed = true;
+                }
+            }
+            logger.debug("Removal of tetrahedron {} {}", id, removed ? "succeeded" : "found nothing");
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every Tetrahedron from the repository and forgets their parameters.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            List<Tetrahedron> tetrahedrons = store.toList();
+            for (Tetrahedron tetrahedron : tetrahedrons) {
+                versionTable.preserve(tetrahedron);
+                if (store.removeById(tetrahedron.getNumericId())) {
+                    unregister(tetrahedron);
+                }
+            }
+            logger.info("Repository cleared, {} tetrahedrons removed", tetrahedrons.size());
+        } finally {
+            lock.writeLock().unlock();
         }
-        return removed;
     }
 
     /**
      * Queries the repository for Tetrahedrons that satisfy the given specification.
+     * The query is planned by a {@link QueryPlanner}: an ID conjunct is answered from the ID index and
+     * otherwise the most selective ID set or metric range of the default calculator from the ID index or the metric
+     * indexes. On columnar
+     * stores, conjuncts that compile to column predicates may instead be evaluated in one column scan. The remaining
+     * conjuncts are checked cheapest and most selective first, in parallel once there are enough of them.
+     * Whatever the plan, the matches come in repository order: index hits, which the index yields in metric order,
+     * are put back into the order of the store.
+     * Results are cached by specification, so repeating an equal query returns the same list.
      *
      * @param specification The specification that Tetrahedrons must satisfy.
-     * @return A list of Tetrahedrons that satisfy the specification.
+     * @return An unmodifiable list of Tetrahedrons that satisfy the specification.
      */
     public List<Tetrahedron> query(TetrahedronSpecification specification) {
-        logger.debug("Querying tetrahedrons from repository: {}", specification);
-        return tetrahedrons.stream()
-                .filter(specification::isSatisfiedBy)
-                .toList();
+        return query(specification, QueryControl.unbounded());
+    }
+
+    /**
+     * Queries the repository like {@link #query(TetrahedronSpecification)}, giving up once the timeout has passed.
+     *
+     * @param specification the specification that Tetrahedrons must satisfy
+     * @param timeout       the longest time the query may run
+     * @param unit          the unit of the timeout
+     * @return an unmodifiable list of Tetrahedrons that satisfy the specification
+     * @throws TimeoutException if the query did not finish in time
+     */
+    public List<Tetrahedron> query(TetrahedronSpecification specification, long timeout, TimeUnit unit)
+            throws TimeoutException {
+        QueryControl control = QueryControl.withTimeout(timeout, unit);
+        try {
+            return query(specification, control);
+        } catch (CancellationException e) {
+            if (control.isTimedOut()) {
+                throw new TimeoutException("Query " + specification + " timed out after " + timeout + " " + unit);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Queries the repository like {@link #query(TetrahedronSpecification)} under a control that another thread
+     * may use to cancel the query.
+     *
+     * @param specification the specification that Tetrahedrons must satisfy
+     * @param control       stops the query when cancelled or timed out
+     * @return an unmodifiable list of Tetrahedrons that satisfy the specification
+     * @throws CancellationException if the control stopped the query
+     */
+    public List<Tetrahedron> query(TetrahedronSpecification specification, QueryControl control) {
+        List<Tetrahedron> cached = queryCache.get(specification);
+        if (cached != null) {
+            logger.debug("Query answered from cache: {}", specification);
+            return cached;
+        }
+        long modificationCount = queryCache.getModificationCount();
+        lock.readLock().lock();
+        try {
+            QueryPlan plan = planner.plan(specification, store.size(), store.supportsColumnScan());
+            logger.debug("Querying tetrahedrons from repository: {}", plan);
+            List<Tetrahedron> candidates = switch (plan.getAccessPath()) {
+                case ID_LOOKUP -> lookupById(((IdTetrahedronSpecification) plan.getAccessSpecification()).getId());
+                case ID_SET_LOOKUP -> lookupByIds(
+                        ((IdSetTetrahedronSpecification) plan.getAccessSpecification()).getNumericIds());
+                case INDEX_RANGE -> lookupByRange((MetricRangeSpecification) plan.getAccessSpecification());
+                case COLUMN_SCAN -> store.select(plan.getColumnPredicate());
+                case FULL_SCAN -> store.toList();
+            };
+            TetrahedronSpecification filter = plan.getFilter();
+            control.check();
+            List<Tetrahedron> found = filter == null ? candidates
+                    : getQueryExecutor().filter(candidates, filter, control);
+            return queryCache.put(specification, found, modificationCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Streams the Tetrahedrons that satisfy a specification lazily, in repository order.
+     * Work is proportional to the part of the stream consumed, so {@code stream(spec).limit(20)} stops scanning
+     * after the twentieth match and never builds a list of all matches. ID specifications are answered from
+     * the ID index; everything else is checked during the scan in the order chosen by the query planner.
+     * The stream holds no repository lock and is weakly consistent, see {@link TetrahedronCursor}.
+     *
+     * @param specification the specification to satisfy, or null to stream every Tetrahedron
+     * @return a lazy sequential stream
+     */
+    public Stream<Tetrahedron> stream(TetrahedronSpecification specification) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(specification),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Iterates lazily over the Tetrahedrons that satisfy a specification, in repository order.
+     *
+     * @param specification the specification to satisfy, or null to iterate over every Tetrahedron
+     * @return a lazy iterator
+     * @see #stream(TetrahedronSpecification)
+     */
+    public Iterator<Tetrahedron> iterator(TetrahedronSpecification specification) {
+        if (specification instanceof IdTetrahedronSpecification idSpecification) {
+            return query(idSpecification).iterator();
+        }
+        return new TetrahedronCursor(store, scanFilter(specification), 0);
+    }
+
+    /**
+     * Returns up to {@code limit} matches after skipping the first {@code offset} ones.
+     * Skipping still checks the skipped Tetrahedrons; use {@link #queryPage} to continue from a cursor instead.
+     *
+     * @param specification the specification to satisfy, or null to accept every Tetrahedron
+     * @param offset        the number of matches to skip
+     * @param limit         the largest number of matches to return
+     * @return the matches, in repository order
+     */
+    public List<Tetrahedron> query(TetrahedronSpecification specification, int offset, int limit) {
+        return stream(specification).skip(offset).limit(limit).toList();
+    }
+
+    /**
+     * Returns one page of matches starting at a cursor. The cursor of the next page is taken from the returned
+     * page, so reading page after page costs as much as one scan no matter how far the reader gets.
+     *
+     * @param specification the specification to satisfy, or null to accept every Tetrahedron
+     * @param cursor        0 for the first page, otherwise {@link Page#nextCursor()} of the previous page
+     * @param limit         the largest number of matches on the page
+     * @return the page
+     */
+    public Page queryPage(TetrahedronSpecification specification, int cursor, int limit) {
+        if (cursor < 0 || limit < 1) {
+            throw new IllegalArgumentException("Cursor must not be negative and limit must be positive");
+        }
+        if (specification instanceof IdTetrahedronSpecification idSpecification) {
+            List<Tetrahedron> found = query(idSpecification);
+            return new Page(found.subList(Math.min(cursor, found.size()), Math.min(cursor + limit, found.size())),
+                    cursor + limit < found.size() ? cursor + limit : Page.END);
+        }
+        TetrahedronCursor scan = new TetrahedronCursor(store, scanFilter(specification), cursor);
+        List<Tetrahedron> items = new ArrayList<>(Math.min(limit, 64));
+        while (items.size() < limit && scan.hasNext()) {
+            items.add(scan.next());
+        }
+        return new Page(items, items.size() == limit ? scan.getPosition() : Page.END);
+    }
+
+    /**
+     * Shows how {@link #query} would answer a specification, with the planner's cost and selectivity estimates.
+     *
+     * @param specification the specification to plan
+     * @return the plan; its string form lists the access path and the filters in evaluation order
+     */
+    public QueryPlan explain(TetrahedronSpecification specification) {
+        lock.readLock().lock();
+        try {
+            return planner.plan(specification, store.size(), store.supportsColumnScan());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the K Tetrahedrons with the largest keys without sorting or reordering the repository.
+     *
+     * @param k      the number of Tetrahedrons to return
+     * @param key    the key to rank by, for example {@code SortKey.byMetric(ShapeMetric.VOLUME)}
+     * @param filter the specification the Tetrahedrons must satisfy, or null to consider all
+     * @return at most k Tetrahedrons, largest key first
+     */
+    public List<Tetrahedron> findTop(int k, SortKey key, TetrahedronSpecification filter) {
+        return findFirst(k, key.reversed(), null, filter);
+    }
+
+    /**
+     * Finds the K Tetrahedrons with the smallest keys without sorting or reordering the repository.
+     *
+     * @param k      the number of Tetrahedrons to return
+     * @param key    the key to rank by
+     * @param filter the specification the Tetrahedrons must satisfy, or null to consider all
+     * @return at most k Tetrahedrons, smallest key first
+     */
+    public List<Tetrahedron> findBottom(int k, SortKey key, TetrahedronSpecification filter) {
+        return findFirst(k, key, null, filter);
+    }
+
+    /**
+     * Finds the K greatest Tetrahedrons in the comparator's order without reordering the repository.
+     *
+     * @param k          the number of Tetrahedrons to return
+     * @param comparator the order to rank by
+     * @param filter     the specification the Tetrahedrons must satisfy, or null to consider all
+     * @return at most k Tetrahedrons, greatest first
+     */
+    public List<Tetrahedron> findTop(int k, Comparator<Tetrahedron> comparator, TetrahedronSpecification filter) {
+        return findFirst(k, null, comparator.reversed(), filter);
+    }
+
+    /**
+     * Finds the K least Tetrahedrons in the comparator's order without reordering the repository.
+     *
+     * @param k          the number of Tetrahedrons to return
+     * @param comparator the order to rank by
+     * @param filter     the specification the Tetrahedrons must satisfy, or null to consider all
+     * @return at most k Tetrahedrons, least first
+     */
+    public List<Tetrahedron> findBottom(int k, Comparator<Tetrahedron> comparator, TetrahedronSpecification filter) {
+        return findFirst(k, null, comparator, filter);
+    }
+
+    /**
+     * Returns an immutable snapshot of the repository and the parameters of its Tetrahedrons.
+     * Opening a snapshot records the IDs in repository order; each Tetrahedron is copied when the snapshot first
+     * reads it or just before it is edited or removed, so reads are not affected by later edits and nothing is copied
+     * while no snapshot is held. The latest snapshot is reused until the repository changes, as long as it is held.
+     *
+     * @return the snapshot of the current version
+     */
+    public RepositorySnapshot snapshot() {
+        RepositorySnapshot snapshot = latestSnapshot.get();
+        if (snapshot != null && snapshot.getVersion() == versionTable.getCurrentVersion()) {
+            return snapshot;
+        }
+        lock.readLock().lock();
+        try {
+            long[] numericIds = store.stream().mapToLong(Tetrahedron::getNumericId).toArray();
+            Map<String, Long> firstNamedIds = new HashMap<>();
+            namedIds.forEach((name, ids) -> {
+                if (!ids.isEmpty()) {
+                    firstNamedIds.put(name, ids.get(0));
+                }
+            });
+            snapshot = versionTable.open(numericIds, firstNamedIds, store, lock.readLock());
+        } finally {
+            lock.readLock().unlock();
+        }
+        latestSnapshot = new WeakReference<>(snapshot);
+        logger.debug("Snapshot of version {} built with {} tetrahedrons", snapshot.getVersion(), snapshot.size());
+        return snapshot;
+    }
+
+    /**
+     * Recomputes the parameters of every Tetrahedron in parallel and stores them in the Warehouse in batches,
+     * for example after a bulk load. The metric indexes and aggregates are then refreshed from the Warehouse,
+     * so range queries and statistics agree with the recomputed parameters. Additions and removals wait until the recomputation has finished.
+     *
+     * @return the number of Tetrahedrons recomputed
+     */
+    public int recomputeAll() {
+        lock.readLock().lock();
+        try {
+            MetricRecomputer current = getRecomputer();
+            List<Tetrahedron> tetrahedrons = store.toList();
+            long start = System.nanoTime();
+            current.recompute(tetrahedrons);
+            metricIndex.reindexAll(tetrahedrons);
+            aggregates.updateAll(tetrahedrons);
+            queryCache.clear();
+            logger.info("Parameters of {} tetrahedrons recomputed in {} ms on {} threads", tetrahedrons.size(),
+                    (System.nanoTime() - start) / 1_000_000, current.getParallelism());
+            return tetrahedrons.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sets how {@link #recomputeAll()} splits its work. Waits for running recomputations and queries, which hold
+     * the read lock, before the old pool is shut down.
+     *
+     * @param parallelism the number of worker threads
+     * @param chunkSize   the number of Tetrahedrons computed and stored as one batch
+     */
+    public void configureRecomputation(int parallelism, int chunkSize) {
+        MetricRecomputer replacement = new MetricRecomputer(parallelism, chunkSize);
+        lock.writeLock().lock();
+        try {
+            MetricRecomputer previous = recomputer;
+            recomputer = replacement;
+            if (previous != null) {
+                previous.shutdown();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets when and on how many threads queries filter their candidates in parallel.
+     * Waits for running queries, which hold the read lock, before the old pool is shut down.
+     *
+     * @param parallelism the number of worker threads; 1 keeps every query sequential
+     * @param threshold   the number of cached-metric checks from which a query filters in parallel,
+     *                    see {@link ParallelQueryExecutor}
+     */
+    public void configureParallelQuery(int parallelism, int threshold) {
+        ParallelQueryExecutor replacement = new ParallelQueryExecutor(parallelism, threshold);
+        lock.writeLock().lock();
+        try {
+            ParallelQueryExecutor previous = queryExecutor;
+            queryExecutor = replacement;
+            if (previous != null) {
+                previous.shutdown();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Shuts down the worker pools of parallel queries and recomputation once running work has finished, for example
+     * when the application exits. The Tetrahedrons stay in the repository; a later query or recomputation starts
+     * new pools with the default settings.
+     */
+    public void shutdown() {
+        lock.writeLock().lock();
+        try {
+            if (queryExecutor != null) {
+                queryExecutor.shutdown();
+                queryExecutor = null;
+            }
+            if (recomputer != null) {
+                recomputer.shutdown();
+                recomputer = null;
+            }
+            logger.info("Repository worker pools shut down");
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -76,8 +586,65 @@ public class TetrahedronRepository {
      * @param comparator The comparator to use for sorting the tetrahedrons.
      */
     public void sortBy(Comparator<Tetrahedron> comparator) {
-        logger.debug("Sorting tetrahedrons by custom comparator");
-        tetrahedrons.sort(comparator);
+        lock.writeLock().lock();
+        try {
+            logger.debug("Sorting tetrahedrons by custom comparator");
+            store.sort(comparator);
+            versionTable.advance();
+            queryCache.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sorts the Tetrahedrons by keys extracted once per Tetrahedron, which is much cheaper than a comparator
+     * that measures both arguments of every comparison. Later keys break ties of earlier ones, for example
+     * {@code sortBy(SortKey.byMetric(ShapeMetric.VOLUME), SortKey.byNumericId())}.
+     *
+     * @param first the primary key
+     * @param more  the tie-breaking keys
+     */
+    public void sortBy(SortKey first, SortKey... more) {
+        SortKey[] keys = new SortKey[more.length + 1];
+        keys[0] = first;
+        System.arraycopy(more, 0, keys, 1, more.length);
+        lock.writeLock().lock();
+        try {
+            logger.debug("Sorting tetrahedrons by keys {}", Arrays.asList(keys));
+            store.applyOrder(TetrahedronKeySorter.sort(store.toList(), keys));
+            versionTable.advance();
+            queryCache.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the running statistics and histograms of the Tetrahedrons' metrics, which are read in constant time.
+     *
+     * @return the aggregates of this repository
+     */
+    public MetricAggregates getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Sets how many query results are cached, evicting the least recently used ones that no longer fit.
+     *
+     * @param capacity the largest number of cached results, 0 to disable caching
+     */
+    public void configureQueryCache(int capacity) {
+        queryCache.setCapacity(capacity);
+    }
+
+    /**
+     * Returns the hit, miss, eviction and invalidation counters of the query result cache.
+     *
+     * @return the current counters
+     */
+    public QueryCacheStatistics getQueryCacheStatistics() {
+        return queryCache.getStatistics();
     }
 
     /**
@@ -86,6 +653,204 @@ public class TetrahedronRepository {
      * @return A list containing all Tetrahedrons in the repository.
      */
     public List<Tetrahedron> getAllTetrahedrons() {
-        return new ArrayList<>(tetrahedrons);
+        return store.toList();
+    }
+
+    /**
+     * @return the metric indexes of this repository
+     */
+    MetricIndex getMetricIndex() {
+        return metricIndex;
+    }
+
+    /**
+     * Reads the executor without taking the monitor, since every query needs it. Must be called under the read
+     * lock, which keeps the executor from being shut down while it is used.
+     */
+    ParallelQueryExecutor getQueryExecutor() {
+        ParallelQueryExecutor current = queryExecutor;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (queryExecutor == null) {
+                queryExecutor = new ParallelQueryExecutor(Runtime.getRuntime().availableProcessors(),
+                        ParallelQueryExecutor.DEFAULT_THRESHOLD);
+            }
+            return queryExecutor;
+        }
+    }
+
+    /**
+     * Must be called under the read lock, which keeps the recomputer from being shut down while it is used.
+     */
+    private synchronized MetricRecomputer getRecomputer() {
+        if (recomputer == null) {
+            recomputer = new MetricRecomputer(Runtime.getRuntime().availableProcessors(),
+                    MetricRecomputer.DEFAULT_CHUNK_SIZE);
+        }
+        return recomputer;
+    }
+
+    /**
+     * Selects the first K Tetrahedrons by key or comparator, splitting the scan over the common pool
+     * once the repository is large enough for that to pay off.
+     */
+    private List<Tetrahedron> findFirst(int k, SortKey key, Comparator<Tetrahedron> comparator,
+                                        TetrahedronSpecification filter) {
+        lock.readLock().lock();
+        try {
+            List<Tetrahedron> tetrahedrons = store.toList();
+            boolean parallel = tetrahedrons.size() >= TetrahedronKeySorter.PARALLEL_THRESHOLD;
+            List<Tetrahedron> found = key != null
+                    ? TopKSelector.select(tetrahedrons, k, key, filter, parallel)
+                    : TopKSelector.select(tetrahedrons, k, comparator, filter, parallel);
+            logger.debug("Selected {} of {} tetrahedrons", found.size(), tetrahedrons.size());
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Orders the checks of a lazy scan: the planned access specification, which the planner considered the most
+     * selective, and then the planned filters.
+     */
+    private TetrahedronSpecification scanFilter(TetrahedronSpecification specification) {
+        if (specification == null) {
+            return null;
+        }
+        QueryPlan plan;
+        lock.readLock().lock();
+        try {
+            plan = planner.plan(specification, store.size(), false);
+        } finally {
+            lock.readLock().unlock();
+        }
+        TetrahedronSpecification access = plan.getAccessSpecification();
+        TetrahedronSpecification filter = plan.getFilter();
+        if (access == null || filter == null) {
+            return access == null ? filter : access;
+        }
+        return new AndTetrahedronSpecification(List.of(access, filter));
+    }
+
+    private List<Tetrahedron> lookupById(String id) {
+        List<Tetrahedron> found = new ArrayList<>(1);
+        long generatedId = Tetrahedron.parseGeneratedId(id);
+        if (generatedId != Tetrahedron.NOT_GENERATED) {
+            Tetrahedron tetrahedron = store.findById(generatedId);
+            if (tetrahedron != null && tetrahedron.isIdGenerated()) {
+                found.add(tetrahedron);
+            }
+        }
+        for (long numericId : namedIds.getOrDefault(id, List.of())) {
+            Tetrahedron tetrahedron = store.findById(numericId);
+            if (tetrahedron != null) {
+                found.add(tetrahedron);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Looks up the Tetrahedrons in a metric range through the index and puts them back into repository order,
+     * so that the access path chosen by the planner never changes the order of query results.
+     */
+    private List<Tetrahedron> lookupByRange(MetricRangeSpecification specification) {
+        return lookupByIds(metricIndex.range(specification.getMetric(), specification.getMin(),
+                specification.getMax()));
+    }
+
+    /**
+     * Looks up the Tetrahedrons with the given numeric IDs, skipping IDs that are not stored, in repository order.
+     */
+    private List<Tetrahedron> lookupByIds(long[] ids) {
+        long[] positionedIndexes = new long[ids.length];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            int position = store.positionOf(ids[i]);
+            if (position >= 0) {
+                positionedIndexes[count++] = (long) position << 32 | i;
+            }
+        }
+        Arrays.sort(positionedIndexes, 0, count);
+        List<Tetrahedron> found = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Tetrahedron tetrahedron = store.findById(ids[(int) positionedIndexes[i]]);
+            if (tetrahedron != null) {
+                found.add(tetrahedron);
+            }
+        }
+        return found;
+    }
+
+    private void checkNoCollision(Tetrahedron tetrahedron) {
+        Tetrahedron stored = store.findById(tetrahedron.getNumericId());
+        if (stored != null && stored != tetrahedron && !sameShape(stored, tetrahedron)) {
+            logger.error("Tetrahedron {} collides with {} on numeric ID {}", tetrahedron.getId(), stored.getId(),
+                    tetrahedron.getNumericId());
+            throw new IllegalArgumentException("Numeric ID " + tetrahedron.getNumericId() + " of "
+                    + tetrahedron.getId() + " is already taken by " + stored.getId());
+        }
+    }
+
+    /**
+     * Slot stores hand out views rather than the added instances, so a shape added again is recognised by its
+     * identifier and points.
+     */
+    private static boolean sameShape(Tetrahedron stored, Tetrahedron tetrahedron) {
+        return stored.getId().equals(tetrahedron.getId())
+                && stored.getPointA().equals(tetrahedron.getPointA())
+                && stored.getPointB().equals(tetrahedron.getPointB())
+                && stored.getPointC().equals(tetrahedron.getPointC())
+                && stored.getPointD().equals(tetrahedron.getPointD());
+    }
+
+    /**
+     * Brings the Warehouse, the indexes and the other derived state up to date with a Tetrahedron just stored.
+     */
+    private void register(Tetrahedron tetrahedron) {
+        observer.update(tetrahedron);
+        indexName(tetrahedron);
+        metricIndex.index(tetrahedron);
+        aggregates.add(tetrahedron);
+        versionTable.advance();
+        queryCache.invalidate(tetrahedron);
+    }
+
+    /**
+     * Drops everything derived from a Tetrahedron just removed from the store.
+     */
+    private void unregister(Tetrahedron tetrahedron) {
+        Warehouse.getInstance().remove(tetrahedron.getNumericId());
+        unindexName(tetrahedron);
+        metricIndex.unindex(tetrahedron.getNumericId());
+        aggregates.remove(tetrahedron.getNumericId());
+        versionTable.advance();
+        queryCache.invalidateRemoved(tetrahedron.getNumericId());
+    }
+
+    private void indexName(Tetrahedron tetrahedron) {
+        if (!tetrahedron.isIdGenerated()) {
+            namedIds.computeIfAbsent(tetrahedron.getId(), name -> new ArrayList<>(1)).add(tetrahedron.getNumericId());
+        }
+    }
+
+    private void unindexName(Tetrahedron tetrahedron) {
+        if (tetrahedron.isIdGenerated()) {
+            return;
+        }
+        List<Long> numericIds = namedIds.get(tetrahedron.getId());
+        if (numericIds != null) {
+            numericIds.remove(Long.valueOf(tetrahedron.getNumericId()));
+            if (numericIds.isEmpty()) {
+                namedIds.remove(tetrahedron.getId());
+            }
+        }
+    }
+
+    private static class InstanceHolder {
+        private static final TetrahedronRepository INSTANCE = new TetrahedronRepository();
     }
 }
@@ -0,0 +1,72 @@
+package lt.esdc.shape.repository.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Running count, sum and histogram of one metric that accept removals as well as additions.
+ * The sum is compensated (Neumaier) so that adding and later subtracting the same values does not drift.
+ * Min and max are not kept here: they are read from the sorted {@code MetricIndex}, which holds every value anyway.
+ */
+class MetricAccumulator {
+    private long count;
+    private double sum;
+    private double compensation;
+    private double[] bucketBounds = new double[0];
+    private long[] bucketCounts = new long[1];
+
+    void add(double value) {
+        count++;
+        accumulate(value);
+        bucketCounts[bucketOf(value)]++;
+    }
+
+    void remove(double value) {
+        count--;
+        accumulate(-value);
+        if (count == 0) {
+            sum = 0.0;
+            compensation = 0.0;
+        }
+        bucketCounts[bucketOf(value)]--;
+    }
+
+    MetricStatistics getStatistics(double min, double max) {
+        return new MetricStatistics(count, sum + compensation, min, max);
+    }
+
+    /**
+     * Replaces the histogram buckets with empty ones; the caller counts the current values back in
+     * with {@link #countIntoBucket}.
+     */
+    void setBucketBounds(double[] bounds) {
+        bucketBounds = bounds.clone();
+        bucketCounts = new long[bounds.length + 1];
+    }
+
+    void countIntoBucket(double value) {
+        bucketCounts[bucketOf(value)]++;
+    }
+
+    double[] getBucketBounds() {
+        return bucketBounds.clone();
+    }
+
+    long[] getBucketCounts() {
+        return bucketCounts.clone();
+    }
+
+    /**
+     * Bucket {@code i} holds values from bound {@code i - 1} inclusive to bound {@code i} exclusive;
+     * the first and last buckets are open-ended.
+     */
+    private int bucketOf(double value) {
+        int index = Arrays.binarySearch(bucketBounds, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private void accumulate(double value) {
+        double total = sum + value;
+        compensation += Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+        sum = total;
+    }
+}
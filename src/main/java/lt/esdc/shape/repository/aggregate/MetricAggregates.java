@@ -0,0 +1,227 @@
+package lt.esdc.shape.repository.aggregate;
+
+import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.repository.index.MetricIndex;
+import lt.esdc.shape.warehouse.Warehouse;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Count, sum, mean, min, max and fixed-bucket histograms of perimeter, area and volume over the repository,
+ * maintained incrementally. The last aggregated metrics of every Tetrahedron are remembered so that an update
+ * subtracts the old values before adding the new ones; reading any aggregate takes constant time.
+ * Min and max are the first and last entries of a {@link MetricIndex}, so no second sorted copy of the values is
+ * kept. The aggregates are guarded by a read-write lock, so reads run in parallel with each other. Metrics are read
+ * and added under the write lock in one step, so overlapping updates of a Tetrahedron cannot leave its older
+ * values in the sums.
+ */
+public class MetricAggregates {
+    private final ShapeCalculator calculator = new TetrahedronCalculatorImpl();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Warehouse warehouse;
+    private final MetricIndex index;
+    private final boolean ownsIndex;
+    private final Map<ShapeMetric, MetricAccumulator> accumulators = new EnumMap<>(ShapeMetric.class);
+    private final Map<Long, double[]> aggregatedValues = new HashMap<>();
+
+    /**
+     * Creates aggregates that compute the metrics of every Tetrahedron themselves
+     * and keep their own index for min and max.
+     */
+    public MetricAggregates() {
+        this(new MetricIndex(), null, true);
+    }
+
+    /**
+     * Creates aggregates that take min and max from an index kept current by its owner, and that read the metrics
+     * of a Tetrahedron from a Warehouse and compute them only when it has none.
+     * The Warehouse and the index must be updated before the aggregates are, for example by a WarehouseObserver
+     * and a MetricIndexObserver registered first, so that an edit is measured once however many derived
+     * structures follow it.
+     *
+     * @param index     the index of the same Tetrahedrons
+     * @param warehouse the Warehouse to read metrics from, or null to always compute them
+     */
+    public MetricAggregates(MetricIndex index, Warehouse warehouse) {
+        this(index, warehouse, false);
+    }
+
+    private MetricAggregates(MetricIndex index, Warehouse warehouse, boolean ownsIndex) {
+        this.index = index;
+        this.warehouse = warehouse;
+        this.ownsIndex = ownsIndex;
+        for (ShapeMetric metric : ShapeMetric.values()) {
+            accumulators.put(metric, new MetricAccumulator());
+        }
+    }
+
+    /**
+     * Adds a Tetrahedron to the aggregates, or replaces its contribution if it is already included.
+     *
+     * @param tetrahedron the Tetrahedron to add
+     */
+    public void add(Tetrahedron tetrahedron) {
+        if (ownsIndex) {
+            index.index(tetrahedron);
+        }
+        lock.writeLock().lock();
+        try {
+            double[] values = ShapeMetric.lookupAll(warehouse, calculator, tetrahedron);
+            store(tetrahedron.getNumericId(), values);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contribution of a Tetrahedron after its points changed, unless it has been removed
+     * in the meantime.
+     *
+     * @param tetrahedron the edited Tetrahedron
+     */
+    public void update(Tetrahedron tetrahedron) {
+        if (ownsIndex) {
+            index.reindex(tetrahedron);
+        }
+        lock.writeLock().lock();
+        try {
+            double[] values = ShapeMetric.lookupAll(warehouse, calculator, tetrahedron);
+            if (aggregatedValues.containsKey(tetrahedron.getNumericId())) {
+                store(tetrahedron.getNumericId(), values);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contributions of many Tetrahedrons under one write lock, skipping those that are not included,
+     * for example after their parameters were recomputed in bulk.
+     *
+     * @param tetrahedrons the Tetrahedrons to update
+     */
+    public void updateAll(Collection<Tetrahedron> tetrahedrons) {
+        if (ownsIndex) {
+            index.reindexAll(tetrahedrons);
+        }
+        lock.writeLock().lock();
+        try {
+            for (Tetrahedron tetrahedron : tetrahedrons) {
+                if (aggregatedValues.containsKey(tetrahedron.getNumericId())) {
+                    store(tetrahedron.getNumericId(), ShapeMetric.lookupAll(warehouse, calculator, tetrahedron));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the contribution of a Tetrahedron.
+     *
+     * @param numericId the numeric ID of the Tetrahedron
+     */
+    public void remove(long numericId) {
+        if (ownsIndex) {
+            index.unindex(numericId);
+        }
+        lock.writeLock().lock();
+        try {
+            subtract(numericId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param metric the metric to aggregate
+     * @return the count, sum, min and max of the metric over all Tetrahedrons
+     */
+    public MetricStatistics getStatistics(ShapeMetric metric) {
+        double min = index.min(metric);
+        double max = index.max(metric);
+        lock.readLock().lock();
+        try {
+            return accumulators.get(metric).getStatistics(min, max);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the histogram buckets of a metric and counts the current Tetrahedrons into them.
+     * With bounds {@code b0 < b1 < ... < bn} the buckets are {@code (-inf, b0)}, {@code [b0, b1)}, ...,
+     * {@code [bn, +inf)}.
+     *
+     * @param metric      the metric to bucket
+     * @param upperBounds the strictly ascending bucket bounds
+     */
+    public void setHistogramBounds(ShapeMetric metric, double... upperBounds) {
+        for (int i = 0; i < upperBounds.length; i++) {
+            if (Double.isNaN(upperBounds[i]) || i > 0 && !(upperBounds[i - 1] < upperBounds[i])) {
+                throw new IllegalArgumentException("Histogram bounds must be strictly ascending numbers");
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            MetricAccumulator accumulator = accumulators.get(metric);
+            accumulator.setBucketBounds(upperBounds);
+            for (double[] values : aggregatedValues.values()) {
+                accumulator.countIntoBucket(values[metric.ordinal()]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param metric the bucketed metric
+     * @return the bucket bounds, empty if no histogram was configured
+     */
+    public double[] getHistogramBounds(ShapeMetric metric) {
+        lock.readLock().lock();
+        try {
+            return accumulators.get(metric).getBucketBounds();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param metric the bucketed metric
+     * @return the number of Tetrahedrons in each bucket, one more than there are bounds
+     */
+    public long[] getHistogram(ShapeMetric metric) {
+        lock.readLock().lock();
+        try {
+            return accumulators.get(metric).getBucketCounts();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void store(long id, double[] values) {
+        subtract(id);
+        for (ShapeMetric metric : ShapeMetric.values()) {
+            accumulators.get(metric).add(values[metric.ordinal()]);
+        }
+        aggregatedValues.put(id, values);
+    }
+
+    private void subtract(long id) {
+        double[] values = aggregatedValues.remove(id);
+        if (values != null) {
+            for (ShapeMetric metric : ShapeMetric.values()) {
+                accumulators.get(metric).remove(values[metric.ordinal()]);
+            }
+        }
+    }
+}
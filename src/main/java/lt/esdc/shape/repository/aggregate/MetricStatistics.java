@@ -0,0 +1,19 @@
+package lt.esdc.shape.repository.aggregate;
+
+/**
+ * Aggregate values of one metric over all Tetrahedrons in the repository.
+ *
+ * @param count the number of Tetrahedrons
+ * @param sum   the sum of the metric
+ * @param min   the smallest value, or NaN if there are none
+ * @param max   the largest value, or NaN if there are none
+ */
+public record MetricStatistics(long count, double sum, double min, double max) {
+
+    /**
+     * @return the mean value, or NaN if there are no Tetrahedrons
+     */
+    public double mean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+}
@@ -0,0 +1,117 @@
+package lt.esdc.shape.repository.cache;
+
+import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.MetricRangeSpecification;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.impl.AndTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.OrTetrahedronSpecification;
+
+import java.util.Arrays;
+
+/**
+ * Box of metric values that a Tetrahedron must lie in to satisfy a specification, derived from the default-calculator
+ * metric ranges the specification is built of: a range bounds its metric, a conjunction intersects the boxes of its
+ * bounded components and a disjunction spans the boxes of its components if all are bounded. Anything else is
+ * unbounded. The box is conservative, so a Tetrahedron outside it cannot satisfy the specification and the cache
+ * can skip evaluating it; a Tetrahedron inside it, or with a NaN metric, still has to be checked.
+ */
+final class MetricBounds {
+    private static final ShapeCalculator calculator = new TetrahedronCalculatorImpl();
+    private final double[] min;
+    private final double[] max;
+
+    private MetricBounds(double[] min, double[] max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @return the box of the specification, or null if it is unbounded
+     */
+    static MetricBounds of(TetrahedronSpecification specification) {
+        if (specification instanceof MetricRangeSpecification range
+                && range.getShapeCalculator() instanceof TetrahedronCalculatorImpl) {
+            MetricBounds bounds = unbounded();
+            bounds.min[range.getMetric().ordinal()] = range.getMin();
+            bounds.max[range.getMetric().ordinal()] = range.getMax();
+            return bounds;
+        }
+        if (specification instanceof AndTetrahedronSpecification conjunction) {
+            MetricBounds intersection = null;
+            for (TetrahedronSpecification component : conjunction.getComponents()) {
+                MetricBounds bounds = of(component);
+                if (bounds != null) {
+                    intersection = intersection == null ? bounds : intersection.intersect(bounds);
+                }
+            }
+            return intersection;
+        }
+        if (specification instanceof OrTetrahedronSpecification disjunction) {
+            MetricBounds span = null;
+            for (TetrahedronSpecification component : disjunction.getComponents()) {
+                MetricBounds bounds = of(component);
+                if (bounds == null) {
+                    return null;
+                }
+                span = span == null ? bounds : span.span(bounds);
+            }
+            return span;
+        }
+        return null;
+    }
+
+    /**
+     * Measures a Tetrahedron the way metric range specifications do, reading the Warehouse where it can.
+     *
+     * @return the metric values, indexed by ordinal
+     */
+    static double[] measure(Tetrahedron tetrahedron) {
+        double[] values = new double[ShapeMetric.values().length];
+        for (ShapeMetric metric : ShapeMetric.values()) {
+            values[metric.ordinal()] = metric.lookup(calculator, tetrahedron);
+        }
+        return values;
+    }
+
+    /**
+     * @param values metric values from {@link #measure}
+     * @return false only if a Tetrahedron with these values cannot satisfy the specification
+     */
+    boolean admits(double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] < min[i] || values[i] > max[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MetricBounds unbounded() {
+        double[] min = new double[ShapeMetric.values().length];
+        double[] max = new double[min.length];
+        Arrays.fill(min, Double.NEGATIVE_INFINITY);
+        Arrays.fill(max, Double.POSITIVE_INFINITY);
+        return new MetricBounds(min, max);
+    }
+
+    private MetricBounds intersect(MetricBounds other) {
+        MetricBounds result = unbounded();
+        for (int i = 0; i < min.length; i++) {
+            result.min[i] = Math.max(min[i], other.min[i]);
+            result.max[i] = Math.min(max[i], other.max[i]);
+        }
+        return result;
+    }
+
+    private MetricBounds span(MetricBounds other) {
+        MetricBounds result = unbounded();
+        for (int i = 0; i < min.length; i++) {
+            result.min[i] = Math.min(min[i], other.min[i]);
+            result.max[i] = Math.max(max[i], other.max[i]);
+        }
+        return result;
+    }
+}
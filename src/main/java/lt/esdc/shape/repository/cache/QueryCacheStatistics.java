@@ -0,0 +1,21 @@
+package lt.esdc.shape.repository.cache;
+
+/**
+ * Counters of a {@link QueryResultCache} since it was created.
+ *
+ * @param hits          the lookups answered from the cache
+ * @param misses        the lookups that had to run the query
+ * @param evictions     the entries dropped because the cache was full
+ * @param invalidations the entries dropped because a change could affect their result
+ * @param size          the number of entries currently cached
+ */
+public record QueryCacheStatistics(long hits, long misses, long evictions, long invalidations, int size) {
+
+    /**
+     * @return the share of lookups answered from the cache, or NaN before the first lookup
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+}
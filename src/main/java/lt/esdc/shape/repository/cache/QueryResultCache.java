@@ -0,0 +1,202 @@
+package lt.esdc.shape.repository.cache;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of query results keyed by specification, so equal specifications share an entry.
+ * Only {@link TetrahedronSpecification#isCacheable() cacheable} specifications are cached; results of any other
+ * specification pass through, since without value equality they could never be found again.
+ * Invalidation is precise: a changed Tetrahedron drops only the entries whose result contains it, because its
+ * old state matched, or whose specification it now satisfies. Other entries stay valid since the change cannot
+ * move the Tetrahedron into or out of their results. To keep invalidation cheap, each entry remembers the
+ * {@link MetricBounds} of its specification: the changed Tetrahedron is measured once, and an entry whose box it
+ * falls outside is kept after a binary search and a few comparisons, without evaluating the specification.
+ * <p>
+ * Every change advances a modification count. A query reads the count before it runs and hands it to
+ * {@link #put}, which discards the result if a change happened meanwhile, so a result computed concurrently
+ * with a shape edit is never cached after the edit's invalidation has passed.
+ */
+public class QueryResultCache {
+    private final Map<TetrahedronSpecification, Entry> entries;
+    private int capacity;
+    private long modificationCount;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * @param capacity the largest number of cached results, 0 to disable caching
+     */
+    public QueryResultCache(int capacity) {
+        checkCapacity(capacity);
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TetrahedronSpecification, Entry> eldest) {
+                if (size() > QueryResultCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Changes the capacity, evicting the least recently used entries that no longer fit.
+     *
+     * @param capacity the largest number of cached results, 0 to disable caching
+     */
+    public synchronized void setCapacity(int capacity) {
+        checkCapacity(capacity);
+        this.capacity = capacity;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > capacity) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Looks up a cached result and counts the hit or miss. Specifications that are not cacheable are not counted.
+     *
+     * @param specification the specification
+     * @return the unmodifiable cached result, or null
+     */
+    public synchronized List<Tetrahedron> get(TetrahedronSpecification specification) {
+        if (!specification.isCacheable()) {
+            return null;
+        }
+        Entry entry = entries.get(specification);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.result;
+    }
+
+    /**
+     * @return the modification count to pass to {@link #put} for a query that starts now
+     */
+    public synchronized long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Caches a result unless a change happened since the query started or the specification is not cacheable.
+     *
+     * @param specification     the specification
+     * @param result            the result of the query
+     * @param modificationCount the count read before the query started
+     * @return the unmodifiable result to return to the caller
+     */
+    public synchronized List<Tetrahedron> put(TetrahedronSpecification specification, List<Tetrahedron> result,
+                                              long modificationCount) {
+        List<Tetrahedron> copy = List.copyOf(result);
+        if (capacity > 0 && modificationCount == this.modificationCount && specification.isCacheable()) {
+            long[] numericIds = new long[copy.size()];
+            for (int i = 0; i < numericIds.length; i++) {
+                numericIds[i] = copy.get(i).getNumericId();
+            }
+            Arrays.sort(numericIds);
+            entries.put(specification,
+                    new Entry(specification, MetricBounds.of(specification), copy, numericIds));
+        }
+        return copy;
+    }
+
+    /**
+     * Drops the entries an added or edited Tetrahedron could affect. Must be called after the Warehouse holds
+     * the new parameters, as specifications read them.
+     *
+     * @param tetrahedron the Tetrahedron in its new state
+     */
+    public synchronized void invalidate(Tetrahedron tetrahedron) {
+        modificationCount++;
+        double[] metrics = null;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            boolean affected = entry.contains(tetrahedron.getNumericId());
+            if (!affected) {
+                if (entry.bounds != null && metrics == null) {
+                    metrics = MetricBounds.measure(tetrahedron);
+                }
+                affected = (entry.bounds == null || entry.bounds.admits(metrics))
+                        && satisfies(entry.specification, tetrahedron);
+            }
+            if (affected) {
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Drops the entries whose result contains a removed Tetrahedron.
+     *
+     * @param numericId the numeric ID of the removed Tetrahedron
+     */
+    public synchronized void invalidateRemoved(long numericId) {
+        modificationCount++;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().contains(numericId)) {
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Drops every entry, for changes such as reordering that may affect any result.
+     */
+    public synchronized void clear() {
+        modificationCount++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized QueryCacheStatistics getStatistics() {
+        return new QueryCacheStatistics(hits, misses, evictions, invalidations, entries.size());
+    }
+
+    private static void checkCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+    }
+
+    /**
+     * A specification that fails on the Tetrahedron is treated as possibly affected.
+     */
+    private static boolean satisfies(TetrahedronSpecification specification, Tetrahedron tetrahedron) {
+        try {
+            return specification.isSatisfiedBy(tetrahedron);
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private record Entry(TetrahedronSpecification specification, MetricBounds bounds, List<Tetrahedron> result,
+                         long[] numericIds) {
+
+        private boolean contains(long numericId) {
+            return Arrays.binarySearch(numericIds, numericId) >= 0;
+        }
+    }
+}
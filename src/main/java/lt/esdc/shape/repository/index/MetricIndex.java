@@ -0,0 +1,192 @@
+package lt.esdc.shape.repository.index;
+
+import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.util.collection.LongDoubleTripleHashMap;
+import lt.esdc.shape.warehouse.Warehouse;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sorted secondary indexes of Tetrahedron IDs by perimeter, area and volume.
+ * Each index orders entries by metric value and then by numeric ID in primitive arrays, so a range of values maps
+ * to a contiguous run that is found in O(log n). The last indexed metrics of every Tetrahedron are remembered in a
+ * primitive map so that an update can remove the stale entries before inserting the new ones.
+ * The indexes are guarded by a read-write lock, so range lookups run in parallel with each other. Metrics are read
+ * and stored under the write lock in one step: of two overlapping updates of a Tetrahedron, the one that stores
+ * last also reads last, so it never leaves the values of an older state behind.
+ */
+public class MetricIndex {
+    private final ShapeCalculator calculator = new TetrahedronCalculatorImpl();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Warehouse warehouse;
+    private final SortedMetricColumn[] indexes = new SortedMetricColumn[ShapeMetric.values().length];
+    private final LongDoubleTripleHashMap indexedValues = new LongDoubleTripleHashMap(1024);
+
+    /**
+     * Creates indexes that compute the metrics of every Tetrahedron themselves.
+     */
+    public MetricIndex() {
+        this(null);
+    }
+
+    /**
+     * Creates indexes that read the metrics of a Tetrahedron from a Warehouse
+     * and compute them only when it has none.
+     * The Warehouse must be updated before the indexes are, for example by a WarehouseObserver registered first,
+     * so that an edit is measured once however many derived structures follow it.
+     *
+     * @param warehouse the Warehouse to read metrics from, or null to always compute them
+     */
+    public MetricIndex(Warehouse warehouse) {
+        this.warehouse = warehouse;
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = new SortedMetricColumn();
+        }
+    }
+
+    /**
+     * Indexes a Tetrahedron or re-indexes it after its points changed.
+     *
+     * @param tetrahedron the Tetrahedron to index
+     */
+    public void index(Tetrahedron tetrahedron) {
+        lock.writeLock().lock();
+        try {
+            double[] values = ShapeMetric.lookupAll(warehouse, calculator, tetrahedron);
+            store(tetrahedron.getNumericId(), values);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes a Tetrahedron after its points changed, unless it has been unindexed in the meantime.
+     *
+     * @param tetrahedron the Tetrahedron to re-index
+     */
+    public void reindex(Tetrahedron tetrahedron) {
+        lock.writeLock().lock();
+        try {
+            double[] values = ShapeMetric.lookupAll(warehouse, calculator, tetrahedron);
+            if (indexedValues.containsKey(tetrahedron.getNumericId())) {
+                store(tetrahedron.getNumericId(), values);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes many Tetrahedrons under one write lock, skipping those that are not indexed,
+     * for example after their parameters were recomputed in bulk.
+     *
+     * @param tetrahedrons the Tetrahedrons to re-index
+     */
+    public void reindexAll(Collection<Tetrahedron> tetrahedrons) {
+        lock.writeLock().lock();
+        try {
+            for (Tetrahedron tetrahedron : tetrahedrons) {
+                if (indexedValues.containsKey(tetrahedron.getNumericId())) {
+                    store(tetrahedron.getNumericId(), ShapeMetric.lookupAll(warehouse, calculator, tetrahedron));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a Tetrahedron from every index.
+     *
+     * @param numericId the numeric ID of the Tetrahedron
+     */
+    public void unindex(long numericId) {
+        lock.writeLock().lock();
+        try {
+            remove(numericId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the IDs of Tetrahedrons whose metric lies in {@code [min, max]}, in ascending metric order.
+     * Callers that need repository order must restore it themselves.
+     *
+     * @param metric the metric to search by
+     * @param min    the inclusive lower bound
+     * @param max    the inclusive upper bound
+     * @return the matching numeric IDs
+     */
+    public long[] range(ShapeMetric metric, double min, double max) {
+        if (!(min <= max)) {
+            return new long[0];
+        }
+        lock.readLock().lock();
+        try {
+            return indexes[metric.ordinal()].range(min, max);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param metric the indexed metric
+     * @return the smallest indexed value of the metric, or NaN if nothing is indexed
+     */
+    public double min(ShapeMetric metric) {
+        lock.readLock().lock();
+        try {
+            return indexes[metric.ordinal()].first();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param metric the indexed metric
+     * @return the largest indexed value of the metric, or NaN if nothing is indexed
+     */
+    public double max(ShapeMetric metric) {
+        lock.readLock().lock();
+        try {
+            return indexes[metric.ordinal()].last();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed Tetrahedrons
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexedValues.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void store(long id, double[] values) {
+        remove(id);
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i].add(values[i], id);
+        }
+        indexedValues.put(id, values[0], values[1], values[2]);
+    }
+
+    private void remove(long id) {
+        if (indexedValues.containsKey(id)) {
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i].remove(indexedValues.get(id, i), id);
+            }
+            indexedValues.remove(id);
+        }
+    }
+}
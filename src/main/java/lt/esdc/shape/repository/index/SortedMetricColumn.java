@@ -0,0 +1,168 @@
+package lt.esdc.shape.repository.index;
+
+import java.util.Arrays;
+
+/**
+ * One metric index: (value, numeric ID) entries ordered by value and then by ID, kept in blocks of primitive arrays.
+ * The block holding a key is found by binary search over the first entry of every block and the entry by another
+ * search inside it, so an insertion or removal shifts at most one block instead of the whole column.
+ * A full block is split in two and an emptied block is dropped. The column is not thread-safe.
+ */
+final class SortedMetricColumn {
+    private static final int BLOCK_CAPACITY = 512;
+    private double[][] values = {new double[BLOCK_CAPACITY]};
+    private long[][] ids = {new long[BLOCK_CAPACITY]};
+    private int[] sizes = new int[1];
+    private int blockCount = 1;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the smallest value, or NaN if the column is empty
+     */
+    double first() {
+        return size == 0 ? Double.NaN : values[0][0];
+    }
+
+    /**
+     * @return the largest value, or NaN if the column is empty
+     */
+    double last() {
+        int block = blockCount - 1;
+        return size == 0 ? Double.NaN : values[block][sizes[block] - 1];
+    }
+
+    void add(double value, long id) {
+        int block = findBlock(value, id);
+        int index = lowerBound(block, value, id);
+        if (sizes[block] == BLOCK_CAPACITY) {
+            splitBlock(block);
+            int half = sizes[block];
+            if (index > half) {
+                block++;
+                index -= half;
+            }
+        }
+        int length = sizes[block] - index;
+        System.arraycopy(values[block], index, values[block], index + 1, length);
+        System.arraycopy(ids[block], index, ids[block], index + 1, length);
+        values[block][index] = value;
+        ids[block][index] = id;
+        sizes[block]++;
+        size++;
+    }
+
+    boolean remove(double value, long id) {
+        int block = findBlock(value, id);
+        int index = lowerBound(block, value, id);
+        if (index == sizes[block] || compare(values[block][index], ids[block][index], value, id) != 0) {
+            return false;
+        }
+        int length = sizes[block] - index - 1;
+        System.arraycopy(values[block], index + 1, values[block], index, length);
+        System.arraycopy(ids[block], index + 1, ids[block], index, length);
+        sizes[block]--;
+        size--;
+        if (sizes[block] == 0 && blockCount > 1) {
+            removeBlock(block);
+        }
+        return true;
+    }
+
+    /**
+     * @return the IDs of the entries whose value lies in {@code [min, max]}, in ascending value order
+     */
+    long[] range(double min, double max) {
+        long[] found = new long[16];
+        int count = 0;
+        int block = findBlock(min, Long.MIN_VALUE);
+        int index = lowerBound(block, min, Long.MIN_VALUE);
+        for (; block < blockCount; block++, index = 0) {
+            for (; index < sizes[block]; index++) {
+                if (Double.compare(values[block][index], max) > 0) {
+                    return Arrays.copyOf(found, count);
+                }
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = ids[block][index];
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private static int compare(double value, long id, double otherValue, long otherId) {
+        int byValue = Double.compare(value, otherValue);
+        return byValue != 0 ? byValue : Long.compare(id, otherId);
+    }
+
+    /**
+     * @return the last block whose first entry is not greater than the key, or the first block
+     */
+    private int findBlock(double value, long id) {
+        int low = 1;
+        int high = blockCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (compare(values[middle][0], ids[middle][0], value, id) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high < 0 ? 0 : high;
+    }
+
+    /**
+     * @return the index of the first entry of the block that is not less than the key
+     */
+    private int lowerBound(int block, double value, long id) {
+        int low = 0;
+        int high = sizes[block];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(values[block][middle], ids[block][middle], value, id) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void splitBlock(int block) {
+        if (blockCount == sizes.length) {
+            int length = blockCount * 2;
+            values = Arrays.copyOf(values, length);
+            ids = Arrays.copyOf(ids, length);
+            sizes = Arrays.copyOf(sizes, length);
+        }
+        int next = block + 1;
+        System.arraycopy(values, next, values, next + 1, blockCount - next);
+        System.arraycopy(ids, next, ids, next + 1, blockCount - next);
+        System.arraycopy(sizes, next, sizes, next + 1, blockCount - next);
+        blockCount++;
+
+        int half = BLOCK_CAPACITY / 2;
+        values[next] = new double[BLOCK_CAPACITY];
+        ids[next] = new long[BLOCK_CAPACITY];
+        System.arraycopy(values[block], half, values[next], 0, BLOCK_CAPACITY - half);
+        System.arraycopy(ids[block], half, ids[next], 0, BLOCK_CAPACITY - half);
+        sizes[next] = BLOCK_CAPACITY - half;
+        sizes[block] = half;
+    }
+
+    private void removeBlock(int block) {
+        int next = block + 1;
+        System.arraycopy(values, next, values, block, blockCount - next);
+        System.arraycopy(ids, next, ids, block, blockCount - next);
+        System.arraycopy(sizes, next, sizes, block, blockCount - next);
+        blockCount--;
+        values[blockCount] = null;
+        ids[blockCount] = null;
+        sizes[blockCount] = 0;
+    }
+}
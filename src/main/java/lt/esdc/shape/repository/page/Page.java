@@ -0,0 +1,23 @@
+package lt.esdc.shape.repository.page;
+
+import lt.esdc.shape.entity.Tetrahedron;
+
+import java.util.List;
+
+/**
+ * One page of query results.
+ *
+ * @param items      the Tetrahedrons on this page, in repository order
+ * @param nextCursor the cursor of the next page, or {@link #END} if this page was not full; the page after a full
+ *                   one may be empty
+ */
+public record Page(List<Tetrahedron> items, int nextCursor) {
+    public static final int END = -1;
+
+    /**
+     * @return true if another page may follow
+     */
+    public boolean hasNext() {
+        return nextCursor != END;
+    }
+}
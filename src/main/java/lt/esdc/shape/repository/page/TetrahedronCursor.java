@@ -0,0 +1,93 @@
+package lt.esdc.shape.repository.page;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.store.TetrahedronStore;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy iterator over the stored Tetrahedrons that satisfy a specification, in repository order.
+ * Tetrahedrons are fetched from the store in batches that start small and grow while the caller keeps reading,
+ * so taking the first few matches only touches the first few Tetrahedrons. The store lock is held only while
+ * a batch is copied. The iteration is weakly consistent: it never fails because of concurrent edits, and
+ * Tetrahedrons added or removed meanwhile may or may not be returned.
+ * {@link #getPosition()} tells where a later cursor can resume; a store compaction or sort in between renumbers
+ * the positions, so the resumed cursor may then skip or repeat Tetrahedrons.
+ */
+public class TetrahedronCursor implements Iterator<Tetrahedron> {
+    private static final int FIRST_BATCH_SIZE = 32;
+    private static final int MAX_BATCH_SIZE = 1024;
+    private final TetrahedronStore store;
+    private final TetrahedronSpecification filter;
+    private Tetrahedron[] batch = new Tetrahedron[FIRST_BATCH_SIZE];
+    private int[] batchPositions = new int[FIRST_BATCH_SIZE];
+    private int batchSize;
+    private int batchIndex;
+    private int fetchPosition;
+    private int position;
+    private Tetrahedron next;
+    private boolean exhausted;
+
+    /**
+     * @param store    the store to read
+     * @param filter   the specification returned Tetrahedrons satisfy, or null to return all
+     * @param position the order position to start at, 0 for the beginning
+     */
+    public TetrahedronCursor(TetrahedronStore store, TetrahedronSpecification filter, int position) {
+        this.store = store;
+        this.filter = filter;
+        this.fetchPosition = position;
+        this.position = position;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && !exhausted) {
+            if (batchIndex == batchSize && !fetchBatch()) {
+                exhausted = true;
+                break;
+            }
+            Tetrahedron candidate = batch[batchIndex];
+            int candidatePosition = batchPositions[batchIndex];
+            batch[batchIndex++] = null;
+            if (filter == null || filter.isSatisfiedBy(candidate)) {
+                next = candidate;
+                position = candidatePosition + 1;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Tetrahedron next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Tetrahedron current = next;
+        next = null;
+        return current;
+    }
+
+    /**
+     * @return the order position right after the last Tetrahedron returned, or the end position once exhausted
+     */
+    public int getPosition() {
+        return exhausted ? fetchPosition : position;
+    }
+
+    private boolean fetchBatch() {
+        if (batchSize == batch.length && batch.length < MAX_BATCH_SIZE) {
+            batch = new Tetrahedron[batch.length * 2];
+            batchPositions = new int[batch.length];
+        }
+        batchSize = store.fetch(fetchPosition, batch, batchPositions);
+        batchIndex = 0;
+        if (batchSize == 0) {
+            return false;
+        }
+        fetchPosition = batchPositions[batchSize - 1] + 1;
+        return true;
+    }
+}
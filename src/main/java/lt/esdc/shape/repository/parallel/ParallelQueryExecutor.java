@@ -0,0 +1,153 @@
+package lt.esdc.shape.repository.parallel;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Filters query candidates sequentially or, once the work is large enough, on a dedicated {@link ForkJoinPool}
+ * that leaves the common pool to the rest of the application.
+ * The work of a filter is the number of candidates times the specification's {@link TetrahedronSpecification#getCost()
+ * cost}, and the threshold counts checks of a cached metric: a specification that computes its metric, ten times
+ * as costly, goes parallel at a tenth of the candidates.
+ * The candidates are cut into chunks that keep their order; each worker filters whole chunks and the matches are
+ * concatenated in chunk order, so the result equals the sequential one. After {@link #shutdown()} the executor
+ * rejects every filter, so that a query cannot silently lose its parallelism.
+ */
+public class ParallelQueryExecutor {
+    public static final int DEFAULT_THRESHOLD = 1 << 15;
+    private static final int CHECK_INTERVAL = 1024;
+    private static final int CHUNKS_PER_WORKER = 4;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * @param parallelism the number of worker threads
+     * @param threshold   the number of cached-metric checks from which filtering runs in parallel
+     */
+    public ParallelQueryExecutor(int parallelism, int threshold) {
+        if (parallelism < 1 || threshold < 0) {
+            throw new IllegalArgumentException("Parallelism must be positive and threshold must not be negative");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.threshold = threshold;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @param candidates the number of candidates to check
+     * @param filter     the specification to check them against
+     * @return true if filtering them would run in parallel
+     */
+    public boolean isParallel(int candidates, TetrahedronSpecification filter) {
+        double work = (double) candidates * filter.getCost();
+        return pool.getParallelism() > 1 && work >= (double) threshold * TetrahedronSpecification.COST_CACHED_METRIC;
+    }
+
+    /**
+     * Keeps the candidates that satisfy the filter, in their original order.
+     *
+     * @param candidates the Tetrahedrons to check, not modified while this call runs
+     * @param filter     the specification to check them against
+     * @param control    stops the filtering when cancelled or timed out
+     * @return the matching candidates
+     * @throws java.util.concurrent.CancellationException if the control stopped the filtering
+     * @throws RejectedExecutionException                  if the executor has been shut down
+     */
+    public List<Tetrahedron> filter(List<Tetrahedron> candidates, TetrahedronSpecification filter,
+                                    QueryControl control) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Parallel query executor is shut down");
+        }
+        if (!isParallel(candidates.size(), filter)) {
+            return filterRange(candidates, 0, candidates.size(), filter, control);
+        }
+        int chunkSize = Math.max(CHECK_INTERVAL,
+                -Math.floorDiv(-candidates.size(), pool.getParallelism() * CHUNKS_PER_WORKER));
+        int chunks = -Math.floorDiv(-candidates.size(), chunkSize);
+        List<List<Tetrahedron>> matches = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            matches.add(null);
+        }
+        pool.invoke(new FilterTask(candidates, filter, control, matches, chunkSize, 0, chunks));
+        int total = 0;
+        for (List<Tetrahedron> chunk : matches) {
+            total += chunk.size();
+        }
+        List<Tetrahedron> found = new ArrayList<>(total);
+        matches.forEach(found::addAll);
+        return found;
+    }
+
+    /**
+     * Stops the worker threads once the running queries have finished. Later filters are rejected.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public boolean isShutdown() {
+        return pool.isShutdown();
+    }
+
+    private static List<Tetrahedron> filterRange(List<Tetrahedron> candidates, int from, int to,
+                                                 TetrahedronSpecification filter, QueryControl control) {
+        List<Tetrahedron> found = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            if ((i - from) % CHECK_INTERVAL == 0) {
+                control.check();
+            }
+            Tetrahedron candidate = candidates.get(i);
+            if (filter.isSatisfiedBy(candidate)) {
+                found.add(candidate);
+            }
+        }
+        return found;
+    }
+
+    private static class FilterTask extends RecursiveAction {
+        private final List<Tetrahedron> candidates;
+        private final TetrahedronSpecification filter;
+        private final QueryControl control;
+        private final List<List<Tetrahedron>> matches;
+        private final int chunkSize;
+        private final int fromChunk;
+        private final int toChunk;
+
+        private FilterTask(List<Tetrahedron> candidates, TetrahedronSpecification filter, QueryControl control,
+                           List<List<Tetrahedron>> matches, int chunkSize, int fromChunk, int toChunk) {
+            this.candidates = candidates;
+            this.filter = filter;
+            this.control = control;
+            this.matches = matches;
+            this.chunkSize = chunkSize;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk == 1) {
+                int from = fromChunk * chunkSize;
+                int to = Math.min(from + chunkSize, candidates.size());
+                matches.set(fromChunk, filterRange(candidates, from, to, filter, control));
+                return;
+            }
+            int middle = (fromChunk + toChunk) >>> 1;
+            invokeAll(new FilterTask(candidates, filter, control, matches, chunkSize, fromChunk, middle),
+                    new FilterTask(candidates, filter, control, matches, chunkSize, middle, toChunk));
+        }
+    }
+}
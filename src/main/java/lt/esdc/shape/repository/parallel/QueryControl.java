@@ -0,0 +1,68 @@
+package lt.esdc.shape.repository.parallel;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets a caller stop a running query, either by cancelling it from another thread or by giving it a deadline.
+ * Query workers call {@link #check()} between chunks of work, so a stopped query ends within one chunk.
+ */
+public class QueryControl {
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    private final long deadline;
+    private volatile boolean cancelled;
+    private volatile boolean timedOut;
+
+    private QueryControl(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return a control without a deadline, stopped only by {@link #cancel()}
+     */
+    public static QueryControl unbounded() {
+        return new QueryControl(NO_DEADLINE);
+    }
+
+    /**
+     * @param timeout the longest time the query may run, counted from now
+     * @param unit    the unit of the timeout
+     * @return a control that stops the query once the timeout has passed
+     */
+    public static QueryControl withTimeout(long timeout, TimeUnit unit) {
+        return new QueryControl(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * Asks the query to stop. It ends with a {@link CancellationException} once its workers notice.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return true if the query was stopped because its deadline passed
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Stops the calling worker if the query was cancelled or its deadline has passed.
+     *
+     * @throws CancellationException if the query must stop
+     */
+    public void check() {
+        if (!cancelled && deadline != NO_DEADLINE && System.nanoTime() - deadline > 0) {
+            timedOut = true;
+            cancelled = true;
+        }
+        if (cancelled) {
+            throw new CancellationException(timedOut ? "Query timed out" : "Query cancelled");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package lt.esdc.shape.repository.plan;
+
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.column.ColumnPredicate;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How the repository answers a query: an access path that produces candidate Tetrahedrons and the
+ * filters that candidates are checked against, in evaluation order.
+ * {@link #toString()} renders the plan with the planner's estimates, for example:
+ * <pre>
+ * INDEX_RANGE volume in [1.0, 2.0] (selectivity 0.1000, ~100 of 1000 rows)
+ *   filter 1: id = id1 (cost 1.0, selectivity 0.0010)
+ *   filter 2: area in [0.0, 5.0] (cost 4.0, selectivity 0.5000)
+ * </pre>
+ */
+public class QueryPlan {
+    private final AccessPath accessPath;
+    private final TetrahedronSpecification accessSpecification;
+    private final ColumnPredicate columnPredicate;
+    private final double accessSelectivity;
+    private final List<Step> filters;
+    private final TetrahedronSpecification filter;
+    private final int repositorySize;
+
+    QueryPlan(AccessPath accessPath, TetrahedronSpecification accessSpecification, ColumnPredicate columnPredicate,
+              double accessSelectivity, List<Step> filters, TetrahedronSpecification filter, int repositorySize) {
+        this.accessPath = accessPath;
+        this.accessSpecification = accessSpecification;
+        this.columnPredicate = columnPredicate;
+        this.accessSelectivity = accessSelectivity;
+        this.filters = List.copyOf(filters);
+        this.filter = filter;
+        this.repositorySize = repositorySize;
+    }
+
+    public AccessPath getAccessPath() {
+        return accessPath;
+    }
+
+    /**
+     * @return the specification answered by the access path, or null for a full scan
+     */
+    public TetrahedronSpecification getAccessSpecification() {
+        return accessSpecification;
+    }
+
+    /**
+     * @return the compiled access specification of a column scan, or null for other access paths
+     */
+    public ColumnPredicate getColumnPredicate() {
+        return columnPredicate;
+    }
+
+    /**
+     * @return the specification candidates must still satisfy, or null if the access path answers the query
+     */
+    public TetrahedronSpecification getFilter() {
+        return filter;
+    }
+
+    /**
+     * @return the filters in evaluation order
+     */
+    public List<Step> getFilterSteps() {
+        return filters;
+    }
+
+    /**
+     * @return the estimated number of Tetrahedrons the access path produces
+     */
+    public long getEstimatedCandidates() {
+        return Math.round(accessSelectivity * repositorySize);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(accessPath);
+        if (accessSpecification != null) {
+            sb.append(' ').append(accessSpecification);
+        }
+        sb.append(String.format(Locale.ROOT, " (selectivity %.4f, ~%d of %d rows)", accessSelectivity,
+                getEstimatedCandidates(), repositorySize));
+        for (int i = 0; i < filters.size(); i++) {
+            sb.append(String.format(Locale.ROOT, "%n  filter %d: %s", i + 1, filters.get(i)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The ways of producing candidates, from the most to the least selective.
+     */
+    public enum AccessPath {
+        ID_LOOKUP,
+        ID_SET_LOOKUP,
+        INDEX_RANGE,
+        COLUMN_SCAN,
+        FULL_SCAN
+    }
+
+    /**
+     * One filter of the plan with the estimates it was ordered by.
+     *
+     * @param specification the specification to check
+     * @param cost          the estimated cost of one check
+     * @param selectivity   the estimated fraction of candidates that pass
+     */
+    public record Step(TetrahedronSpecification specification, double cost, double selectivity) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s (cost %.1f, selectivity %.4f)", specification, cost, selectivity);
+        }
+    }
+}
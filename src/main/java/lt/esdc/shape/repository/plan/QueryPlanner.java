@@ -0,0 +1,216 @@
+package lt.esdc.shape.repository.plan;
+
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.repository.aggregate.MetricAggregates;
+import lt.esdc.shape.repository.aggregate.MetricStatistics;
+import lt.esdc.shape.specification.MetricRangeSpecification;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.column.ColumnPredicate;
+import lt.esdc.shape.specification.impl.AndTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.IdSetTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.IdTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.NotTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.OrTetrahedronSpecification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cost-based planner for repository queries.
+ * The top-level conjuncts of a query are split into one access path and residual filters. An ID conjunct is
+ * answered from the ID index; otherwise the most selective of the ID sets, looked up key by key in the ID index,
+ * and the metric ranges of the default calculator, answered from the metric index; otherwise every Tetrahedron is
+ * scanned. On stores with primitive columns, the conjuncts that compile to a column predicate are evaluated together
+ * in a column scan instead, unless the lookup is expected to produce few enough candidates to be cheaper. The residual filters, and the components of
+ * nested conjunctions and disjunctions, are ordered so that cheap checks likely to decide the outcome run first.
+ * <p>
+ * Selectivity is estimated from the repository {@link MetricAggregates}: a metric range is assumed to select
+ * the fraction of {@code [min, max]} it overlaps, an ID or ID set as many Tetrahedrons as it names,
+ * and anything else half of them.
+ */
+public class QueryPlanner {
+    private static final double UNKNOWN_SELECTIVITY = 0.5;
+    /**
+     * Relative cost of producing one candidate through the metric index: a tree step, an ID lookup and a view.
+     */
+    private static final double INDEX_CANDIDATE_COST = 64;
+    /**
+     * Relative cost of producing one candidate of an ID set: an ID lookup and a view.
+     */
+    private static final double ID_CANDIDATE_COST = 32;
+    /**
+     * Relative cost of evaluating one compiled conjunct for one row of a column scan.
+     */
+    private static final double COLUMN_ROW_COST = 1;
+    private final MetricAggregates statistics;
+
+    /**
+     * @param statistics the aggregates of the repository being queried
+     */
+    public QueryPlanner(MetricAggregates statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Plans a query.
+     *
+     * @param specification  the query
+     * @param repositorySize the number of Tetrahedrons in the repository
+     * @param columnScan     whether the store can evaluate compiled column predicates
+     * @return the plan
+     */
+    public QueryPlan plan(TetrahedronSpecification specification, int repositorySize, boolean columnScan) {
+        List<TetrahedronSpecification> conjuncts = specification instanceof AndTetrahedronSpecification conjunction
+                ? new ArrayList<>(conjunction.getComponents())
+                : new ArrayList<>(List.of(specification));
+
+        TetrahedronSpecification access = null;
+        double accessSelectivity = 1.0;
+        QueryPlan.AccessPath accessPath = QueryPlan.AccessPath.FULL_SCAN;
+        for (TetrahedronSpecification conjunct : conjuncts) {
+            double selectivity = estimateSelectivity(conjunct, repositorySize);
+            if (conjunct instanceof IdTetrahedronSpecification) {
+                access = conjunct;
+                accessSelectivity = selectivity;
+                accessPath = QueryPlan.AccessPath.ID_LOOKUP;
+                break;
+            }
+            if (conjunct instanceof IdSetTetrahedronSpecification && (access == null || selectivity < accessSelectivity)) {
+                access = conjunct;
+                accessSelectivity = selectivity;
+                accessPath = QueryPlan.AccessPath.ID_SET_LOOKUP;
+            } else if (isIndexed(conjunct) && (access == null || selectivity < accessSelectivity)) {
+                access = conjunct;
+                accessSelectivity = selectivity;
+                accessPath = QueryPlan.AccessPath.INDEX_RANGE;
+            }
+        }
+        ColumnPredicate columnPredicate = null;
+        List<TetrahedronSpecification> compiled = columnScan && accessPath != QueryPlan.AccessPath.ID_LOOKUP
+                ? conjuncts.stream().filter(conjunct -> conjunct.compile() != null).toList()
+                : List.of();
+        double lookupCost = switch (accessPath) {
+            case ID_SET_LOOKUP -> accessSelectivity * repositorySize * ID_CANDIDATE_COST;
+            case INDEX_RANGE -> accessSelectivity * repositorySize * INDEX_CANDIDATE_COST;
+            default -> Double.POSITIVE_INFINITY;
+        };
+        if (!compiled.isEmpty() && repositorySize * COLUMN_ROW_COST * compiled.size() < lookupCost) {
+            access = compiled.size() == 1 ? compiled.get(0) : new AndTetrahedronSpecification(compiled);
+            accessSelectivity = estimateSelectivity(access, repositorySize);
+            accessPath = QueryPlan.AccessPath.COLUMN_SCAN;
+            columnPredicate = access.compile();
+            conjuncts.removeAll(compiled);
+        } else {
+            conjuncts.remove(access);
+        }
+
+        List<QueryPlan.Step> steps = new ArrayList<>(conjuncts.size());
+        for (TetrahedronSpecification conjunct : conjuncts) {
+            TetrahedronSpecification optimized = optimize(conjunct, repositorySize);
+            steps.add(new QueryPlan.Step(optimized, optimized.getCost(), estimateSelectivity(optimized, repositorySize)));
+        }
+        steps.sort(Comparator.comparingDouble(step -> conjunctRank(step.cost(), step.selectivity())));
+
+        TetrahedronSpecification filter = null;
+        if (steps.size() == 1) {
+            filter = steps.get(0).specification();
+        } else if (steps.size() > 1) {
+            filter = new AndTetrahedronSpecification(steps.stream().map(QueryPlan.Step::specification).toList());
+        }
+        return new QueryPlan(accessPath, access, columnPredicate, accessSelectivity, steps, filter, repositorySize);
+    }
+
+    /**
+     * Estimates the fraction of the repository satisfying a specification.
+     *
+     * @param specification  the specification
+     * @param repositorySize the number of Tetrahedrons in the repository
+     * @return a fraction in {@code [0, 1]}
+     */
+    public double estimateSelectivity(TetrahedronSpecification specification, int repositorySize) {
+        if (specification instanceof IdTetrahedronSpecification) {
+            return repositorySize == 0 ? 0.0 : Math.min(1.0, 1.0 / repositorySize);
+        }
+        if (specification instanceof IdSetTetrahedronSpecification idSet) {
+            return repositorySize == 0 ? 0.0 : Math.min(1.0, (double) idSet.size() / repositorySize);
+        }
+        if (specification instanceof MetricRangeSpecification range) {
+            return estimateRangeSelectivity(range);
+        }
+        if (specification instanceof NotTetrahedronSpecification negation) {
+            return 1.0 - estimateSelectivity(negation.getComponent(), repositorySize);
+        }
+        if (specification instanceof AndTetrahedronSpecification conjunction) {
+            double selectivity = 1.0;
+            for (TetrahedronSpecification component : conjunction.getComponents()) {
+                selectivity *= estimateSelectivity(component, repositorySize);
+            }
+            return selectivity;
+        }
+        if (specification instanceof OrTetrahedronSpecification disjunction) {
+            double rejected = 1.0;
+            for (TetrahedronSpecification component : disjunction.getComponents()) {
+                rejected *= 1.0 - estimateSelectivity(component, repositorySize);
+            }
+            return 1.0 - rejected;
+        }
+        return UNKNOWN_SELECTIVITY;
+    }
+
+    private double estimateRangeSelectivity(MetricRangeSpecification range) {
+        MetricStatistics metric = statistics.getStatistics(range.getMetric());
+        if (metric.count() == 0 || !(range.getMin() <= range.getMax())) {
+            return 0.0;
+        }
+        double overlap = Math.min(range.getMax(), metric.max()) - Math.max(range.getMin(), metric.min());
+        if (overlap < 0) {
+            return 0.0;
+        }
+        double width = metric.max() - metric.min();
+        return width > 0 ? Math.min(1.0, overlap / width) : 1.0;
+    }
+
+    /**
+     * Reorders the components of nested conjunctions and disjunctions.
+     */
+    private TetrahedronSpecification optimize(TetrahedronSpecification specification, int repositorySize) {
+        if (specification instanceof AndTetrahedronSpecification conjunction) {
+            return new AndTetrahedronSpecification(conjunction.getComponents().stream()
+                    .map(component -> optimize(component, repositorySize))
+                    .sorted(Comparator.comparingDouble(component -> conjunctRank(component.getCost(),
+                            estimateSelectivity(component, repositorySize))))
+                    .toList());
+        }
+        if (specification instanceof OrTetrahedronSpecification disjunction) {
+            return new OrTetrahedronSpecification(disjunction.getComponents().stream()
+                    .map(component -> optimize(component, repositorySize))
+                    .sorted(Comparator.comparingDouble(component -> disjunctRank(component.getCost(),
+                            estimateSelectivity(component, repositorySize))))
+                    .toList());
+        }
+        if (specification instanceof NotTetrahedronSpecification negation) {
+            return new NotTetrahedronSpecification(optimize(negation.getComponent(), repositorySize));
+        }
+        return specification;
+    }
+
+    private static boolean isIndexed(TetrahedronSpecification specification) {
+        return specification instanceof MetricRangeSpecification range
+                && range.getShapeCalculator() instanceof TetrahedronCalculatorImpl;
+    }
+
+    /**
+     * Cost per rejected Tetrahedron: a conjunction stops at the first failing component.
+     */
+    private static double conjunctRank(double cost, double selectivity) {
+        return selectivity >= 1.0 ? Double.POSITIVE_INFINITY : cost / (1.0 - selectivity);
+    }
+
+    /**
+     * Cost per accepted Tetrahedron: a disjunction stops at the first satisfied component.
+     */
+    private static double disjunctRank(double cost, double selectivity) {
+        return selectivity <= 0.0 ? Double.POSITIVE_INFINITY : cost / selectivity;
+    }
+}
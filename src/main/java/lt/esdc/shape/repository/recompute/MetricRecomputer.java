@@ -0,0 +1,135 @@
+package lt.esdc.shape.repository.recompute;
+
+import lt.esdc.shape.action.BatchShapeCalculator;
+import lt.esdc.shape.action.CalculatorFactory;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.impl.WarehouseObserver;
+import lt.esdc.shape.warehouse.Warehouse;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Recomputes the parameters of many Tetrahedrons on a dedicated {@link ForkJoinPool} and stores them in the
+ * {@link Warehouse}. The list is split in halves until a range is no longer than the chunk size; each chunk copies
+ * its coordinates into columns, runs the {@link BatchShapeCalculator} over them and writes the results with one
+ * {@link Warehouse#putAllParameters} call.
+ * A Tetrahedron edited after its chunk copied the coordinates is recomputed on its own after the batch write,
+ * holding the {@link WarehouseObserver#getUpdateLock update lock} of that shape, so neither the batch nor the
+ * re-check can leave parameters of an older state behind.
+ */
+public class MetricRecomputer {
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final BatchShapeCalculator calculator = CalculatorFactory.getBatchCalculator();
+
+    /**
+     * @param parallelism the number of worker threads
+     * @param chunkSize   the largest number of Tetrahedrons computed and written as one batch
+     */
+    public MetricRecomputer(int parallelism, int chunkSize) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Recomputes the parameters of all given Tetrahedrons and waits for the results to be stored.
+     *
+     * @param tetrahedrons the Tetrahedrons, not modified while this call runs
+     */
+    public void recompute(List<Tetrahedron> tetrahedrons) {
+        pool.invoke(new RecomputeTask(tetrahedrons, 0, tetrahedrons.size()));
+    }
+
+    /**
+     * Stops the worker threads once the running recomputations have finished.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void recomputeChunk(List<Tetrahedron> tetrahedrons, int from, int to) {
+        int length = to - from;
+        long[] ids = new long[length];
+        double[][] coordinates = new double[BatchShapeCalculator.COORDINATES_COUNT][length];
+        double[][] metrics = new double[ShapeMetric.values().length][length];
+        for (int i = 0; i < length; i++) {
+            Tetrahedron tetrahedron = tetrahedrons.get(from + i);
+            ids[i] = tetrahedron.getNumericId();
+            copyPoint(tetrahedron.getPointA(), coordinates, 0, i);
+            copyPoint(tetrahedron.getPointB(), coordinates, 3, i);
+            copyPoint(tetrahedron.getPointC(), coordinates, 6, i);
+            copyPoint(tetrahedron.getPointD(), coordinates, 9, i);
+        }
+        calculator.computeAll(coordinates, metrics, 0, length);
+
+        Warehouse warehouse = Warehouse.getInstance();
+        warehouse.putAllParameters(ids, metrics, 0, length);
+        for (int i = 0; i < length; i++) {
+            Tetrahedron tetrahedron = tetrahedrons.get(from + i);
+            if (!samePoint(tetrahedron.getPointA(), coordinates, 0, i)
+                    || !samePoint(tetrahedron.getPointB(), coordinates, 3, i)
+                    || !samePoint(tetrahedron.getPointC(), coordinates, 6, i)
+                    || !samePoint(tetrahedron.getPointD(), coordinates, 9, i)) {
+                Lock lock = WarehouseObserver.getUpdateLock(ids[i]);
+                lock.lock();
+                try {
+                    warehouse.putParameters(ids[i],
+                            CalculatorFactory.getCalculator(tetrahedron).computeAll(tetrahedron));
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private static void copyPoint(Point point, double[][] coordinates, int column, int index) {
+        coordinates[column][index] = point.x();
+        coordinates[column + 1][index] = point.y();
+        coordinates[column + 2][index] = point.z();
+    }
+
+    private static boolean samePoint(Point point, double[][] coordinates, int column, int index) {
+        return point.x() == coordinates[column][index]
+                && point.y() == coordinates[column + 1][index]
+                && point.z() == coordinates[column + 2][index];
+    }
+
+    private class RecomputeTask extends RecursiveAction {
+        private final List<Tetrahedron> tetrahedrons;
+        private final int from;
+        private final int to;
+
+        private RecomputeTask(List<Tetrahedron> tetrahedrons, int from, int to) {
+            this.tetrahedrons = tetrahedrons;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                recomputeChunk(tetrahedrons, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RecomputeTask(tetrahedrons, from, middle), new RecomputeTask(tetrahedrons, middle, to));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package lt.esdc.shape.repository.snapshot;
+
+import lt.esdc.shape.action.CalculatorFactory;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.store.TetrahedronStore;
+import lt.esdc.shape.util.collection.LongIntHashMap;
+import lt.esdc.shape.warehouse.Warehouse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Immutable view of the repository and its shape parameters at one version.
+ * Opening a snapshot records only the numeric IDs in repository order; Tetrahedrons are copied lazily, either when
+ * the snapshot first reads them from the store or, through {@link ShapeVersionTable#preserve}, just before they are
+ * edited or removed. Reads are therefore not affected by later edits. Reading a Tetrahedron that has not been copied
+ * yet takes the repository read lock for as long as the copy takes.
+ */
+public class RepositorySnapshot {
+    private static final int NOT_CONTAINED = -1;
+    private final long version;
+    private final long[] numericIds;
+    private final LongIntHashMap positions;
+    private final Map<String, Long> namedIds;
+    private final TetrahedronStore store;
+    private final Lock storeLock;
+    private final Map<Long, Tetrahedron> copies = new ConcurrentHashMap<>();
+
+    RepositorySnapshot(long version, long[] numericIds, Map<String, Long> namedIds, TetrahedronStore store,
+                       Lock storeLock) {
+        this.version = version;
+        this.numericIds = numericIds;
+        this.namedIds = Map.copyOf(namedIds);
+        this.store = store;
+        this.storeLock = storeLock;
+        this.positions = new LongIntHashMap(numericIds.length, NOT_CONTAINED);
+        for (int i = 0; i < numericIds.length; i++) {
+            positions.put(numericIds[i], i);
+        }
+    }
+
+    /**
+     * @return the version of the repository this snapshot shows
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the number of Tetrahedrons in the snapshot
+     */
+    public int size() {
+        return numericIds.length;
+    }
+
+    /**
+     * @return the read-only Tetrahedrons in repository order
+     */
+    public List<Tetrahedron> getAllTetrahedrons() {
+        List<Tetrahedron> tetrahedrons = new ArrayList<>(numericIds.length);
+        storeLock.lock();
+        try {
+            for (long numericId : numericIds) {
+                tetrahedrons.add(copyOf(numericId));
+            }
+        } finally {
+            storeLock.unlock();
+        }
+        return tetrahedrons;
+    }
+
+    /**
+     * Finds a Tetrahedron by its generated or explicit ID in constant time.
+     *
+     * @param id the ID to look for
+     * @return the read-only Tetrahedron, or empty if the snapshot has none with this ID
+     */
+    public Optional<Tetrahedron> findById(String id) {
+        long generatedId = Tetrahedron.parseGeneratedId(id);
+        if (generatedId != Tetrahedron.NOT_GENERATED && positions.containsKey(generatedId)) {
+            Tetrahedron tetrahedron = get(generatedId);
+            if (tetrahedron.isIdGenerated()) {
+                return Optional.of(tetrahedron);
+            }
+        }
+        Long namedId = namedIds.get(id);
+        return namedId == null ? Optional.empty() : Optional.of(get(namedId));
+    }
+
+    /**
+     * Gets the parameters of a Tetrahedron at this version.
+     *
+     * @param numericId the numeric ID of the Tetrahedron
+     * @return the parameters, or null if the Tetrahedron is not in the snapshot
+     */
+    public Warehouse.ShapeParameters getParameters(long numericId) {
+        if (!positions.containsKey(numericId)) {
+            return null;
+        }
+        Tetrahedron tetrahedron = get(numericId);
+        return CalculatorFactory.getCalculator(tetrahedron).computeAll(tetrahedron);
+    }
+
+    /**
+     * Queries the snapshot for Tetrahedrons that satisfy the given specification.
+     *
+     * @param specification the specification that Tetrahedrons must satisfy
+     * @return the matching read-only Tetrahedrons in repository order
+     */
+    public List<Tetrahedron> query(TetrahedronSpecification specification) {
+        return getAllTetrahedrons().stream()
+                .filter(specification::isSatisfiedBy)
+                .toList();
+    }
+
+    /**
+     * Sorts a copy of the snapshot without reordering the repository.
+     *
+     * @param comparator the comparator to sort by
+     * @return the read-only Tetrahedrons in sorted order
+     */
+    public List<Tetrahedron> sortedBy(Comparator<Tetrahedron> comparator) {
+        List<Tetrahedron> sorted = getAllTetrahedrons();
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    boolean needsCopy(long numericId) {
+        return positions.containsKey(numericId) && !copies.containsKey(numericId);
+    }
+
+    void keep(Tetrahedron copy) {
+        copies.putIfAbsent(copy.getNumericId(), copy);
+    }
+
+    /**
+     * @return the number of Tetrahedrons copied so far
+     */
+    int getCopyCount() {
+        return copies.size();
+    }
+
+    private Tetrahedron get(long numericId) {
+        Tetrahedron copy = copies.get(numericId);
+        if (copy != null) {
+            return copy;
+        }
+        storeLock.lock();
+        try {
+            return copyOf(numericId);
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    /**
+     * Copies a Tetrahedron from the store unless an edit or an earlier read has already copied it.
+     * Called under the store lock, so the Tetrahedron cannot be removed in between.
+     */
+    private Tetrahedron copyOf(long numericId) {
+        Tetrahedron copy = copies.get(numericId);
+        if (copy != null) {
+            return copy;
+        }
+        Tetrahedron fresh = new SnapshotTetrahedron(store.findById(numericId));
+        copy = copies.putIfAbsent(numericId, fresh);
+        return copy != null ? copy : fresh;
+    }
+}
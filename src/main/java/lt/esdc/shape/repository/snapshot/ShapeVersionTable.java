@@ -0,0 +1,84 @@
+package lt.esdc.shape.repository.snapshot;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.store.TetrahedronStore;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Version counter of the repository and copy-on-write bookkeeping for its open {@link RepositorySnapshot}s.
+ * Nothing is copied while no snapshot is open. An open snapshot reads Tetrahedrons from the store and copies each one
+ * the first time it reads it; an edit or removal that comes first copies the old state into every open snapshot that
+ * has not read the Tetrahedron yet. A snapshot stays open until the garbage collector reclaims it.
+ */
+public class ShapeVersionTable {
+    private final List<WeakReference<RepositorySnapshot>> openSnapshots = new CopyOnWriteArrayList<>();
+    private final AtomicLong currentVersion = new AtomicLong();
+
+    /**
+     * Starts a new version, after a Tetrahedron was added, edited or removed or after the repository order changed.
+     */
+    public void advance() {
+        currentVersion.incrementAndGet();
+    }
+
+    /**
+     * @return the latest version
+     */
+    public long getCurrentVersion() {
+        return currentVersion.get();
+    }
+
+    /**
+     * Copies the current state of a Tetrahedron that is about to be edited or removed into every open snapshot
+     * that contains it and has not copied it yet. Does nothing while no snapshot is open.
+     *
+     * @param tetrahedron the stored Tetrahedron, still in its old state
+     */
+    public void preserve(Tetrahedron tetrahedron) {
+        if (openSnapshots.isEmpty()) {
+            return;
+        }
+        Tetrahedron copy = null;
+        for (WeakReference<RepositorySnapshot> reference : openSnapshots) {
+            RepositorySnapshot snapshot = reference.get();
+            if (snapshot == null) {
+                openSnapshots.remove(reference);
+            } else if (snapshot.needsCopy(tetrahedron.getNumericId())) {
+                if (copy == null) {
+                    copy = new SnapshotTetrahedron(tetrahedron);
+                }
+                snapshot.keep(copy);
+            }
+        }
+    }
+
+    /**
+     * Opens a snapshot of the current version.
+     * The caller must hold {@code storeLock} so that no Tetrahedron is added or removed while the snapshot opens.
+     *
+     * @param numericIds the numeric IDs of the stored Tetrahedrons in repository order
+     * @param namedIds   the numeric ID of the first stored Tetrahedron with each explicit ID
+     * @param store      the store to read Tetrahedrons that have not been copied yet from
+     * @param storeLock  the lock that keeps Tetrahedrons from being added or removed while they are read
+     * @return the snapshot
+     */
+    public RepositorySnapshot open(long[] numericIds, Map<String, Long> namedIds, TetrahedronStore store, Lock storeLock) {
+        RepositorySnapshot snapshot = new RepositorySnapshot(currentVersion.get(), numericIds, namedIds, store, storeLock);
+        openSnapshots.add(new WeakReference<>(snapshot));
+        return snapshot;
+    }
+
+    /**
+     * @return the number of snapshots not yet reclaimed by the garbage collector
+     */
+    int getOpenSnapshotCount() {
+        openSnapshots.removeIf(reference -> reference.get() == null);
+        return openSnapshots.size();
+    }
+}
@@ -0,0 +1,47 @@
+package lt.esdc.shape.repository.snapshot;
+
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+
+/**
+ * Read-only copy of a Tetrahedron as it was when a version was committed.
+ */
+class SnapshotTetrahedron extends Tetrahedron {
+
+    SnapshotTetrahedron(Tetrahedron source) {
+        super(source.getNumericId(), source.isIdGenerated() ? null : source.getId(),
+                source.getPointA(), source.getPointB(), source.getPointC(), source.getPointD());
+    }
+
+    /**
+     * The Warehouse follows the live shape, so a snapshot copy computes its own parameters.
+     */
+    @Override
+    public boolean isTrackedByWarehouse() {
+        return false;
+    }
+
+    @Override
+    public void setPointA(Point pointA) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setPointB(Point pointB) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setPointC(Point pointC) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setPointD(Point pointD) {
+        throw readOnly();
+    }
+
+    private UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Tetrahedron " + getId() + " belongs to a snapshot and cannot be edited");
+    }
+}
@@ -0,0 +1,128 @@
+package lt.esdc.shape.repository.sort;
+
+import lt.esdc.shape.entity.Tetrahedron;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Max-heap holding the first {@code capacity} elements of a list in ascending order, identified by their
+ * positions in the list. Elements are ordered by a primitive key, or by a comparator when one is given,
+ * and ties go to the earlier position so that the result matches the prefix of a stable sort.
+ * The root is the worst element kept, so a candidate that does not beat it is rejected with one comparison.
+ */
+final class BoundedHeap {
+    private final List<Tetrahedron> source;
+    private final Comparator<Tetrahedron> comparator;
+    private final long[] keys;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * @param source     the list the positions refer to
+     * @param comparator the order, or null to order by the offered keys
+     * @param capacity   the number of elements to keep
+     */
+    BoundedHeap(List<Tetrahedron> source, Comparator<Tetrahedron> comparator, int capacity) {
+        this.source = source;
+        this.comparator = comparator;
+        this.keys = new long[capacity];
+        this.positions = new int[capacity];
+    }
+
+    /**
+     * Keeps the element if it is among the first {@code capacity} offered so far.
+     *
+     * @param key      the sort key, ignored when ordering by comparator
+     * @param position the position of the element in the source list
+     */
+    void offer(long key, int position) {
+        if (size < positions.length) {
+            keys[size] = key;
+            positions[size] = position;
+            siftUp(size++);
+        } else if (size > 0 && compare(key, position, keys[0], positions[0]) < 0) {
+            keys[0] = key;
+            positions[0] = position;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Offers every element kept by another heap over the same list.
+     */
+    void addAll(BoundedHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.keys[i], other.positions[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Empties the heap into an array of positions in ascending element order.
+     */
+    int[] drainSorted() {
+        int[] sorted = new int[size];
+        while (size > 0) {
+            sorted[size - 1] = positions[0];
+            size--;
+            keys[0] = keys[size];
+            positions[0] = positions[size];
+            siftDown(0);
+        }
+        return sorted;
+    }
+
+    private int compare(long leftKey, int leftPosition, long rightKey, int rightPosition) {
+        int result = comparator != null
+                ? comparator.compare(source.get(leftPosition), source.get(rightPosition))
+                : Long.compare(leftKey, rightKey);
+        return result != 0 ? result : Integer.compare(leftPosition, rightPosition);
+    }
+
+    private int compareSlots(int left, int right) {
+        return compare(keys[left], positions[left], keys[right], positions[right]);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (compareSlots(slot, parent) <= 0) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int largest = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < size && compareSlots(left, largest) > 0) {
+                largest = left;
+            }
+            if (right < size && compareSlots(right, largest) > 0) {
+                largest = right;
+            }
+            if (largest == slot) {
+                return;
+            }
+            swap(slot, largest);
+            slot = largest;
+        }
+    }
+
+    private void swap(int left, int right) {
+        long key = keys[left];
+        keys[left] = keys[right];
+        keys[right] = key;
+        int position = positions[left];
+        positions[left] = positions[right];
+        positions[right] = position;
+    }
+}
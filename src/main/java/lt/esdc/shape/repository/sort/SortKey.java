@@ -0,0 +1,78 @@
+package lt.esdc.shape.repository.sort;
+
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Tetrahedron;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * A sort key extracted once per Tetrahedron as a primitive long whose signed order is the sort order.
+ * Metric keys encode the double so that long order matches {@link Double#compare}, which keeps NaN last.
+ * Keys are combined with {@link TetrahedronKeySorter} to sort by several keys, the first one deciding.
+ */
+public final class SortKey {
+    private final String name;
+    private final ToLongFunction<Tetrahedron> extractor;
+    private final boolean descending;
+
+    private SortKey(String name, ToLongFunction<Tetrahedron> extractor, boolean descending) {
+        this.name = name;
+        this.extractor = extractor;
+        this.descending = descending;
+    }
+
+    /**
+     * Orders by a metric, read from the Warehouse when it is cached there and computed otherwise.
+     *
+     * @param metric the metric to sort by
+     * @return the ascending key
+     */
+    public static SortKey byMetric(ShapeMetric metric) {
+        TetrahedronCalculatorImpl calculator = new TetrahedronCalculatorImpl();
+        return new SortKey(metric.name(), tetrahedron -> encode(metric.lookup(calculator, tetrahedron)), false);
+    }
+
+    /**
+     * Orders by numeric ID, which is unique and so makes a cheap final tie-breaker. Explicitly named Tetrahedrons
+     * have a hidden numeric ID as well, so this is not an order by name; use
+     * {@link lt.esdc.shape.comparator.TetrahedronByIdComparator} for that.
+     *
+     * @return the ascending key
+     */
+    public static SortKey byNumericId() {
+        return new SortKey("ID", Tetrahedron::getNumericId, false);
+    }
+
+    /**
+     * @return the same key in the opposite order
+     */
+    public SortKey reversed() {
+        return new SortKey(name, extractor, !descending);
+    }
+
+    /**
+     * Extracts the key of one Tetrahedron.
+     *
+     * @param tetrahedron the Tetrahedron
+     * @return a value whose signed order is the sort order
+     */
+    public long extract(Tetrahedron tetrahedron) {
+        long key = extractor.applyAsLong(tetrahedron);
+        return descending ? ~key : key;
+    }
+
+    /**
+     * Maps a double to a long with the same order as {@link Double#compare}: negative values have all bits
+     * but the sign flipped so that larger magnitudes sort first.
+     */
+    static long encode(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    @Override
+    public String toString() {
+        return name + (descending ? " descending" : " ascending");
+    }
+}
@@ -0,0 +1,143 @@
+package lt.esdc.shape.repository.sort;
+
+import lt.esdc.shape.entity.Tetrahedron;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Sorts Tetrahedrons by keys extracted once per Tetrahedron instead of by a comparator that measures
+ * both arguments on every comparison. The keys are written to one primitive column per {@link SortKey}
+ * and a permutation of indexes into those columns is merge sorted, so the sort itself touches no Tetrahedron.
+ * Lists of at least {@link #PARALLEL_THRESHOLD} elements extract their keys and sort on the common
+ * ForkJoin pool. The sort is stable.
+ */
+public final class TetrahedronKeySorter {
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private TetrahedronKeySorter() {
+    }
+
+    /**
+     * Sorts the Tetrahedrons by the given keys; later keys break ties of earlier ones.
+     *
+     * @param tetrahedrons the Tetrahedrons to sort, not modified
+     * @param keys         the keys, at least one
+     * @return a new sorted list
+     */
+    public static List<Tetrahedron> sort(List<Tetrahedron> tetrahedrons, SortKey... keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one sort key is required");
+        }
+        int size = tetrahedrons.size();
+        boolean parallel = size >= PARALLEL_THRESHOLD;
+        long[][] columns = new long[keys.length][size];
+        IntStream indexes = IntStream.range(0, size);
+        (parallel ? indexes.parallel() : indexes).forEach(i -> {
+            Tetrahedron tetrahedron = tetrahedrons.get(i);
+            for (int k = 0; k < keys.length; k++) {
+                columns[k][i] = keys[k].extract(tetrahedron);
+            }
+        });
+
+        int[] order = sortedPermutation(columns, size, parallel);
+        List<Tetrahedron> sorted = new ArrayList<>(size);
+        for (int index : order) {
+            sorted.add(tetrahedrons.get(index));
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns the indexes {@code [0, size)} ordered by the key columns.
+     */
+    static int[] sortedPermutation(long[][] columns, int size, boolean parallel) {
+        int[] order = IntStream.range(0, size).toArray();
+        int[] buffer = order.clone();
+        MergeSortTask task = new MergeSortTask(columns, buffer, order, 0, size);
+        if (parallel) {
+            task.invoke();
+        } else {
+            task.compute();
+        }
+        return order;
+    }
+
+    private static int compare(long[][] columns, int left, int right) {
+        for (long[] column : columns) {
+            int result = Long.compare(column[left], column[right]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sorts {@code target[from, to)}, using {@code source} as scratch space; both ranges start out equal.
+     * Halves longer than {@link #PARALLEL_THRESHOLD} are sorted in parallel when run in a pool.
+     */
+    private static final class MergeSortTask extends RecursiveAction {
+        private final long[][] columns;
+        private final int[] source;
+        private final int[] target;
+        private final int from;
+        private final int to;
+
+        private MergeSortTask(long[][] columns, int[] source, int[] target, int from, int to) {
+            this.columns = columns;
+            this.source = source;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= INSERTION_SORT_THRESHOLD) {
+                insertionSort();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            MergeSortTask left = new MergeSortTask(columns, target, source, from, middle);
+            MergeSortTask right = new MergeSortTask(columns, target, source, middle, to);
+            if (to - from > PARALLEL_THRESHOLD && inForkJoinPool()) {
+                invokeAll(left, right);
+            } else {
+                left.compute();
+                right.compute();
+            }
+            merge(middle);
+        }
+
+        private void insertionSort() {
+            for (int i = from + 1; i < to; i++) {
+                int index = target[i];
+                int j = i - 1;
+                while (j >= from && compare(columns, target[j], index) > 0) {
+                    target[j + 1] = target[j];
+                    j--;
+                }
+                target[j + 1] = index;
+            }
+        }
+
+        /**
+         * Merges the sorted halves of {@code source} into {@code target}, taking the left element on ties.
+         */
+        private void merge(int middle) {
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || left < middle && compare(columns, source[left], source[right]) <= 0) {
+                    target[i] = source[left++];
+                } else {
+                    target[i] = source[right++];
+                }
+            }
+        }
+    }
+}
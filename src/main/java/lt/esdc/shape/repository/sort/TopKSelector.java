@@ -0,0 +1,109 @@
+package lt.esdc.shape.repository.sort;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Selects the first K Tetrahedrons of a list in a given order in O(n log K) time and O(K) space,
+ * using a {@link BoundedHeap} instead of sorting the whole list. The list itself is not reordered.
+ * The parallel variant builds one heap per range on the common ForkJoin pool and merges them.
+ * Among equal elements the earlier ones in the list are selected first.
+ */
+public final class TopKSelector {
+    private static final int MIN_RANGE_LENGTH = TetrahedronKeySorter.PARALLEL_THRESHOLD / 4;
+
+    private TopKSelector() {
+    }
+
+    /**
+     * Selects the Tetrahedrons with the smallest keys.
+     *
+     * @param tetrahedrons the candidates
+     * @param k            the number of Tetrahedrons to select
+     * @param key          the ascending order; reverse it to select the largest
+     * @param filter       the specification candidates must satisfy, or null to accept all
+     * @param parallel     whether to split the work over the common ForkJoin pool
+     * @return at most k Tetrahedrons in ascending key order
+     */
+    public static List<Tetrahedron> select(List<Tetrahedron> tetrahedrons, int k, SortKey key,
+                                           TetrahedronSpecification filter, boolean parallel) {
+        return select(tetrahedrons, k, key, null, filter, parallel);
+    }
+
+    /**
+     * Selects the Tetrahedrons that come first in the comparator's order.
+     *
+     * @param tetrahedrons the candidates
+     * @param k            the number of Tetrahedrons to select
+     * @param comparator   the ascending order; reverse it to select the largest
+     * @param filter       the specification candidates must satisfy, or null to accept all
+     * @param parallel     whether to split the work over the common ForkJoin pool
+     * @return at most k Tetrahedrons in ascending order
+     */
+    public static List<Tetrahedron> select(List<Tetrahedron> tetrahedrons, int k, Comparator<Tetrahedron> comparator,
+                                           TetrahedronSpecification filter, boolean parallel) {
+        return select(tetrahedrons, k, null, comparator, filter, parallel);
+    }
+
+    private static List<Tetrahedron> select(List<Tetrahedron> tetrahedrons, int k, SortKey key,
+                                            Comparator<Tetrahedron> comparator, TetrahedronSpecification filter,
+                                            boolean parallel) {
+        if (k < 0) {
+            throw new IllegalArgumentException("K must not be negative: " + k);
+        }
+        SelectTask task = new SelectTask(tetrahedrons, Math.min(k, tetrahedrons.size()), key, comparator, filter,
+                0, tetrahedrons.size());
+        BoundedHeap heap = parallel ? task.invoke() : task.compute();
+        List<Tetrahedron> selected = new ArrayList<>(heap.size());
+        for (int position : heap.drainSorted()) {
+            selected.add(tetrahedrons.get(position));
+        }
+        return selected;
+    }
+
+    private static final class SelectTask extends RecursiveTask<BoundedHeap> {
+        private final List<Tetrahedron> tetrahedrons;
+        private final int k;
+        private final SortKey key;
+        private final Comparator<Tetrahedron> comparator;
+        private final TetrahedronSpecification filter;
+        private final int from;
+        private final int to;
+
+        private SelectTask(List<Tetrahedron> tetrahedrons, int k, SortKey key, Comparator<Tetrahedron> comparator,
+                           TetrahedronSpecification filter, int from, int to) {
+            this.tetrahedrons = tetrahedrons;
+            this.k = k;
+            this.key = key;
+            this.comparator = comparator;
+            this.filter = filter;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BoundedHeap compute() {
+            if (to - from > MIN_RANGE_LENGTH * 2 && inForkJoinPool()) {
+                int middle = (from + to) >>> 1;
+                SelectTask right = new SelectTask(tetrahedrons, k, key, comparator, filter, middle, to);
+                right.fork();
+                BoundedHeap heap = new SelectTask(tetrahedrons, k, key, comparator, filter, from, middle).compute();
+                heap.addAll(right.join());
+                return heap;
+            }
+            BoundedHeap heap = new BoundedHeap(tetrahedrons, comparator, k);
+            for (int i = from; i < to; i++) {
+                Tetrahedron tetrahedron = tetrahedrons.get(i);
+                if (filter == null || filter.isSatisfiedBy(tetrahedron)) {
+                    heap.offer(key != null ? key.extract(tetrahedron) : 0, i);
+                }
+            }
+            return heap;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package lt.esdc.shape.specification;
+
+import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.specification.column.ColumnPredicate;
+
+/**
+ * Specification satisfied by Tetrahedrons whose metric lies in a closed range.
+ * Exposing the range lets the repository answer it from an index instead of testing every Tetrahedron.
+ */
+public interface MetricRangeSpecification extends TetrahedronSpecification {
+
+    /**
+     * @return the metric the range applies to
+     */
+    ShapeMetric getMetric();
+
+    /**
+     * @return the inclusive lower bound
+     */
+    double getMin();
+
+    /**
+     * @return the inclusive upper bound
+     */
+    double getMax();
+
+    /**
+     * @return the calculator used to compute the metric
+     */
+    ShapeCalculator getShapeCalculator();
+
+    /**
+     * Metrics of the default calculator are read from the Warehouse; other calculators compute them.
+     */
+    @Override
+    default double getCost() {
+        return getShapeCalculator() instanceof TetrahedronCalculatorImpl ? COST_CACHED_METRIC : COST_COMPUTED_METRIC;
+    }
+
+    /**
+     * Metric columns hold values of the default calculator, so ranges using another calculator do not compile.
+     */
+    @Override
+    default ColumnPredicate compile() {
+        return getShapeCalculator() instanceof TetrahedronCalculatorImpl
+                ? ColumnPredicate.metricRange(getMetric(), getMin(), getMax())
+                : null;
+    }
+}
@@ -1,12 +1,34 @@
 package lt.esdc.shape.specification;
 
 import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.column.ColumnPredicate;
+import lt.esdc.shape.specification.impl.AndTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.NotTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.OrTetrahedronSpecification;
+
+import java.util.List;
 
 /**
  * Interface for defining specifications for Tetrahedron objects.
  * A specification is a condition or rule that a Tetrahedron must satisfy.
+ * Specifications can be combined with {@link #and}, {@link #or} and {@link #not}, and report an estimated
+ * cost so that the repository's query planner can run cheap checks before expensive ones.
+ * Specifications that only depend on stored metrics or IDs can also {@link #compile} into a column predicate.
  */
 public interface TetrahedronSpecification {
+    /**
+     * Estimated cost of checking an ID.
+     */
+    double COST_ID = 1;
+    /**
+     * Estimated cost of reading a metric cached in the Warehouse.
+     */
+    double COST_CACHED_METRIC = 4;
+    /**
+     * Estimated cost of computing a metric from the points, also assumed for unknown specifications.
+     */
+    double COST_COMPUTED_METRIC = 40;
+
     /**
      * Checks if the given Tetrahedron satisfies the specification.
      *
@@ -14,4 +36,56 @@ public interface TetrahedronSpecification {
      * @return true if the Tetrahedron satisfies the specification, false otherwise
      */
     boolean isSatisfiedBy(Tetrahedron tetrahedron);
+
+    /**
+     * Estimates the relative cost of one {@link #isSatisfiedBy} call.
+     *
+     * @return the estimated cost, {@link #COST_COMPUTED_METRIC} unless overridden
+     */
+    default double getCost() {
+        return COST_COMPUTED_METRIC;
+    }
+
+    /**
+     * Compiles this specification into a predicate over primitive columns with the same meaning.
+     *
+     * @return the compiled predicate, or null if this specification cannot be evaluated on columns
+     */
+    default ColumnPredicate compile() {
+        return null;
+    }
+
+    /**
+     * Opts this specification in to the repository's query result cache. A cacheable specification must implement
+     * equals and hashCode by value and must depend on nothing but the Tetrahedron it checks, so that equal
+     * specifications always select the same Tetrahedrons and a cached result can be found again.
+     *
+     * @return whether results of queries with this specification may be cached, false unless overridden
+     */
+    default boolean isCacheable() {
+        return false;
+    }
+
+    /**
+     * @param other the specification that must also be satisfied
+     * @return a specification satisfied when both are
+     */
+    default TetrahedronSpecification and(TetrahedronSpecification other) {
+        return new AndTetrahedronSpecification(List.of(this, other));
+    }
+
+    /**
+     * @param other the alternative specification
+     * @return a specification satisfied when either is
+     */
+    default TetrahedronSpecification or(TetrahedronSpecification other) {
+        return new OrTetrahedronSpecification(List.of(this, other));
+    }
+
+    /**
+     * @return a specification satisfied when this one is not
+     */
+    default TetrahedronSpecification not() {
+        return new NotTetrahedronSpecification(this);
+    }
 }
@@ -0,0 +1,86 @@
+package lt.esdc.shape.specification.column;
+
+import lt.esdc.shape.action.ShapeMetric;
+
+/**
+ * A specification compiled to run over primitive columns instead of Tetrahedron objects.
+ * Evaluation writes a selection bitmap in which bit {@code i & 63} of word {@code i >>> 6} is set
+ * when row {@code i} matches. Leaf predicates fill each word in a branch-free loop over one column,
+ * and compound predicates combine the bitmaps of their operands word by word.
+ */
+@FunctionalInterface
+public interface ColumnPredicate {
+
+    /**
+     * Evaluates the predicate for rows {@code [0, rows)}.
+     *
+     * @param source    the columns to read
+     * @param rows      the number of rows to evaluate
+     * @param selection the bitmap to overwrite, at least {@link #words(int)} long; bits past the last row are cleared
+     */
+    void evaluate(ColumnSource source, int rows, long[] selection);
+
+    /**
+     * @param rows the number of rows
+     * @return the number of bitmap words covering the rows
+     */
+    static int words(int rows) {
+        return (rows + Long.SIZE - 1) >>> 6;
+    }
+
+    /**
+     * @return a predicate selecting rows whose metric lies in {@code [min, max]}
+     */
+    static ColumnPredicate metricRange(ShapeMetric metric, double min, double max) {
+        return new MetricRangePredicate(metric, min, max);
+    }
+
+    /**
+     * @return a predicate selecting rows whose numeric ID is one of the given IDs
+     */
+    static ColumnPredicate idIn(long... numericIds) {
+        return new IdSetPredicate(numericIds, false);
+    }
+
+    /**
+     * @return a predicate selecting rows whose ID is generated and whose numeric ID is one of the given IDs
+     */
+    static ColumnPredicate generatedIdIn(long... numericIds) {
+        return new IdSetPredicate(numericIds, true);
+    }
+
+    default ColumnPredicate and(ColumnPredicate other) {
+        return (source, rows, selection) -> {
+            evaluate(source, rows, selection);
+            long[] operand = new long[words(rows)];
+            other.evaluate(source, rows, operand);
+            for (int i = 0; i < operand.length; i++) {
+                selection[i] &= operand[i];
+            }
+        };
+    }
+
+    default ColumnPredicate or(ColumnPredicate other) {
+        return (source, rows, selection) -> {
+            evaluate(source, rows, selection);
+            long[] operand = new long[words(rows)];
+            other.evaluate(source, rows, operand);
+            for (int i = 0; i < operand.length; i++) {
+                selection[i] |= operand[i];
+            }
+        };
+    }
+
+    default ColumnPredicate not() {
+        return (source, rows, selection) -> {
+            evaluate(source, rows, selection);
+            int words = words(rows);
+            for (int i = 0; i < words; i++) {
+                selection[i] = ~selection[i];
+            }
+            if ((rows & 63) != 0) {
+                selection[words - 1] &= (1L << rows) - 1;
+            }
+        };
+    }
+}
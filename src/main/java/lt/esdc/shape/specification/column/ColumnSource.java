@@ -0,0 +1,27 @@
+package lt.esdc.shape.specification.column;
+
+import lt.esdc.shape.action.ShapeMetric;
+
+/**
+ * Primitive columns a {@link ColumnPredicate} is evaluated against. Row {@code i} of every column
+ * describes the same Tetrahedron; rows that hold no Tetrahedron may contain anything.
+ */
+public interface ColumnSource {
+
+    /**
+     * @param metric the metric
+     * @return the column of metric values computed by the default calculator
+     */
+    double[] getMetricColumn(ShapeMetric metric);
+
+    /**
+     * @return the column of numeric IDs
+     */
+    long[] getIdColumn();
+
+    /**
+     * @param row a row holding a Tetrahedron
+     * @return whether the Tetrahedron has an explicit ID, whose numeric ID is then hidden from ID lookups
+     */
+    boolean hasExplicitId(int row);
+}
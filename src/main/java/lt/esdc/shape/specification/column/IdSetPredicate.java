@@ -0,0 +1,51 @@
+package lt.esdc.shape.specification.column;
+
+import java.util.Arrays;
+
+/**
+ * Selects rows whose numeric ID belongs to a set. Sets of one ID compare directly;
+ * larger sets are kept sorted and probed by binary search. A predicate over generated IDs then drops the few
+ * selected rows whose Tetrahedron has an explicit ID.
+ */
+class IdSetPredicate implements ColumnPredicate {
+    private final long[] sortedIds;
+    private final boolean generatedOnly;
+
+    IdSetPredicate(long[] numericIds, boolean generatedOnly) {
+        this.sortedIds = Arrays.stream(numericIds).sorted().distinct().toArray();
+        this.generatedOnly = generatedOnly;
+    }
+
+    @Override
+    public void evaluate(ColumnSource source, int rows, long[] selection) {
+        selectIds(source, rows, selection);
+        if (generatedOnly) {
+            for (int word = 0; word < ColumnPredicate.words(rows); word++) {
+                for (long bits = selection[word]; bits != 0; bits &= bits - 1) {
+                    int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    if (source.hasExplicitId(row)) {
+                        selection[word] &= ~(1L << row);
+                    }
+                }
+            }
+        }
+    }
+
+    private void selectIds(ColumnSource source, int rows, long[] selection) {
+        long[] ids = source.getIdColumn();
+        Arrays.fill(selection, 0, ColumnPredicate.words(rows), 0L);
+        if (sortedIds.length == 0) {
+            return;
+        }
+        if (sortedIds.length == 1) {
+            long id = sortedIds[0];
+            for (int row = 0; row < rows; row++) {
+                selection[row >>> 6] |= (ids[row] == id ? 1L : 0L) << row;
+            }
+            return;
+        }
+        for (int row = 0; row < rows; row++) {
+            selection[row >>> 6] |= (Arrays.binarySearch(sortedIds, ids[row]) >= 0 ? 1L : 0L) << row;
+        }
+    }
+}
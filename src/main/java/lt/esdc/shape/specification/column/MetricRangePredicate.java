@@ -0,0 +1,39 @@
+package lt.esdc.shape.specification.column;
+
+import lt.esdc.shape.action.ShapeMetric;
+
+/**
+ * Selects rows whose metric lies in a closed range. NaN values never match.
+ */
+class MetricRangePredicate implements ColumnPredicate {
+    private final ShapeMetric metric;
+    private final double min;
+    private final double max;
+
+    MetricRangePredicate(ShapeMetric metric, double min, double max) {
+        this.metric = metric;
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public void evaluate(ColumnSource source, int rows, long[] selection) {
+        double[] column = source.getMetricColumn(metric);
+        int fullWords = rows >>> 6;
+        for (int word = 0; word < fullWords; word++) {
+            selection[word] = select(column, word << 6, Long.SIZE);
+        }
+        if ((rows & 63) != 0) {
+            selection[fullWords] = select(column, fullWords << 6, rows & 63);
+        }
+    }
+
+    private long select(double[] column, int base, int count) {
+        long bits = 0;
+        for (int bit = 0; bit < count; bit++) {
+            double value = column[base + bit];
+            bits |= (value >= min & value <= max ? 1L : 0L) << bit;
+        }
+        return bits;
+    }
+}
@@ -1,14 +1,16 @@
 package lt.esdc.shape.specification.impl;
 
 import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
 import lt.esdc.shape.entity.Tetrahedron;
-import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.MetricRangeSpecification;
 
 /**
  * Specification for filtering Tetrahedron objects based on their surface area.
  * The Tetrahedron must have an area within the specified range.
  */
-public class AreaRangeTetrahedronSpecification implements TetrahedronSpecification {
+public class AreaRangeTetrahedronSpecification implements MetricRangeSpecification {
     private final double minArea;
     private final double maxArea;
     private final ShapeCalculator shapeCalculator ;
@@ -26,16 +28,75 @@ public class AreaRangeTetrahedronSpecification implements TetrahedronSpecificati
         this.maxArea = maxArea;
     }
 
+    @Override
+    public ShapeMetric getMetric() {
+        return ShapeMetric.AREA;
+    }
+
+    @Override
+    public double getMin() {
+        return minArea;
+    }
+
+    @Override
+    public double getMax() {
+        return maxArea;
+    }
+
+    @Override
+    public ShapeCalculator getShapeCalculator() {
+        return shapeCalculator;
+    }
+
     /**
      * Checks if the given Tetrahedron's area is within the specified range.
+     * The area cached in the Warehouse is used when available.
      *
      * @param tetrahedron the Tetrahedron to check
      * @return true if the Tetrahedron's area is within the range, false otherwise
      */
     @Override
     public boolean isSatisfiedBy(Tetrahedron tetrahedron)   {
-        double area = shapeCalculator.computeArea(tetrahedron);
+        double area = ShapeMetric.AREA.lookup(shapeCalculator, tetrahedron);
         return area >= minArea && area <= maxArea;
 
     }
+
+    /**
+     * Only ranges of the default calculator are cached, since another calculator may hold state that equality
+     * does not compare.
+     */
+    @Override
+    public boolean isCacheable() {
+        return shapeCalculator instanceof TetrahedronCalculatorImpl;
+    }
+
+    /**
+     * Range specifications are equal when their bounds are and their calculators are of the same class,
+     * which lets them serve as query cache keys.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AreaRangeTetrahedronSpecification)) return false;
+
+        AreaRangeTetrahedronSpecification that = (AreaRangeTetrahedronSpecification) o;
+
+        if (Double.compare(minArea, that.minArea) != 0) return false;
+        if (Double.compare(maxArea, that.maxArea) != 0) return false;
+        return shapeCalculator.getClass() == that.shapeCalculator.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(minArea);
+        result = 31 * result + Double.hashCode(maxArea);
+        result = 31 * result + shapeCalculator.getClass().hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "area in [" + minArea + ", " + maxArea + "]";
+    }
 }
@@ -0,0 +1,75 @@
+package lt.esdc.shape.specification.impl;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.column.ColumnPredicate;
+
+import java.util.Arrays;
+
+/**
+ * Specification for filtering Tetrahedron objects whose numeric identifier belongs to a set.
+ */
+public class IdSetTetrahedronSpecification implements TetrahedronSpecification {
+    private final long[] numericIds;
+
+    /**
+     * Constructs an IdSetTetrahedronSpecification matching any of the given numeric IDs.
+     *
+     * @param numericIds the numeric identifiers to match
+     */
+    public IdSetTetrahedronSpecification(long... numericIds) {
+        this.numericIds = Arrays.stream(numericIds).sorted().distinct().toArray();
+    }
+
+    /**
+     * @return the number of distinct IDs in the set
+     */
+    public int size() {
+        return numericIds.length;
+    }
+
+    /**
+     * @return the distinct IDs of the set in ascending order
+     */
+    public long[] getNumericIds() {
+        return numericIds.clone();
+    }
+
+    @Override
+    public boolean isSatisfiedBy(Tetrahedron tetrahedron) {
+        return Arrays.binarySearch(numericIds, tetrahedron.getNumericId()) >= 0;
+    }
+
+    @Override
+    public double getCost() {
+        return COST_ID;
+    }
+
+    @Override
+    public ColumnPredicate compile() {
+        return ColumnPredicate.idIn(numericIds);
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IdSetTetrahedronSpecification)) return false;
+
+        return Arrays.equals(numericIds, ((IdSetTetrahedronSpecification) o).numericIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(numericIds);
+    }
+
+    @Override
+    public String toString() {
+        return "numeric id in " + Arrays.toString(numericIds);
+    }
+}
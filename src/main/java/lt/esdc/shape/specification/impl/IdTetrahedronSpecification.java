@@ -2,20 +2,34 @@ package lt.esdc.shape.specification.impl;
 
 import lt.esdc.shape.entity.Tetrahedron;
 import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.column.ColumnPredicate;
+
+import java.util.Objects;
 
 /**
  * Specification for filtering Tetrahedron objects based on their unique identifier.
  */
 public class IdTetrahedronSpecification implements TetrahedronSpecification {
     private final String id;
+    private final long numericId;
 
     /**
      * Constructs an IdTetrahedronSpecification with the specified ID.
      *
-     * @param id the unique identifier to match
+     * @param id the unique identifier to match; a null ID matches nothing
      */
     public IdTetrahedronSpecification(String id) {
         this.id = id;
+        this.numericId = Tetrahedron.parseGeneratedId(id);
+    }
+
+    /**
+     * Gets the identifier this specification matches.
+     *
+     * @return the identifier
+     */
+    public String getId() {
+        return id;
     }
 
     /**
@@ -26,6 +40,46 @@ public class IdTetrahedronSpecification implements TetrahedronSpecification {
      */
     @Override
     public boolean isSatisfiedBy(Tetrahedron tetrahedron) {
+        if (tetrahedron.isIdGenerated()) {
+            return numericId != Tetrahedron.NOT_GENERATED && tetrahedron.getNumericId() == numericId;
+        }
         return tetrahedron.getId().equals(id);
     }
+
+    @Override
+    public double getCost() {
+        return COST_ID;
+    }
+
+    /**
+     * Only generated IDs compile; explicit names are not kept in columns. The compiled predicate skips
+     * Tetrahedrons with explicit IDs, whose numeric IDs can equal the one looked for.
+     */
+    @Override
+    public ColumnPredicate compile() {
+        return numericId != Tetrahedron.NOT_GENERATED ? ColumnPredicate.generatedIdIn(numericId) : null;
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IdTetrahedronSpecification)) return false;
+
+        return Objects.equals(id, ((IdTetrahedronSpecification) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "id = " + id;
+    }
 }
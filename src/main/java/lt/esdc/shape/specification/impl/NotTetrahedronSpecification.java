@@ -0,0 +1,62 @@
+package lt.esdc.shape.specification.impl;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.column.ColumnPredicate;
+
+/**
+ * Specification satisfied when its component is not.
+ */
+public class NotTetrahedronSpecification implements TetrahedronSpecification {
+    private final TetrahedronSpecification component;
+
+    /**
+     * @param component the specification to negate
+     */
+    public NotTetrahedronSpecification(TetrahedronSpecification component) {
+        this.component = component;
+    }
+
+    public TetrahedronSpecification getComponent() {
+        return component;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(Tetrahedron tetrahedron) {
+        return !component.isSatisfiedBy(tetrahedron);
+    }
+
+    @Override
+    public double getCost() {
+        return component.getCost();
+    }
+
+    @Override
+    public ColumnPredicate compile() {
+        ColumnPredicate compiled = component.compile();
+        return compiled != null ? compiled.not() : null;
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return component.isCacheable();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof NotTetrahedronSpecification)) return false;
+
+        return component.equals(((NotTetrahedronSpecification) o).component);
+    }
+
+    @Override
+    public int hashCode() {
+        return ~component.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "NOT " + component;
+    }
+}
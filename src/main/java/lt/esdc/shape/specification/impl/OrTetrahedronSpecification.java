@@ -0,0 +1,102 @@
+package lt.esdc.shape.specification.impl;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.column.ColumnPredicate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Specification satisfied when any of its components is, checked in order until one succeeds.
+ * Nested disjunctions are flattened so that the query planner can reorder every component.
+ */
+public class OrTetrahedronSpecification implements TetrahedronSpecification {
+    private final List<TetrahedronSpecification> components;
+
+    /**
+     * @param components the alternative specifications
+     */
+    public OrTetrahedronSpecification(List<TetrahedronSpecification> components) {
+        List<TetrahedronSpecification> flattened = new ArrayList<>(components.size());
+        for (TetrahedronSpecification component : components) {
+            if (component instanceof OrTetrahedronSpecification disjunction) {
+                flattened.addAll(disjunction.components);
+            } else {
+                flattened.add(component);
+            }
+        }
+        this.components = List.copyOf(flattened);
+    }
+
+    /**
+     * @return the components in evaluation order
+     */
+    public List<TetrahedronSpecification> getComponents() {
+        return components;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(Tetrahedron tetrahedron) {
+        for (TetrahedronSpecification component : components) {
+            if (component.isSatisfiedBy(tetrahedron)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the cost of checking every component, the worst case
+     */
+    @Override
+    public double getCost() {
+        return components.stream().mapToDouble(TetrahedronSpecification::getCost).sum();
+    }
+
+    /**
+     * @return the combined predicates of the components, or null unless every component compiles
+     */
+    @Override
+    public ColumnPredicate compile() {
+        ColumnPredicate combined = null;
+        for (TetrahedronSpecification component : components) {
+            ColumnPredicate compiled = component.compile();
+            if (compiled == null) {
+                return null;
+            }
+            combined = combined == null ? compiled : combined.or(compiled);
+        }
+        return combined;
+    }
+
+    /**
+     * @return whether every component is cacheable
+     */
+    @Override
+    public boolean isCacheable() {
+        return components.stream().allMatch(TetrahedronSpecification::isCacheable);
+    }
+
+    /**
+     * Equal when the components are equal in the same order.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OrTetrahedronSpecification)) return false;
+
+        return components.equals(((OrTetrahedronSpecification) o).components);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * components.hashCode() + 2;
+    }
+
+    @Override
+    public String toString() {
+        return components.stream().map(String::valueOf).collect(Collectors.joining(" OR ", "(", ")"));
+    }
+}
@@ -1,14 +1,16 @@
 package lt.esdc.shape.specification.impl;
 
 import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
 import lt.esdc.shape.entity.Tetrahedron;
-import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.MetricRangeSpecification;
 
 /**
  * Specification for filtering Tetrahedron objects based on their perimeter.
  * The Tetrahedron must have a perimeter within the specified range.
  */
-public class PerimeterRangeTetrahedronSpecification implements TetrahedronSpecification {
+public class PerimeterRangeTetrahedronSpecification implements MetricRangeSpecification {
     private final double minPerimeter;
     private final double maxPerimeter;
     private final ShapeCalculator shapeCalculator;
@@ -26,15 +28,74 @@ public class PerimeterRangeTetrahedronSpecification implements TetrahedronSpecif
         this.maxPerimeter = maxPerimeter;
     }
 
+    @Override
+    public ShapeMetric getMetric() {
+        return ShapeMetric.PERIMETER;
+    }
+
+    @Override
+    public double getMin() {
+        return minPerimeter;
+    }
+
+    @Override
+    public double getMax() {
+        return maxPerimeter;
+    }
+
+    @Override
+    public ShapeCalculator getShapeCalculator() {
+        return shapeCalculator;
+    }
+
     /**
      * Checks if the given Tetrahedron's perimeter is within the specified range.
+     * The perimeter cached in the Warehouse is used when available.
      *
      * @param tetrahedron the Tetrahedron to check
      * @return true if the Tetrahedron's perimeter is within the range, false otherwise
      */
     @Override
     public boolean isSatisfiedBy(Tetrahedron tetrahedron) {
-        double perimeter = shapeCalculator.computePerimeter(tetrahedron);
+        double perimeter = ShapeMetric.PERIMETER.lookup(shapeCalculator, tetrahedron);
         return perimeter >= minPerimeter && perimeter <= maxPerimeter;
     }
+
+    /**
+     * Only ranges of the default calculator are cached, since another calculator may hold state that equality
+     * does not compare.
+     */
+    @Override
+    public boolean isCacheable() {
+        return shapeCalculator instanceof TetrahedronCalculatorImpl;
+    }
+
+    /**
+     * Range specifications are equal when their bounds are and their calculators are of the same class,
+     * which lets them serve as query cache keys.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PerimeterRangeTetrahedronSpecification)) return false;
+
+        PerimeterRangeTetrahedronSpecification that = (PerimeterRangeTetrahedronSpecification) o;
+
+        if (Double.compare(minPerimeter, that.minPerimeter) != 0) return false;
+        if (Double.compare(maxPerimeter, that.maxPerimeter) != 0) return false;
+        return shapeCalculator.getClass() == that.shapeCalculator.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(minPerimeter);
+        result = 31 * result + Double.hashCode(maxPerimeter);
+        result = 31 * result + shapeCalculator.getClass().hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "perimeter in [" + minPerimeter + ", " + maxPerimeter + "]";
+    }
 }
@@ -1,14 +1,16 @@
 package lt.esdc.shape.specification.impl;
 
 import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
 import lt.esdc.shape.entity.Tetrahedron;
-import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.MetricRangeSpecification;
 
 /**
  * Specification for filtering Tetrahedron objects based on their volume.
  * The Tetrahedron must have a volume within the specified range.
  */
-public class VolumeRangeTetrahedronSpecification implements TetrahedronSpecification {
+public class VolumeRangeTetrahedronSpecification implements MetricRangeSpecification {
     private final double minVolume;
     private final double maxVolume;
     private final ShapeCalculator shapeCalculator;
@@ -26,16 +28,75 @@ public class VolumeRangeTetrahedronSpecification implements TetrahedronSpecifica
         this.maxVolume = maxVolume;
     }
 
+    @Override
+    public ShapeMetric getMetric() {
+        return ShapeMetric.VOLUME;
+    }
+
+    @Override
+    public double getMin() {
+        return minVolume;
+    }
+
+    @Override
+    public double getMax() {
+        return maxVolume;
+    }
+
+    @Override
+    public ShapeCalculator getShapeCalculator() {
+        return shapeCalculator;
+    }
+
     /**
      * Checks if the given Tetrahedron's volume is within the specified range.
+     * The volume cached in the Warehouse is used when available.
      *
      * @param tetrahedron the Tetrahedron to check
      * @return true if the Tetrahedron's volume is within the range, false otherwise
      */
     @Override
     public boolean isSatisfiedBy(Tetrahedron tetrahedron) {
-        double volume = shapeCalculator.computeVolume(tetrahedron);
+        double volume = ShapeMetric.VOLUME.lookup(shapeCalculator, tetrahedron);
         return volume >= minVolume && volume <= maxVolume;
 
     }
+
+    /**
+     * Only ranges of the default calculator are cached, since another calculator may hold state that equality
+     * does not compare.
+     */
+    @Override
+    public boolean isCacheable() {
+        return shapeCalculator instanceof TetrahedronCalculatorImpl;
+    }
+
+    /**
+     * Range specifications are equal when their bounds are and their calculators are of the same class,
+     * which lets them serve as query cache keys.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof VolumeRangeTetrahedronSpecification)) return false;
+
+        VolumeRangeTetrahedronSpecification that = (VolumeRangeTetrahedronSpecification) o;
+
+        if (Double.compare(minVolume, that.minVolume) != 0) return false;
+        if (Double.compare(maxVolume, that.maxVolume) != 0) return false;
+        return shapeCalculator.getClass() == that.shapeCalculator.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(minVolume);
+        result = 31 * result + Double.hashCode(maxVolume);
+        result = 31 * result + shapeCalculator.getClass().hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "volume in [" + minVolume + ", " + maxVolume + "]";
+    }
 }
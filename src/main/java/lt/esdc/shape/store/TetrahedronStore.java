@@ -0,0 +1,129 @@
+package lt.esdc.shape.store;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.ShapeObserver;
+import lt.esdc.shape.specification.column.ColumnPredicate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Storage backend behind the TetrahedronRepository.
+ * A store keeps Tetrahedrons in repository order and is responsible for notifying the registered observers
+ * whenever a stored Tetrahedron changes, whether through the object that was added or through one handed out by the store.
+ * Implementations must be safe for concurrent use; streams and lists they return are snapshots.
+ */
+public interface TetrahedronStore {
+
+    /**
+     * Registers an observer notified about changes to every stored Tetrahedron.
+     *
+     * @param observer the observer to register
+     */
+    void registerObserver(ShapeObserver observer);
+
+    /**
+     * Appends a Tetrahedron to the store.
+     *
+     * @param tetrahedron the Tetrahedron to add
+     * @return false if a Tetrahedron with the same numeric ID is already stored
+     */
+    boolean add(Tetrahedron tetrahedron);
+
+    /**
+     * Removes a Tetrahedron equal to the given one.
+     *
+     * @param tetrahedron the Tetrahedron to remove
+     * @return true if a Tetrahedron was removed
+     */
+    boolean remove(Tetrahedron tetrahedron);
+
+    /**
+     * Looks up a Tetrahedron by numeric ID in constant time.
+     *
+     * @param numericId the numeric ID
+     * @return the stored Tetrahedron, or null if there is none
+     */
+    Tetrahedron findById(long numericId);
+
+    /**
+     * Removes the Tetrahedron with the given numeric ID in constant time.
+     *
+     * @param numericId the numeric ID
+     * @return true if a Tetrahedron was removed
+     */
+    boolean removeById(long numericId);
+
+    /**
+     * Looks up the order position of a stored Tetrahedron in constant time.
+     * Positions follow repository order and are the ones handed out by {@link #fetch}.
+     *
+     * @param numericId the numeric ID
+     * @return the order position, or -1 if there is no such Tetrahedron
+     */
+    int positionOf(long numericId);
+
+    /**
+     * @return the number of stored Tetrahedrons
+     */
+    int size();
+
+    /**
+     * Streams the stored Tetrahedrons in repository order.
+     *
+     * @return a sequential stream of Tetrahedrons
+     */
+    Stream<Tetrahedron> stream();
+
+    /**
+     * Copies the next stored Tetrahedrons at or after an order position, so that callers can walk the store lazily
+     * in batches without holding its lock in between. Positions are stable while Tetrahedrons are only added and
+     * removed; sorting the store or compacting holes left by removals renumbers them.
+     *
+     * @param position       the order position to start at, 0 for the first Tetrahedron
+     * @param batch          the array to fill with Tetrahedrons in repository order
+     * @param batchPositions the array to fill with the order position of each copied Tetrahedron
+     * @return the number of Tetrahedrons copied, 0 once the end of the store has been reached
+     */
+    int fetch(int position, Tetrahedron[] batch, int[] batchPositions);
+
+    /**
+     * Copies the stored Tetrahedrons into a new list in repository order.
+     *
+     * @return a new list of Tetrahedrons
+     */
+    List<Tetrahedron> toList();
+
+    /**
+     * Reorders the stored Tetrahedrons.
+     *
+     * @param comparator the order to apply
+     */
+    void sort(Comparator<Tetrahedron> comparator);
+
+    /**
+     * Replaces the order of the stored Tetrahedrons with an order computed elsewhere.
+     *
+     * @param ordered every stored Tetrahedron, as returned by {@link #toList()}, in the new order
+     */
+    void applyOrder(List<Tetrahedron> ordered);
+
+    /**
+     * @return whether {@link #select} can evaluate compiled predicates against primitive columns of this store
+     */
+    default boolean supportsColumnScan() {
+        return false;
+    }
+
+    /**
+     * Evaluates a compiled predicate against the columns of every stored Tetrahedron.
+     *
+     * @param predicate the compiled predicate
+     * @return the matching Tetrahedrons in repository order
+     * @throws UnsupportedOperationException if the store does not keep the columns
+     */
+    default List<Tetrahedron> select(ColumnPredicate predicate) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support column scans");
+    }
+}
@@ -0,0 +1,531 @@
+package lt.esdc.shape.store.impl;
+
+import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.AbstractShape;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.ShapeObserver;
+import lt.esdc.shape.store.TetrahedronStore;
+import lt.esdc.shape.util.collection.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Base class for stores that keep every Tetrahedron as a fixed-width record addressed by a slot index.
+ * The added objects are not retained: their coordinates are copied into the record and callers get
+ * {@link TetrahedronView}s that read and write the record directly. Edits made through the originally added
+ * object are copied into the record by an internal observer, which also forwards them to the registered observers
+ * for as long as the Tetrahedron stays in the store. Freed slots are reused by later additions.
+ * Subclasses decide where the records live.
+ * Slot bookkeeping and records are guarded by one read-write lock: reads of different records proceed in parallel,
+ * and a point is always read or written as a whole. Observers are notified outside the lock.
+ */
+public abstract class AbstractSlotTetrahedronStore implements TetrahedronStore {
+    protected static final int COORDINATES_COUNT = 12;
+    protected static final int METRICS_COUNT = 3;
+    protected static final int PERIMETER = 0;
+    protected static final int AREA = 1;
+    protected static final int VOLUME = 2;
+    private static final int NO_SLOT = -1;
+    private static final int MIN_COMPACTION_LENGTH = 64;
+    private final ShapeCalculator calculator = new TetrahedronCalculatorImpl();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ShapeObserver> observers = new CopyOnWriteArrayList<>();
+    private final ShapeObserver synchronizer = new ShapeObserver() {
+        @Override
+        public void beforeUpdate(AbstractShape abstractShape) {
+            if (holds(abstractShape.getNumericId())) {
+                fireBeforeUpdate((Tetrahedron) abstractShape);
+            }
+        }
+
+        @Override
+        public void update(AbstractShape abstractShape) {
+            synchronize((Tetrahedron) abstractShape);
+        }
+    };
+    private final LongIntHashMap slotsById = new LongIntHashMap(1024, NO_SLOT);
+    private String[] names = new String[0];
+    private final boolean cacheMetrics;
+    private final double[] metricsBuffer = new double[METRICS_COUNT];
+    private int[] order = new int[1024];
+    private int[] positions = new int[1024];
+    private int orderLength;
+    private int size;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    /**
+     * @param cacheMetrics whether perimeter, area and volume are computed on every write and kept in the record
+     */
+    protected AbstractSlotTetrahedronStore(boolean cacheMetrics) {
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    /**
+     * Makes sure that slots {@code [0, slots)} can be written.
+     * Called before every new record, including records written into reused slots.
+     */
+    protected abstract void ensureCapacity(int slots);
+
+    protected abstract long readId(int slot);
+
+    protected abstract void writeId(int slot, long id);
+
+    protected abstract double readCoordinate(int slot, int index);
+
+    protected abstract void writeCoordinate(int slot, int index, double value);
+
+    protected abstract double readMetric(int slot, int metric);
+
+    protected abstract void writeMetric(int slot, int metric, double value);
+
+    /**
+     * Clears the record of a removed Tetrahedron.
+     */
+    protected abstract void releaseSlot(int slot);
+
+    /**
+     * Called under the lock at the start of every operation on the store.
+     * Stores that can be closed override it to reject use after closing.
+     *
+     * @throws IllegalStateException if the store can no longer be used
+     */
+    protected void checkOpen() {
+    }
+
+    @Override
+    public void registerObserver(ShapeObserver observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    public boolean add(Tetrahedron tetrahedron) {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            long id = tetrahedron.getNumericId();
+            if (slotsById.containsKey(id)) {
+                return false;
+            }
+            int slot = allocateSlot();
+            writeId(slot, id);
+            writeShape(slot, tetrahedron);
+            if (!tetrahedron.isIdGenerated()) {
+                if (slot >= names.length) {
+                    names = Arrays.copyOf(names, Math.max(slot + 1, names.length * 2));
+                }
+                names[slot] = tetrahedron.getId();
+            }
+            slotsById.put(id, slot);
+            if (orderLength == order.length) {
+                order = Arrays.copyOf(order, orderLength + (orderLength >> 1));
+            }
+            if (slot >= positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(slot + 1, positions.length * 2));
+            }
+            positions[slot] = orderLength;
+            order[orderLength++] = slot;
+            size++;
+
+            tetrahedron.addObserver(synchronizer);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Tetrahedron tetrahedron) {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            int slot = slotsById.get(tetrahedron.getNumericId());
+            if (slot == NO_SLOT || !view(slot).equals(tetrahedron)) {
+                return false;
+            }
+            tetrahedron.removeObserver(synchronizer);
+            return removeById(tetrahedron.getNumericId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Tetrahedron findById(long numericId) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int slot = slotsById.get(numericId);
+            return slot == NO_SLOT ? null : view(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int positionOf(long numericId) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int slot = slotsById.get(numericId);
+            return slot == NO_SLOT ? -1 : positions[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the record in constant time by leaving a hole in the store order, which is compacted
+     * once holes outnumber live records. Objects added earlier stop being synchronized with the store.
+     */
+    @Override
+    public boolean removeById(long numericId) {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            int slot = slotsById.remove(numericId);
+            if (slot == NO_SLOT) {
+                return false;
+            }
+            order[positions[slot]] = NO_SLOT;
+            size--;
+            if (slot < names.length) {
+                names[slot] = null;
+            }
+            releaseSlot(slot);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            if (orderLength > MIN_COMPACTION_LENGTH && size < orderLength / 2) {
+                compactOrder();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Tetrahedron> stream() {
+        return toList().stream();
+    }
+
+    @Override
+    public List<Tetrahedron> toList() {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            List<Tetrahedron> views = new ArrayList<>(size);
+            for (int i = 0; i < orderLength; i++) {
+                if (order[i] != NO_SLOT) {
+                    views.add(view(order[i]));
+                }
+            }
+            return views;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int fetch(int position, Tetrahedron[] batch, int[] batchPositions) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int count = 0;
+            for (int i = position; i < orderLength && count < batch.length; i++) {
+                if (order[i] != NO_SLOT) {
+                    batch[count] = view(order[i]);
+                    batchPositions[count++] = i;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void sort(Comparator<Tetrahedron> comparator) {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            List<Tetrahedron> views = toList();
+            views.sort(comparator);
+            applyOrder(views);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the list does not hold a view of every stored Tetrahedron exactly once
+     */
+    @Override
+    public void applyOrder(List<Tetrahedron> ordered) {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            if (ordered.size() != size) {
+                throw new IllegalArgumentException("Expected " + size + " Tetrahedrons but got " + ordered.size());
+            }
+            int[] slots = new int[size];
+            long[] seen = new long[(slotCount + 63) >>> 6];
+            for (int i = 0; i < size; i++) {
+                if (!(ordered.get(i) instanceof TetrahedronView view) || view.getStore() != this
+                        || slotsById.get(view.getNumericId()) != view.getSlot()) {
+                    throw new IllegalArgumentException("Not a stored Tetrahedron of this store: " + ordered.get(i));
+                }
+                int slot = view.getSlot();
+                if ((seen[slot >>> 6] & 1L << slot) != 0) {
+                    throw new IllegalArgumentException("Tetrahedron listed twice: " + view.getId());
+                }
+                seen[slot >>> 6] |= 1L << slot;
+                slots[i] = slot;
+            }
+            for (int i = 0; i < size; i++) {
+                order[i] = slots[i];
+                positions[slots[i]] = i;
+            }
+            orderLength = size;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Creates a view over the record in the given slot.
+     *
+     * @param slot the slot of a stored Tetrahedron
+     * @return a Tetrahedron reading and writing the record
+     */
+    public Tetrahedron view(int slot) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            String name = slot < names.length ? names[slot] : null;
+            return new TetrahedronView(this, slot, readId(slot), name);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of slots ever allocated, including free ones
+     */
+    public int getSlotCount() {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return slotCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double getPerimeter(int slot) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return cacheMetrics ? readMetric(slot, PERIMETER) : calculator.computePerimeter(view(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double getArea(int slot) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return cacheMetrics ? readMetric(slot, AREA) : calculator.computeArea(view(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double getVolume(int slot) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return cacheMetrics ? readMetric(slot, VOLUME) : calculator.computeVolume(view(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the lock guarding slot bookkeeping and records
+     */
+    protected ReadWriteLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Collects the stored Tetrahedrons whose slot bit is set, in repository order.
+     *
+     * @param selection a bitmap over slots, bit {@code slot & 63} of word {@code slot >>> 6}
+     * @return views of the selected Tetrahedrons
+     */
+    protected List<Tetrahedron> selectSlots(long[] selection) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            List<Tetrahedron> views = new ArrayList<>();
+            for (int i = 0; i < orderLength; i++) {
+                int slot = order[i];
+                if (slot != NO_SLOT && (selection[slot >>> 6] & 1L << slot) != 0) {
+                    views.add(view(slot));
+                }
+            }
+            return views;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Must be called under the lock.
+     *
+     * @param slot a slot holding a Tetrahedron
+     * @return whether the Tetrahedron in the slot has an explicit ID
+     */
+    protected boolean isNamed(int slot) {
+        return slot < names.length && names[slot] != null;
+    }
+
+    protected boolean isCachingMetrics() {
+        return cacheMetrics;
+    }
+
+    boolean holds(int slot, long id) {
+        lock.readLock().lock();
+        try {
+            return slot < slotCount && slotsById.get(id) == slot;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean holds(long id) {
+        lock.readLock().lock();
+        try {
+            return slotsById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Point readPoint(int slot, int pointIndex) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int base = pointIndex * 3;
+            return new Point(readCoordinate(slot, base), readCoordinate(slot, base + 1), readCoordinate(slot, base + 2));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void writePoint(TetrahedronView view, int pointIndex, Point point) {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            int slot = view.getSlot();
+            int base = pointIndex * 3;
+            writeCoordinate(slot, base, point.x());
+            writeCoordinate(slot, base + 1, point.y());
+            writeCoordinate(slot, base + 2, point.z());
+            refreshMetrics(slot, view);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void fireBeforeUpdate(Tetrahedron tetrahedron) {
+        for (ShapeObserver observer : observers) {
+            observer.beforeUpdate(tetrahedron);
+        }
+    }
+
+    void fireUpdate(Tetrahedron view) {
+        for (ShapeObserver observer : observers) {
+            observer.update(view);
+        }
+    }
+
+    private void synchronize(Tetrahedron tetrahedron) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.get(tetrahedron.getNumericId());
+            if (slot == NO_SLOT) {
+                return;
+            }
+            writeShape(slot, tetrahedron);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (ShapeObserver observer : observers) {
+            observer.update(tetrahedron);
+        }
+    }
+
+    private void writeShape(int slot, Tetrahedron tetrahedron) {
+        Point[] points = {tetrahedron.getPointA(), tetrahedron.getPointB(), tetrahedron.getPointC(), tetrahedron.getPointD()};
+        for (int i = 0; i < points.length; i++) {
+            writeCoordinate(slot, i * 3, points[i].x());
+            writeCoordinate(slot, i * 3 + 1, points[i].y());
+            writeCoordinate(slot, i * 3 + 2, points[i].z());
+        }
+        refreshMetrics(slot, tetrahedron);
+    }
+
+    private void refreshMetrics(int slot, Tetrahedron tetrahedron) {
+        if (cacheMetrics) {
+            calculator.computeAll(tetrahedron, metricsBuffer);
+            writeMetric(slot, PERIMETER, metricsBuffer[ShapeMetric.PERIMETER.ordinal()]);
+            writeMetric(slot, AREA, metricsBuffer[ShapeMetric.AREA.ordinal()]);
+            writeMetric(slot, VOLUME, metricsBuffer[ShapeMetric.VOLUME.ordinal()]);
+        }
+    }
+
+    private int allocateSlot() {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+        ensureCapacity(slot + 1);
+        return slot;
+    }
+
+    private void compactOrder() {
+        int length = 0;
+        for (int i = 0; i < orderLength; i++) {
+            int slot = order[i];
+            if (slot != NO_SLOT) {
+                order[length] = slot;
+                positions[slot] = length++;
+            }
+        }
+        orderLength = length;
+    }
+}
@@ -0,0 +1,131 @@
+package lt.esdc.shape.store.impl;
+
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.column.ColumnPredicate;
+import lt.esdc.shape.specification.column.ColumnSource;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Structure-of-arrays store that keeps each coordinate, and optionally each metric, in its own primitive column.
+ * A stored Tetrahedron costs 104 bytes of columns (136 with cached metrics) plus its slot bookkeeping,
+ * instead of a Tetrahedron object, four Point records, an identifier and an observer list.
+ * With cached metrics, compiled {@link ColumnPredicate}s are evaluated directly against the metric and ID columns.
+ */
+public class ColumnarTetrahedronStore extends AbstractSlotTetrahedronStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    private final double[][] coordinates = new double[COORDINATES_COUNT][];
+    private final double[][] metrics;
+    private long[] ids;
+    private int capacity;
+    private final ColumnSource columns = new ColumnSource() {
+        @Override
+        public double[] getMetricColumn(ShapeMetric metric) {
+            return metrics[metric.ordinal()];
+        }
+
+        @Override
+        public long[] getIdColumn() {
+            return ids;
+        }
+
+        @Override
+        public boolean hasExplicitId(int row) {
+            return isNamed(row);
+        }
+    };
+
+    public ColumnarTetrahedronStore() {
+        this(true);
+    }
+
+    /**
+     * @param cacheMetrics whether perimeter, area and volume are kept in columns
+     */
+    public ColumnarTetrahedronStore(boolean cacheMetrics) {
+        super(cacheMetrics);
+        this.metrics = cacheMetrics ? new double[METRICS_COUNT][] : null;
+        resize(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public boolean supportsColumnScan() {
+        return isCachingMetrics();
+    }
+
+    /**
+     * Evaluates the predicate over every slot, including free ones, and keeps the stored Tetrahedrons it selected.
+     */
+    @Override
+    public List<Tetrahedron> select(ColumnPredicate predicate) {
+        if (!supportsColumnScan()) {
+            throw new UnsupportedOperationException("Column scans need cached metrics");
+        }
+        getLock().readLock().lock();
+        try {
+            int slots = getSlotCount();
+            long[] selection = new long[ColumnPredicate.words(slots)];
+            predicate.evaluate(columns, slots, selection);
+            return selectSlots(selection);
+        } finally {
+            getLock().readLock().unlock();
+        }
+    }
+
+    @Override
+    protected void ensureCapacity(int slots) {
+        if (slots > capacity) {
+            resize(Math.max(slots, capacity + (capacity >> 1)));
+        }
+    }
+
+    @Override
+    protected long readId(int slot) {
+        return ids[slot];
+    }
+
+    @Override
+    protected void writeId(int slot, long id) {
+        ids[slot] = id;
+    }
+
+    @Override
+    protected double readCoordinate(int slot, int index) {
+        return coordinates[index][slot];
+    }
+
+    @Override
+    protected void writeCoordinate(int slot, int index, double value) {
+        coordinates[index][slot] = value;
+    }
+
+    @Override
+    protected double readMetric(int slot, int metric) {
+        return metrics[metric][slot];
+    }
+
+    @Override
+    protected void writeMetric(int slot, int metric, double value) {
+        metrics[metric][slot] = value;
+    }
+
+    @Override
+    protected void releaseSlot(int slot) {
+        ids[slot] = 0;
+    }
+
+    private void resize(int newCapacity) {
+        ids = ids == null ? new long[newCapacity] : Arrays.copyOf(ids, newCapacity);
+        for (int i = 0; i < COORDINATES_COUNT; i++) {
+            coordinates[i] = coordinates[i] == null ? new double[newCapacity] : Arrays.copyOf(coordinates[i], newCapacity);
+        }
+        if (metrics != null) {
+            for (int i = 0; i < METRICS_COUNT; i++) {
+                metrics[i] = metrics[i] == null ? new double[newCapacity] : Arrays.copyOf(metrics[i], newCapacity);
+            }
+        }
+        capacity = newCapacity;
+    }
+}
@@ -0,0 +1,240 @@
+package lt.esdc.shape.store.impl;
+
+import lt.esdc.shape.entity.AbstractShape;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.ShapeObserver;
+import lt.esdc.shape.store.TetrahedronStore;
+import lt.esdc.shape.util.collection.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Store that keeps the added Tetrahedron objects themselves in an array in repository order,
+ * with a primitive index from numeric ID to array position.
+ * A removal leaves a hole in the array, which is compacted once holes outnumber live Tetrahedrons,
+ * so the positions handed out by {@link #fetch} only change on compaction and sorting.
+ * Each stored Tetrahedron carries a single store-level observer that forwards its notifications to the registered
+ * observers, so registering an observer does not touch the stored Tetrahedrons.
+ * Guarded by a read-write lock, so concurrent lookups do not block each other.
+ */
+public class ObjectTetrahedronStore implements TetrahedronStore {
+    private static final int NO_POSITION = -1;
+    private static final int MIN_COMPACTION_LENGTH = 64;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ShapeObserver> observers = new CopyOnWriteArrayList<>();
+    private final ShapeObserver dispatcher = new ShapeObserver() {
+        @Override
+        public void beforeUpdate(AbstractShape abstractShape) {
+            for (ShapeObserver observer : observers) {
+                observer.beforeUpdate(abstractShape);
+            }
+        }
+
+        @Override
+        public void update(AbstractShape abstractShape) {
+            for (ShapeObserver observer : observers) {
+                observer.update(abstractShape);
+            }
+        }
+    };
+    private final LongIntHashMap positions = new LongIntHashMap(1024, NO_POSITION);
+    private Tetrahedron[] order = new Tetrahedron[1024];
+    private int orderLength;
+
+    @Override
+    public void registerObserver(ShapeObserver observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    public boolean add(Tetrahedron tetrahedron) {
+        lock.writeLock().lock();
+        try {
+            if (positions.containsKey(tetrahedron.getNumericId())) {
+                return false;
+            }
+            if (orderLength == order.length) {
+                order = Arrays.copyOf(order, orderLength + (orderLength >> 1));
+            }
+            positions.put(tetrahedron.getNumericId(), orderLength);
+            order[orderLength++] = tetrahedron;
+            tetrahedron.addObserver(dispatcher);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Tetrahedron tetrahedron) {
+        lock.writeLock().lock();
+        try {
+            Tetrahedron stored = findById(tetrahedron.getNumericId());
+            if (stored == null || !stored.equals(tetrahedron)) {
+                return false;
+            }
+            return removeById(tetrahedron.getNumericId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Tetrahedron findById(long numericId) {
+        lock.readLock().lock();
+        try {
+            int position = positions.get(numericId);
+            return position == NO_POSITION ? null : order[position];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int positionOf(long numericId) {
+        lock.readLock().lock();
+        try {
+            int position = positions.get(numericId);
+            return position == NO_POSITION ? -1 : position;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeById(long numericId) {
+        lock.writeLock().lock();
+        try {
+            int position = positions.remove(numericId);
+            if (position == NO_POSITION) {
+                return false;
+            }
+            Tetrahedron removed = order[position];
+            order[position] = null;
+            removed.removeObserver(dispatcher);
+            if (orderLength > MIN_COMPACTION_LENGTH && positions.size() < orderLength / 2) {
+                compactOrder();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Streams a snapshot of the stored Tetrahedrons taken under the read lock.
+     */
+    @Override
+    public Stream<Tetrahedron> stream() {
+        return toList().stream();
+    }
+
+    @Override
+    public List<Tetrahedron> toList() {
+        lock.readLock().lock();
+        try {
+            List<Tetrahedron> stored = new ArrayList<>(positions.size());
+            for (int i = 0; i < orderLength; i++) {
+                if (order[i] != null) {
+                    stored.add(order[i]);
+                }
+            }
+            return stored;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int fetch(int position, Tetrahedron[] batch, int[] batchPositions) {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int i = position; i < orderLength && count < batch.length; i++) {
+                if (order[i] != null) {
+                    batch[count] = order[i];
+                    batchPositions[count++] = i;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void sort(Comparator<Tetrahedron> comparator) {
+        lock.writeLock().lock();
+        try {
+            List<Tetrahedron> sorted = toList();
+            sorted.sort(comparator);
+            applyOrder(sorted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the list does not hold every stored Tetrahedron exactly once
+     */
+    @Override
+    public void applyOrder(List<Tetrahedron> ordered) {
+        lock.writeLock().lock();
+        try {
+            if (ordered.size() != positions.size()) {
+                throw new IllegalArgumentException("Expected " + positions.size() + " Tetrahedrons but got "
+                        + ordered.size());
+            }
+            LongIntHashMap listed = new LongIntHashMap(ordered.size(), NO_POSITION);
+            for (Tetrahedron tetrahedron : ordered) {
+                int position = positions.get(tetrahedron.getNumericId());
+                if (position == NO_POSITION || order[position] != tetrahedron) {
+                    throw new IllegalArgumentException("Not a stored Tetrahedron: " + tetrahedron);
+                }
+                if (listed.containsKey(tetrahedron.getNumericId())) {
+                    throw new IllegalArgumentException("Tetrahedron listed twice: " + tetrahedron.getId());
+                }
+                listed.put(tetrahedron.getNumericId(), position);
+            }
+            Tetrahedron[] reordered = new Tetrahedron[Math.max(order.length, ordered.size())];
+            for (int i = 0; i < ordered.size(); i++) {
+                reordered[i] = ordered.get(i);
+                positions.put(reordered[i].getNumericId(), i);
+            }
+            order = reordered;
+            orderLength = ordered.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactOrder() {
+        int length = 0;
+        for (int i = 0; i < orderLength; i++) {
+            Tetrahedron tetrahedron = order[i];
+            if (tetrahedron != null) {
+                order[length] = tetrahedron;
+                positions.put(tetrahedron.getNumericId(), length++);
+            }
+        }
+        Arrays.fill(order, length, orderLength, null);
+        orderLength = length;
+    }
+}
@@ -0,0 +1,222 @@
+package lt.esdc.shape.store.impl;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Store that keeps Tetrahedron records in direct ByteBuffers outside the garbage-collected heap.
+ * Records are 128 bytes wide (identifier, twelve coordinates, three metrics) and are grouped into segments.
+ * Memory is reserved and released a whole segment of 8192 records (1 MiB) at a time: a removed record is zeroed
+ * immediately and its slot is reused by the next addition, but the segment is only freed once every record in it
+ * has been removed, so a single surviving record keeps its segment reserved. A freed segment is released right away
+ * through the JDK's buffer cleaner instead of waiting for the garbage collector; the store cannot be created when
+ * that cleaner is unreachable. After {@link #close()} every operation throws {@link IllegalStateException}.
+ */
+public class OffHeapTetrahedronStore extends AbstractSlotTetrahedronStore implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(OffHeapTetrahedronStore.class);
+    private static final int RECORD_SIZE = 128;
+    private static final int ID_OFFSET = 0;
+    private static final int COORDINATES_OFFSET = Long.BYTES;
+    private static final int METRICS_OFFSET = COORDINATES_OFFSET + COORDINATES_COUNT * Double.BYTES;
+    private static final int SEGMENT_SHIFT = 13;
+    private static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+    private static final int SEGMENT_BYTES = SEGMENT_RECORDS * RECORD_SIZE;
+    private ByteBuffer[] segments = new ByteBuffer[16];
+    private int[] liveRecords = new int[16];
+    private int allocatedSegments;
+    private boolean closed;
+
+    public OffHeapTetrahedronStore() {
+        this(true);
+    }
+
+    /**
+     * @param cacheMetrics whether perimeter, area and volume are kept in the records
+     * @throws IllegalStateException if direct buffers cannot be freed eagerly on this JVM
+     */
+    public OffHeapTetrahedronStore(boolean cacheMetrics) {
+        super(cacheMetrics);
+        DirectMemory.checkAvailable();
+    }
+
+    /**
+     * @return the number of off-heap bytes currently reserved by this store, a multiple of the segment size
+     */
+    public long getOffHeapBytes() {
+        getLock().readLock().lock();
+        try {
+            checkOpen();
+            return reservedBytes();
+        } finally {
+            getLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of off-heap bytes holding live records
+     */
+    public long getUsedBytes() {
+        return (long) size() * RECORD_SIZE;
+    }
+
+    /**
+     * Removes every Tetrahedron and frees every segment. Closing an already closed store does nothing.
+     */
+    @Override
+    public void close() {
+        getLock().writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            for (Tetrahedron tetrahedron : toList()) {
+                removeById(tetrahedron.getNumericId());
+            }
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i] != null) {
+                    freeSegment(i);
+                }
+            }
+            closed = true;
+        } finally {
+            getLock().writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Off-heap store is closed");
+        }
+    }
+
+    @Override
+    protected void ensureCapacity(int slots) {
+        int segment = (slots - 1) >>> SEGMENT_SHIFT;
+        if (segment >= segments.length) {
+            int length = Math.max(segment + 1, segments.length * 2);
+            segments = Arrays.copyOf(segments, length);
+            liveRecords = Arrays.copyOf(liveRecords, length);
+        }
+        if (segments[segment] == null) {
+            segments[segment] = ByteBuffer.allocateDirect(SEGMENT_BYTES).order(ByteOrder.nativeOrder());
+            allocatedSegments++;
+            logger.debug("Allocated off-heap segment {}, footprint {} bytes", segment, reservedBytes());
+        }
+    }
+
+    @Override
+    protected long readId(int slot) {
+        return segment(slot).getLong(offset(slot) + ID_OFFSET);
+    }
+
+    @Override
+    protected void writeId(int slot, long id) {
+        segment(slot).putLong(offset(slot) + ID_OFFSET, id);
+        liveRecords[slot >>> SEGMENT_SHIFT]++;
+    }
+
+    @Override
+    protected double readCoordinate(int slot, int index) {
+        return segment(slot).getDouble(offset(slot) + COORDINATES_OFFSET + index * Double.BYTES);
+    }
+
+    @Override
+    protected void writeCoordinate(int slot, int index, double value) {
+        segment(slot).putDouble(offset(slot) + COORDINATES_OFFSET + index * Double.BYTES, value);
+    }
+
+    @Override
+    protected double readMetric(int slot, int metric) {
+        return segment(slot).getDouble(offset(slot) + METRICS_OFFSET + metric * Double.BYTES);
+    }
+
+    @Override
+    protected void writeMetric(int slot, int metric, double value) {
+        segment(slot).putDouble(offset(slot) + METRICS_OFFSET + metric * Double.BYTES, value);
+    }
+
+    @Override
+    protected void releaseSlot(int slot) {
+        int segment = slot >>> SEGMENT_SHIFT;
+        ByteBuffer buffer = segments[segment];
+        int offset = offset(slot);
+        for (int i = 0; i < RECORD_SIZE; i += Long.BYTES) {
+            buffer.putLong(offset + i, 0);
+        }
+        if (--liveRecords[segment] == 0) {
+            freeSegment(segment);
+        }
+    }
+
+    private ByteBuffer segment(int slot) {
+        return segments[slot >>> SEGMENT_SHIFT];
+    }
+
+    private static int offset(int slot) {
+        return (slot & SEGMENT_MASK) * RECORD_SIZE;
+    }
+
+    private long reservedBytes() {
+        return (long) allocatedSegments * SEGMENT_BYTES;
+    }
+
+    private void freeSegment(int segment) {
+        DirectMemory.free(segments[segment]);
+        segments[segment] = null;
+        liveRecords[segment] = 0;
+        allocatedSegments--;
+        logger.debug("Freed off-heap segment {}, footprint {} bytes", segment, reservedBytes());
+    }
+
+    /**
+     * Frees direct buffers eagerly through the JDK's buffer cleaner. Without the cleaner a freed segment would stay
+     * reserved until the garbage collector finds it, so the store refuses to work rather than leak silently.
+     */
+    private static final class DirectMemory {
+        private static final Object unsafe;
+        private static final Method invokeCleaner;
+        private static final Exception failure;
+
+        static {
+            Object foundUnsafe = null;
+            Method foundCleaner = null;
+            Exception foundFailure = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                foundUnsafe = field.get(null);
+                foundCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.error("Direct buffer cleaner unavailable: {}", e.getMessage());
+                foundFailure = e;
+            }
+            unsafe = foundUnsafe;
+            invokeCleaner = foundCleaner;
+            failure = foundFailure;
+        }
+
+        static void checkAvailable() {
+            if (failure != null) {
+                throw new IllegalStateException("Direct buffer cleaner unavailable", failure);
+            }
+        }
+
+        static void free(ByteBuffer buffer) {
+            try {
+                invokeCleaner.invoke(unsafe, buffer);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not free direct buffer", e);
+            }
+        }
+    }
+}
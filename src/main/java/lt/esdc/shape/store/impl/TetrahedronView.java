@@ -0,0 +1,107 @@
+package lt.esdc.shape.store.impl;
+
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+
+/**
+ * Lightweight Tetrahedron that reads and writes a record of a slot store instead of holding its own points.
+ * A view becomes stale once its Tetrahedron is removed from the store; using it then throws IllegalStateException.
+ */
+class TetrahedronView extends Tetrahedron {
+    private static final int POINT_A = 0;
+    private static final int POINT_B = 1;
+    private static final int POINT_C = 2;
+    private static final int POINT_D = 3;
+    private final AbstractSlotTetrahedronStore store;
+    private final int slot;
+
+    TetrahedronView(AbstractSlotTetrahedronStore store, int slot, long numericId, String name) {
+        super(numericId, name, null, null, null, null);
+        this.store = store;
+        this.slot = slot;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    AbstractSlotTetrahedronStore getStore() {
+        return store;
+    }
+
+    @Override
+    public Point getPointA() {
+        return read(POINT_A);
+    }
+
+    @Override
+    public void setPointA(Point pointA) {
+        write(POINT_A, pointA);
+    }
+
+    @Override
+    public Point getPointB() {
+        return read(POINT_B);
+    }
+
+    @Override
+    public void setPointB(Point pointB) {
+        write(POINT_B, pointB);
+    }
+
+    @Override
+    public Point getPointC() {
+        return read(POINT_C);
+    }
+
+    @Override
+    public void setPointC(Point pointC) {
+        write(POINT_C, pointC);
+    }
+
+    @Override
+    public Point getPointD() {
+        return read(POINT_D);
+    }
+
+    @Override
+    public void setPointD(Point pointD) {
+        write(POINT_D, pointD);
+    }
+
+    /**
+     * Notifies observers added to this view and the observers registered with the store before a change.
+     */
+    @Override
+    public void notifyBeforeUpdate() {
+        super.notifyBeforeUpdate();
+        store.fireBeforeUpdate(this);
+    }
+
+    /**
+     * Notifies observers added to this view and the observers registered with the store.
+     */
+    @Override
+    public void notifyObservers() {
+        super.notifyObservers();
+        store.fireUpdate(this);
+    }
+
+    private Point read(int pointIndex) {
+        checkLive();
+        return store.readPoint(slot, pointIndex);
+    }
+
+    private void write(int pointIndex, Point point) {
+        checkLive();
+        notifyBeforeUpdate();
+        store.writePoint(this, pointIndex, point);
+        notifyObservers();
+    }
+
+    private void checkLive() {
+        if (!store.holds(slot, getNumericId())) {
+            throw new IllegalStateException("Tetrahedron " + getNumericId() + " is no longer in the store");
+        }
+    }
+}
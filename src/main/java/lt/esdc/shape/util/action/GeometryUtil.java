@@ -1,11 +1,11 @@
 package lt.esdc.shape.util.action;
 
 import lt.esdc.shape.entity.Point;
-import lt.esdc.shape.util.entity.Vector3D;
 
 /**
  * Utility class for performing geometric calculations.
- * Provides methods to compute distances and areas in 3D space.
+ * Provides methods to compute distances, areas and volumes in 3D space.
+ * The overloads taking raw coordinates do not allocate and are meant for hot paths.
  */
 public class GeometryUtil {
 
@@ -17,11 +17,14 @@ public class GeometryUtil {
      * @return the distance between the two points
      */
     public static double computeDistance(Point p1, Point p2) {
-        double dx = p2.x() - p1.x();
-        double dy = p2.y() - p1.y();
-        double dz = p2.z() - p1.z();
+        return computeDistance(p1.x(), p1.y(), p1.z(), p2.x(), p2.y(), p2.z());
+    }
 
-        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    /**
+     * Computes the Euclidean distance between two points given by their coordinates.
+     */
+    public static double computeDistance(double x1, double y1, double z1, double x2, double y2, double z2) {
+        return VectorUtil.magnitude(x2 - x1, y2 - y1, z2 - z1);
     }
 
     /**
@@ -34,12 +37,34 @@ public class GeometryUtil {
      * @return the area of the triangle
      */
     public static double computeTriangleArea(Point a, Point b, Point c) {
+        return computeTriangleArea(a.x(), a.y(), a.z(), b.x(), b.y(), b.z(), c.x(), c.y(), c.z());
+    }
 
-        Vector3D ab = new Vector3D(b.x() - a.x(), b.y() - a.y(), b.z() - a.z());
-        Vector3D ac = new Vector3D(c.x() - a.x(), c.y() - a.y(), c.z() - a.z());
-
-        Vector3D cross = VectorUtil.cross(ab, ac);
+    /**
+     * Computes the area of a triangle given by the coordinates of its vertices.
+     */
+    public static double computeTriangleArea(double ax, double ay, double az,
+                                             double bx, double by, double bz,
+                                             double cx, double cy, double cz) {
+        return 0.5 * VectorUtil.crossMagnitude(bx - ax, by - ay, bz - az, cx - ax, cy - ay, cz - az);
+    }
 
-        return 0.5 * VectorUtil.magnitude(cross);
+    /**
+     * Computes the signed volume of a tetrahedron, positive when D lies on the side of plane ABC
+     * towards which the normal {@code AB x AC} points.
+     *
+     * @param a the first vertex
+     * @param b the second vertex
+     * @param c the third vertex
+     * @param d the fourth vertex
+     * @return the signed volume
+     */
+    public static double computeSignedVolume(Point a, Point b, Point c, Point d) {
+        double ax = a.x();
+        double ay = a.y();
+        double az = a.z();
+        return VectorUtil.tripleProduct(d.x() - ax, d.y() - ay, d.z() - az,
+                b.x() - ax, b.y() - ay, b.z() - az,
+                c.x() - ax, c.y() - ay, c.z() - az) / 6.0;
     }
 }
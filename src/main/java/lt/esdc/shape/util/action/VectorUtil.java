@@ -5,6 +5,7 @@ import lt.esdc.shape.util.entity.Vector3D;
 /**
  * Utility class for vector operations in 3D space.
  * Provides methods for cross product, dot product, and magnitude calculations.
+ * The overloads taking raw components do not allocate and are meant for hot paths.
  */
 
 public class VectorUtil {
@@ -24,5 +25,28 @@ public class VectorUtil {
     public static double magnitude(Vector3D v) {
         return Math.sqrt(v.x() * v.x() + v.y() * v.y() + v.z() * v.z());
     }
-}
 
+    public static double dot(double x1, double y1, double z1, double x2, double y2, double z2) {
+        return x1 * x2 + y1 * y2 + z1 * z2;
+    }
+
+    public static double magnitude(double x, double y, double z) {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    /**
+     * Computes the magnitude of the cross product of two vectors without building it.
+     */
+    public static double crossMagnitude(double x1, double y1, double z1, double x2, double y2, double z2) {
+        return magnitude(y1 * z2 - z1 * y2, z1 * x2 - x1 * z2, x1 * y2 - y1 * x2);
+    }
+
+    /**
+     * Computes the scalar triple product {@code u . (v x w)}.
+     */
+    public static double tripleProduct(double ux, double uy, double uz,
+                                       double vx, double vy, double vz,
+                                       double wx, double wy, double wz) {
+        return ux * (vy * wz - vz * wy) + uy * (vz * wx - vx * wz) + uz * (vx * wy - vy * wx);
+    }
+}
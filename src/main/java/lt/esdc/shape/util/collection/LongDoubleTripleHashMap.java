@@ -0,0 +1,209 @@
+package lt.esdc.shape.util.collection;
+
+/**
+ * Open-addressing hash map from primitive long keys to three primitive double components stored inline.
+ * Keys live in one array and the components of the entry in slot {@code i} at {@code [3i, 3i + 3)} of another,
+ * so a lookup probes adjacent keys and then reads one contiguous triple without following any pointer.
+ * Updating an existing key does not allocate.
+ * <p>
+ * The map is not thread-safe, but reads never fail or loop when they race with a writer: they either see
+ * consistent data or garbage that the caller must discard, for example by validating a
+ * {@link java.util.concurrent.locks.StampedLock} optimistic read.
+ */
+public class LongDoubleTripleHashMap {
+    public static final int COMPONENTS = 3;
+    private static final long EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+    private Table table;
+    private int size;
+
+    /**
+     * @param expectedSize the number of entries the map should hold without resizing
+     */
+    public LongDoubleTripleHashMap(int expectedSize) {
+        this.table = new Table(Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) * 2 - 1));
+    }
+
+    public int size() {
+        return size + (table.hasZeroKey ? 1 : 0);
+    }
+
+    public boolean containsKey(long key) {
+        return table.find(key) >= 0;
+    }
+
+    /**
+     * Gets one component of the entry.
+     *
+     * @param key       the key
+     * @param component the component index, below {@link #COMPONENTS}
+     * @return the component, or NaN if the key is absent
+     */
+    public double get(long key, int component) {
+        Table current = table;
+        int index = current.find(key);
+        return index < 0 ? Double.NaN : current.values[index * COMPONENTS + component];
+    }
+
+    /**
+     * Copies all components of the entry into the target array.
+     *
+     * @param key    the key
+     * @param target an array of at least {@link #COMPONENTS} elements
+     * @return false if the key is absent, in which case the target is left unchanged
+     */
+    public boolean get(long key, double[] target) {
+        Table current = table;
+        int index = current.find(key);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(current.values, index * COMPONENTS, target, 0, COMPONENTS);
+        return true;
+    }
+
+    /**
+     * Associates the three components with the key, overwriting them in place if the key is present.
+     */
+    public void put(long key, double first, double second, double third) {
+        Table current = table;
+        int index;
+        if (key == EMPTY) {
+            index = current.zeroIndex();
+            current.hasZeroKey = true;
+        } else {
+            index = current.indexOf(key);
+            if (current.keys[index] != key) {
+                current.keys[index] = key;
+                size++;
+            }
+        }
+        int base = index * COMPONENTS;
+        current.values[base] = first;
+        current.values[base + 1] = second;
+        current.values[base + 2] = third;
+        if (size > current.keys.length * LOAD_FACTOR) {
+            table = current.rehash(current.keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes the key.
+     *
+     * @return true if the key was present
+     */
+    public boolean remove(long key) {
+        Table current = table;
+        if (key == EMPTY) {
+            boolean present = current.hasZeroKey;
+            current.hasZeroKey = false;
+            return present;
+        }
+        int index = current.indexOf(key);
+        if (current.keys[index] != key) {
+            return false;
+        }
+        current.shiftBack(index);
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        table = new Table(table.keys.length);
+        size = 0;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Key and value arrays of one capacity, replaced as a whole on resize so that a reader never pairs
+     * keys of one capacity with values of another. The last triple holds the entry of key zero.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final double[] values;
+        private final int mask;
+        private boolean hasZeroKey;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new double[(capacity + 1) * COMPONENTS];
+            this.mask = capacity - 1;
+        }
+
+        private int zeroIndex() {
+            return mask + 1;
+        }
+
+        /**
+         * Returns the slot holding the key, or -1. Probes at most the whole table.
+         */
+        private int find(long key) {
+            if (key == EMPTY) {
+                return hasZeroKey ? zeroIndex() : -1;
+            }
+            int index = mix(key) & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long candidate = keys[index];
+                if (candidate == key) {
+                    return index;
+                }
+                if (candidate == EMPTY) {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the slot holding the key, or the empty slot where it would be inserted.
+         */
+        private int indexOf(long key) {
+            int index = mix(key) & mask;
+            while (keys[index] != EMPTY && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        /**
+         * Closes the gap left at {@code gap} by moving back entries whose probe sequence crosses it.
+         */
+        private void shiftBack(int gap) {
+            int index = gap;
+            while (true) {
+                index = (index + 1) & mask;
+                long key = keys[index];
+                if (key == EMPTY) {
+                    keys[gap] = EMPTY;
+                    return;
+                }
+                int home = mix(key) & mask;
+                boolean movable = gap <= index ? (home <= gap || home > index) : (home <= gap && home > index);
+                if (movable) {
+                    keys[gap] = key;
+                    System.arraycopy(values, index * COMPONENTS, values, gap * COMPONENTS, COMPONENTS);
+                    gap = index;
+                }
+            }
+        }
+
+        private Table rehash(int capacity) {
+            Table resized = new Table(capacity);
+            for (int i = 0; i <= mask; i++) {
+                if (keys[i] != EMPTY) {
+                    int index = resized.indexOf(keys[i]);
+                    resized.keys[index] = keys[i];
+                    System.arraycopy(values, i * COMPONENTS, resized.values, index * COMPONENTS, COMPONENTS);
+                }
+            }
+            resized.hasZeroKey = hasZeroKey;
+            System.arraycopy(values, zeroIndex() * COMPONENTS, resized.values, resized.zeroIndex() * COMPONENTS, COMPONENTS);
+            return resized;
+        }
+    }
+}
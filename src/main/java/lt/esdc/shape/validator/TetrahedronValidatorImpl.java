@@ -2,8 +2,7 @@ package lt.esdc.shape.validator;
 
 import lt.esdc.shape.entity.Point;
 import lt.esdc.shape.entity.Tetrahedron;
-import lt.esdc.shape.util.action.VectorUtil;
-import lt.esdc.shape.util.entity.Vector3D;
+import lt.esdc.shape.util.action.GeometryUtil;
 
 /**
  * Implementation of the ShapeValidator interface for Tetrahedron objects.
@@ -21,23 +20,21 @@ public class TetrahedronValidatorImpl implements ShapeValidator<Tetrahedron> {
      */
     @Override
     public boolean isValid(Tetrahedron tetrahedron) {
-        Point a = tetrahedron.getPointA();
-        Point b = tetrahedron.getPointB();
-        Point c = tetrahedron.getPointC();
-        Point d = tetrahedron.getPointD();
+        return isValid(tetrahedron.getPointA(), tetrahedron.getPointB(), tetrahedron.getPointC(),
+                tetrahedron.getPointD());
+    }
 
+    /**
+     * Validates four points before a Tetrahedron, and with it an identifier, is created for them.
+     *
+     * @return true if the points form a valid Tetrahedron, false otherwise
+     */
+    public boolean isValid(Point a, Point b, Point c, Point d) {
         if (a.equals(b) || a.equals(c) || a.equals(d) ||
                 b.equals(c) || b.equals(d) || c.equals(d)) {
             return false;
         }
 
-        Vector3D ab = new Vector3D(b.x() - a.x(), b.y() - a.y(), b.z() - a.z());
-        Vector3D ac = new Vector3D(c.x() - a.x(), c.y() - a.y(), c.z() - a.z());
-        Vector3D ad = new Vector3D(d.x() - a.x(), d.y() - a.y(), d.z() - a.z());
-
-        Vector3D cross = VectorUtil.cross(ac, ad);
-        double volume = Math.abs(VectorUtil.dot(ab, cross)) / 6.0;
-
-        return volume != 0;
+        return GeometryUtil.computeSignedVolume(a, b, c, d) != 0;
     }
 }
@@ -1,40 +1,157 @@
 package lt.esdc.shape.warehouse;
 
+import lt.esdc.shape.util.collection.LongDoubleTripleHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
 
+/**
+ * Cache of computed shape parameters keyed by numeric shape ID.
+ * Perimeter, area and volume are stored inline in primitive arrays behind an open-addressing index,
+ * so an update overwrites three doubles without allocating and a lookup reads one contiguous record.
+ * Safe for concurrent use: writers are serialized by a {@link StampedLock} and readers use optimistic reads
+ * that are retried under the read lock if a write interfered, so a reader never sees a half-written record.
+ */
 public class Warehouse {
     private static final Logger logger = LogManager.getLogger(Warehouse.class);
-    private static Warehouse instance;
-    private final Map<String, ShapeParameters> parametersMap = new HashMap<>();
+    private static final int PERIMETER = 0;
+    private static final int AREA = 1;
+    private static final int VOLUME = 2;
+    private final LongDoubleTripleHashMap parameters = new LongDoubleTripleHashMap(1024);
+    private final StampedLock lock = new StampedLock();
 
     private Warehouse() {}
 
     public static Warehouse getInstance() {
-        if (instance == null) {
-            instance = new Warehouse();
+        return InstanceHolder.INSTANCE;
+    }
+
+    public void putParameters(long shapeId, double perimeter, double area, double volume) {
+        long stamp = lock.writeLock();
+        try {
+            parameters.put(shapeId, perimeter, area, volume);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Parameters for shape {} saved: {}", shapeId, new ShapeParameters(perimeter, area, volume));
+        }
+    }
+
+    public void putParameters(long shapeId, ShapeParameters parameters) {
+        putParameters(shapeId, parameters.perimeter(), parameters.area(), parameters.volume());
+    }
+
+    /**
+     * Stores the parameters of many shapes under one write lock.
+     * The metric columns hold perimeter, area and volume in that order, as written by a
+     * {@link lt.esdc.shape.action.BatchShapeCalculator}.
+     *
+     * @param shapeIds the numeric IDs of the shapes
+     * @param metrics  the three metric columns, aligned with the IDs
+     * @param from     the first index, inclusive
+     * @param to       the last index, exclusive
+     */
+    public void putAllParameters(long[] shapeIds, double[][] metrics, int from, int to) {
+        double[] perimeters = metrics[PERIMETER];
+        double[] areas = metrics[AREA];
+        double[] volumes = metrics[VOLUME];
+        long stamp = lock.writeLock();
+        try {
+            for (int i = from; i < to; i++) {
+                parameters.put(shapeIds[i], perimeters[i], areas[i], volumes[i]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        logger.debug("Parameters for {} shapes saved", to - from);
+    }
+
+    /**
+     * Gets all parameters of a shape as one record.
+     *
+     * @param shapeId the numeric ID of the shape
+     * @return the parameters, or null if none are stored
+     */
+    public ShapeParameters getParameters(long shapeId) {
+        double[] record = new double[LongDoubleTripleHashMap.COMPONENTS];
+        long stamp = lock.tryOptimisticRead();
+        boolean found = parameters.get(shapeId, record);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = parameters.get(shapeId, record);
+            } finally {
+                lock.unlockRead(stamp);
+            }
         }
-        return instance;
+        return found ? new ShapeParameters(record[PERIMETER], record[AREA], record[VOLUME]) : null;
     }
 
-    public void putParameters(String shapeId, double perimeter, double area, double volume) {
-        ShapeParameters parameters = new ShapeParameters(perimeter, area, volume);
-        parametersMap.put(shapeId, parameters);
-        logger.info("Parameters for shape {} saved: {}", shapeId, parameters);
+    /**
+     * @return the stored perimeter of the shape, or NaN if none is stored
+     */
+    public double getPerimeter(long shapeId) {
+        return read(shapeId, PERIMETER);
     }
 
-    public ShapeParameters getParameters(String shapeId) {
-        return parametersMap.get(shapeId);
+    /**
+     * @return the stored area of the shape, or NaN if none is stored
+     */
+    public double getArea(long shapeId) {
+        return read(shapeId, AREA);
     }
 
-    public void remove(String shapeId) {
-        parametersMap.remove(shapeId);
+    /**
+     * @return the stored volume of the shape, or NaN if none is stored
+     */
+    public double getVolume(long shapeId) {
+        return read(shapeId, VOLUME);
+    }
+
+    public boolean contains(long shapeId) {
+        long stamp = lock.tryOptimisticRead();
+        boolean contains = parameters.containsKey(shapeId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                contains = parameters.containsKey(shapeId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return contains;
+    }
+
+    public void remove(long shapeId) {
+        long stamp = lock.writeLock();
+        try {
+            parameters.remove(shapeId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
         logger.debug("Parameters for shape {} removed", shapeId);
     }
 
+    private double read(long shapeId, int metric) {
+        long stamp = lock.tryOptimisticRead();
+        double value = parameters.get(shapeId, metric);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = parameters.get(shapeId, metric);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    private static class InstanceHolder {
+        private static final Warehouse INSTANCE = new Warehouse();
+    }
+
         public record ShapeParameters(double perimeter, double area, double volume) {
 
             @Override
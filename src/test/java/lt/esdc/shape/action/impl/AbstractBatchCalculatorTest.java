@@ -0,0 +1,54 @@
+package lt.esdc.shape.action.impl;
+
+import lt.esdc.shape.action.BatchShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.warehouse.Warehouse;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+
+import java.util.Random;
+
+/**
+ * Reference data shared by the tests of the batch calculators, which live in different source roots.
+ */
+public abstract class AbstractBatchCalculatorTest {
+    private static final int COUNT = 1_027;
+    private static final int MAX_ULPS = 2;
+    private final double[][] coordinates = new double[BatchShapeCalculator.COORDINATES_COUNT][COUNT];
+    private final Warehouse.ShapeParameters[] expected = new Warehouse.ShapeParameters[COUNT];
+
+    @BeforeClass
+    public void setUp() {
+        TetrahedronCalculatorImpl reference = new TetrahedronCalculatorImpl();
+        Random random = new Random(7);
+        for (int i = 0; i < COUNT; i++) {
+            Point[] points = new Point[4];
+            for (int p = 0; p < points.length; p++) {
+                points[p] = new Point(random.nextGaussian() * 100, random.nextGaussian() * 100, random.nextGaussian() * 100);
+                coordinates[p * 3][i] = points[p].x();
+                coordinates[p * 3 + 1][i] = points[p].y();
+                coordinates[p * 3 + 2][i] = points[p].z();
+            }
+            expected[i] = reference.computeAll(new Tetrahedron(i + 1L, points[0], points[1], points[2], points[3]));
+        }
+    }
+
+    protected void assertMatchesReference(BatchShapeCalculator calculator) {
+        double[][] metrics = new double[ShapeMetric.values().length][COUNT];
+        calculator.computeAll(coordinates, metrics, 1, COUNT);
+
+        Assert.assertEquals(metrics[ShapeMetric.PERIMETER.ordinal()][0], 0.0);
+        for (int i = 1; i < COUNT; i++) {
+            assertUlps(metrics[ShapeMetric.PERIMETER.ordinal()][i], expected[i].perimeter());
+            assertUlps(metrics[ShapeMetric.AREA.ordinal()][i], expected[i].area());
+            assertUlps(metrics[ShapeMetric.VOLUME.ordinal()][i], expected[i].volume());
+        }
+    }
+
+    private static void assertUlps(double actual, double expected) {
+        Assert.assertTrue(Math.abs(actual - expected) <= MAX_ULPS * Math.ulp(expected),
+                "Expected " + expected + " but got " + actual);
+    }
+}
@@ -0,0 +1,23 @@
+package lt.esdc.shape.action.impl;
+
+import lt.esdc.shape.action.CalculatorFactory;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+public class BatchCalculatorTest extends AbstractBatchCalculatorTest {
+
+    @Test
+    public void testScalarCalculatorMatchesReference() {
+        assertMatchesReference(new ScalarBatchCalculator());
+    }
+
+    @Test
+    public void testFactoryFallsBackToScalarWithoutVectorModule() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            throw new SkipException("The vector module is present");
+        }
+        Assert.assertTrue(CalculatorFactory.getBatchCalculator() instanceof ScalarBatchCalculator);
+        Assert.assertEquals(CalculatorFactory.getBatchCalculator().getLaneCount(), 1);
+    }
+}
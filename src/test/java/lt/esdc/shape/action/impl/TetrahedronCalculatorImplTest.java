@@ -2,13 +2,18 @@ package lt.esdc.shape.action.impl;
 
 import lt.esdc.shape.entity.Point;
 import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.validator.TetrahedronValidatorImpl;
+import lt.esdc.shape.warehouse.Warehouse;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.lang.management.ManagementFactory;
+
 public class TetrahedronCalculatorImplTest {
     private TetrahedronCalculatorImpl calculator;
     private Tetrahedron validTetrahedron;
+    private final double[] metricsBuffer = new double[3];
 
     @BeforeClass
     public void setUp() {
@@ -43,4 +48,49 @@ public class TetrahedronCalculatorImplTest {
         Assert.assertTrue(result > 0, "Volume should be positive for valid tetrahedron");
         Assert.assertEquals(result, 1.0 / 6.0, 0.0001);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testComputeAll_MatchesSeparateComputations() {
+        Tetrahedron skewed = new Tetrahedron("skewed", new Point(1.5, -2, 0.25), new Point(4, 1, -3),
+                new Point(-2, 3.5, 1), new Point(0.5, 0.5, 6));
+
+        for (Tetrahedron tetrahedron : new Tetrahedron[]{validTetrahedron, skewed}) {
+            Warehouse.ShapeParameters parameters = calculator.computeAll(tetrahedron);
+            Assert.assertEquals(parameters.perimeter(), calculator.computePerimeter(tetrahedron), 1e-9);
+            Assert.assertEquals(parameters.area(), calculator.computeArea(tetrahedron), 1e-9);
+            Assert.assertEquals(parameters.volume(), calculator.computeVolume(tetrahedron), 1e-9);
+            calculator.computeAll(tetrahedron, metricsBuffer);
+            Assert.assertEquals(metricsBuffer, new double[]{parameters.perimeter(), parameters.area(), parameters.volume()});
+        }
+    }
+
+    @Test
+    public void testMetricComputationDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        TetrahedronValidatorImpl validator = new TetrahedronValidatorImpl();
+        int computations = 100_000;
+        double sum = 0;
+        for (int i = 0; i < computations; i++) {
+            sum += computeEverything(validator);
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < computations; i++) {
+            sum += computeEverything(validator);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        Assert.assertTrue(sum > 0);
+        Assert.assertTrue(allocated / computations == 0,
+                "Expected no per-computation allocation but got " + allocated + " bytes");
+    }
+
+    private double computeEverything(TetrahedronValidatorImpl validator) {
+        calculator.computeAll(validTetrahedron, metricsBuffer);
+        double metrics = calculator.computePerimeter(validTetrahedron) + calculator.computeArea(validTetrahedron)
+                + calculator.computeVolume(validTetrahedron) + metricsBuffer[0] + metricsBuffer[1] + metricsBuffer[2];
+        return validator.isValid(validTetrahedron) ? metrics : -metrics;
+    }
+}
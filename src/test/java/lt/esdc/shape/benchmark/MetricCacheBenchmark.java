@@ -0,0 +1,99 @@
+package lt.esdc.shape.benchmark;
+
+import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.comparator.TetrahedronByAreaComparator;
+import lt.esdc.shape.entity.AbstractShape;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.repository.TetrahedronRepository;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.impl.AreaRangeTetrahedronSpecification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares sorting and scanning the repository with metrics read from the Warehouse against recomputing them.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=lt.esdc.shape.benchmark.MetricCacheBenchmark}; pass the number of shapes as the first argument.
+ */
+public class MetricCacheBenchmark {
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        TetrahedronRepository repository = TetrahedronRepository.getInstance();
+        Random random = new Random(42);
+        List<Tetrahedron> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(new Tetrahedron(1_000_000_000L + i, new Point(0, 0, 0), new Point(1 + random.nextDouble(), 0, 0),
+                    new Point(0, 1 + random.nextDouble(), 0), new Point(0, 0, 1 + random.nextDouble())));
+        }
+        repository.addAll(batch);
+
+        ShapeCalculator calculator = new TetrahedronCalculatorImpl();
+        Comparator<Tetrahedron> computing = Comparator.comparingDouble(calculator::computeArea);
+        ShapeCalculator uncached = new ShapeCalculatorDelegate(calculator);
+        TetrahedronSpecification cachedQuery = new AreaRangeTetrahedronSpecification(calculator, 4.0, 2.0);
+        TetrahedronSpecification computedQuery = new AreaRangeTetrahedronSpecification(uncached, 4.0, 2.0);
+
+        report("sort, recomputed area", () -> sort(repository, computing));
+        report("sort, cached area", () -> sort(repository, new TetrahedronByAreaComparator()));
+        report("scan, recomputed area", () -> scan(repository, computedQuery));
+        report("scan, cached area", () -> scan(repository, cachedQuery));
+    }
+
+    private static void sort(TetrahedronRepository repository, Comparator<Tetrahedron> comparator) {
+        List<Tetrahedron> tetrahedrons = repository.getAllTetrahedrons();
+        tetrahedrons.sort(comparator);
+    }
+
+    private static void scan(TetrahedronRepository repository, TetrahedronSpecification specification) {
+        int matches = 0;
+        for (Tetrahedron tetrahedron : repository.getAllTetrahedrons()) {
+            if (specification.isSatisfiedBy(tetrahedron)) {
+                matches++;
+            }
+        }
+        if (matches < 0) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static void report(String name, Runnable task) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            task.run();
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+        System.out.printf("%-26s %10.2f ms%n", name, millis);
+    }
+
+    /**
+     * A calculator that is not the default one, so specifications using it always recompute.
+     */
+    record ShapeCalculatorDelegate(ShapeCalculator delegate) implements ShapeCalculator {
+
+        @Override
+        public double computePerimeter(AbstractShape abstractShape) {
+            return delegate.computePerimeter(abstractShape);
+        }
+
+        @Override
+        public double computeArea(AbstractShape abstractShape) {
+            return delegate.computeArea(abstractShape);
+        }
+
+        @Override
+        public double computeVolume(AbstractShape abstractShape) {
+            return delegate.computeVolume(abstractShape);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package lt.esdc.shape.benchmark;
+
+import lt.esdc.shape.action.ShapeCalculator;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.repository.parallel.ParallelQueryExecutor;
+import lt.esdc.shape.repository.parallel.QueryControl;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.impl.VolumeRangeTetrahedronSpecification;
+import lt.esdc.shape.warehouse.Warehouse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Finds where filtering query candidates in parallel starts to beat filtering them sequentially, for a
+ * specification that reads cached volumes and for one that computes them, over growing candidate counts.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=lt.esdc.shape.benchmark.ParallelQueryBenchmark}; pass the parallelism and the largest
+ * candidate count as arguments. The smallest count at which parallel wins is the threshold to configure with
+ * {@code TetrahedronRepository.configureParallelQuery}, in cached-metric checks.
+ */
+public class ParallelQueryBenchmark {
+    private static final int WARMUP_MILLIS = 300;
+    private static final int MEASURED_MILLIS = 500;
+
+    public static void main(String[] args) {
+        int parallelism = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int maxCount = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 20;
+        List<Tetrahedron> candidates = shapes(maxCount);
+
+        ShapeCalculator calculator = new TetrahedronCalculatorImpl();
+        TetrahedronSpecification cached = new VolumeRangeTetrahedronSpecification(calculator, 1, 2);
+        TetrahedronSpecification computed = new VolumeRangeTetrahedronSpecification(
+                new MetricCacheBenchmark.ShapeCalculatorDelegate(calculator), 1, 2);
+        ParallelQueryExecutor sequential = new ParallelQueryExecutor(parallelism, Integer.MAX_VALUE);
+        ParallelQueryExecutor parallel = new ParallelQueryExecutor(parallelism, 0);
+
+        System.out.printf("parallelism %d%n%-10s %-9s %12s %12s %8s%n", parallelism, "count", "metric",
+                "sequential", "parallel", "speedup");
+        for (int count = 1 << 8; count <= maxCount; count <<= 2) {
+            List<Tetrahedron> slice = candidates.subList(0, count);
+            for (TetrahedronSpecification filter : List.of(cached, computed)) {
+                double sequentialMicros = measure(() -> sequential.filter(slice, filter, QueryControl.unbounded()));
+                double parallelMicros = measure(() -> parallel.filter(slice, filter, QueryControl.unbounded()));
+                System.out.printf("%-10d %-9s %10.1f us %10.1f us %7.2fx%n", count,
+                        filter == cached ? "cached" : "computed", sequentialMicros, parallelMicros,
+                        sequentialMicros / parallelMicros);
+            }
+        }
+        sequential.shutdown();
+        parallel.shutdown();
+    }
+
+    private static List<Tetrahedron> shapes(int count) {
+        Random random = new Random(42);
+        Warehouse warehouse = Warehouse.getInstance();
+        ShapeCalculator calculator = new TetrahedronCalculatorImpl();
+        List<Tetrahedron> shapes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Tetrahedron tetrahedron = new Tetrahedron(2_000_000_000L + i, new Point(0, 0, 0),
+                    new Point(1 + random.nextDouble(), 0, 0), new Point(0, 1 + random.nextDouble(), 0),
+                    new Point(0, 0, 1 + random.nextDouble()));
+            warehouse.putParameters(tetrahedron.getNumericId(), calculator.computeAll(tetrahedron));
+            shapes.add(tetrahedron);
+        }
+        return shapes;
+    }
+
+    /**
+     * Runs the task repeatedly for a fixed time after warming up and returns the mean time of one run.
+     */
+    private static double measure(Runnable task) {
+        long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1_000_000L;
+        while (System.nanoTime() < warmupEnd) {
+            task.run();
+        }
+        int runs = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            task.run();
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURED_MILLIS * 1_000_000L);
+        return elapsed / 1e3 / runs;
+    }
+}
@@ -0,0 +1,33 @@
+package lt.esdc.shape.comparator;
+
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TetrahedronByIdComparatorTest {
+
+    @Test
+    public void testGeneratedIdsNumericallyThenNamesAlphabetically() {
+        Tetrahedron ten = shape(10);
+        Tetrahedron nine = shape(9);
+        Tetrahedron beta = new Tetrahedron("beta", point(0), point(1), point(2), point(3));
+        Tetrahedron alpha = new Tetrahedron("alpha", point(0), point(1), point(2), point(3));
+        List<Tetrahedron> tetrahedrons = new ArrayList<>(List.of(beta, ten, alpha, nine));
+
+        tetrahedrons.sort(new TetrahedronByIdComparator());
+
+        Assert.assertEquals(tetrahedrons, List.of(nine, ten, alpha, beta));
+    }
+
+    private static Tetrahedron shape(long id) {
+        return new Tetrahedron(id, point(0), point(1), point(2), point(3));
+    }
+
+    private static Point point(double x) {
+        return new Point(x, x * x, 1);
+    }
+}
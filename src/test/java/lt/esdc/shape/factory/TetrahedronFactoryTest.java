@@ -1,12 +1,15 @@
 package lt.esdc.shape.factory;
 
+import lt.esdc.shape.entity.Point;
 import lt.esdc.shape.entity.Tetrahedron;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 
 public class TetrahedronFactoryTest {
@@ -30,4 +33,23 @@ public class TetrahedronFactoryTest {
 
         assertNotNull(tetrahedron);
     }
+
+    @Test
+    public void testCreateFromPrimitiveCoordinates() {
+        double[] coordinates = params.stream().mapToDouble(Double::doubleValue).toArray();
+
+        Tetrahedron tetrahedron = factory.createShape(coordinates);
+
+        assertEquals(tetrahedron.getPointA(), new Point(0.0, 0.0, 2.0));
+        assertEquals(tetrahedron.getPointD(), new Point(0.0, 0.0, 1.0));
+    }
+
+    @Test
+    public void testCreateWithCustomIdGenerator() {
+        AtomicLong sequence = new AtomicLong(5_000_000_000L);
+        TetrahedronFactory custom = new TetrahedronFactory(sequence::incrementAndGet);
+
+        assertEquals(custom.createShape(params).getNumericId(), 5_000_000_001L);
+        assertEquals(custom.createShape(params).getNumericId(), 5_000_000_002L);
+    }
 }
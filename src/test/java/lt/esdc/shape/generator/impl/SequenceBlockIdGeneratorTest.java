@@ -0,0 +1,57 @@
+package lt.esdc.shape.generator.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class SequenceBlockIdGeneratorTest {
+
+    @Test
+    public void testIdsAreUniqueAcrossThreads() throws InterruptedException {
+        SequenceBlockIdGenerator generator = new SequenceBlockIdGenerator(16);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Assert.assertEquals(ids.size(), 80_000);
+    }
+
+    @Test
+    public void testIdsIncreaseWithinThread() {
+        SequenceBlockIdGenerator generator = new SequenceBlockIdGenerator(4);
+        long previous = generator.nextId();
+
+        for (int i = 0; i < 20; i++) {
+            long next = generator.nextId();
+            Assert.assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void testGeneratorsShareOneSequence() {
+        SequenceBlockIdGenerator small = new SequenceBlockIdGenerator(4);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(small.nextId());
+            ids.add(SequenceBlockIdGenerator.getInstance().nextId());
+        }
+
+        Assert.assertEquals(ids.size(), 200);
+    }
+}
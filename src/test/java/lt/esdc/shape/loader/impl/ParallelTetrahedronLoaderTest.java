@@ -0,0 +1,96 @@
+package lt.esdc.shape.loader.impl;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.exception.FileReadException;
+import lt.esdc.shape.exception.ShapeValidationException;
+import lt.esdc.shape.factory.TetrahedronFactory;
+import lt.esdc.shape.repository.TetrahedronRepository;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ParallelTetrahedronLoaderTest {
+
+    @AfterMethod
+    public void tearDown() {
+        TetrahedronRepository.getInstance().clear();
+    }
+
+    @Test
+    public void testParallelLoadPreservesLineOrder() throws Exception {
+        Path file = Files.createTempFile("tetrahedrons", ".txt");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            content.append(i).append(" 0 0 ").append(i + 1).append(" 0 0 ").append(i).append(" 1 0 ")
+                    .append(i).append(" 0 1").append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 50 == 0) {
+                content.append("broken line\n\n");
+            }
+        }
+        Files.writeString(file, content);
+
+        List<Tetrahedron> sequential = new TetrahedronLoader(new TetrahedronFactory()).loadShapesFromFile(file.toString());
+        List<Tetrahedron> parallel = new ParallelTetrahedronLoader(new TetrahedronFactory(), 4, 256)
+                .loadShapesFromFile(file.toString());
+
+        Assert.assertEquals(parallel.size(), 500);
+        for (int i = 0; i < parallel.size(); i++) {
+            Assert.assertEquals(parallel.get(i).getPointA(), sequential.get(i).getPointA());
+            Assert.assertEquals(parallel.get(i).getPointD(), sequential.get(i).getPointD());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void testParallelLoadDrawsIdsInLineOrder() throws Exception {
+        Path file = Files.createTempFile("tetrahedrons", ".txt");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            content.append(i).append(" 0 0 ").append(i + 1).append(" 0 0 ").append(i).append(" 1 0 ")
+                    .append(i).append(" 0 1\n");
+        }
+        Files.writeString(file, content);
+        AtomicLong sequence = new AtomicLong(7_000_000_000L);
+        ParallelTetrahedronLoader loader = new ParallelTetrahedronLoader(
+                new TetrahedronFactory(sequence::incrementAndGet), 4, 128);
+
+        for (int load = 0; load < 2; load++) {
+            List<Tetrahedron> loaded = loader.loadShapesFromFile(file.toString());
+
+            long first = loaded.get(0).getNumericId();
+            for (int i = 0; i < loaded.size(); i++) {
+                Assert.assertEquals(loaded.get(i).getNumericId(), first + i);
+                Assert.assertEquals(loaded.get(i).getPointA().x(), (double) i);
+            }
+            TetrahedronRepository.getInstance().clear();
+        }
+        Files.delete(file);
+    }
+
+    @Test(expectedExceptions = ShapeValidationException.class)
+    public void testParallelLoadRejectsInvalidTetrahedron() throws Exception {
+        Path file = Files.createTempFile("tetrahedrons", ".txt");
+        Files.writeString(file, "0 0 0 1 0 0 0 1 0 0 0 1\n0 0 0 1 0 0 0 1 0 1 1 0\n");
+        try {
+            new ParallelTetrahedronLoader(new TetrahedronFactory(), 2, 8).loadShapesFromFile(file.toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expectedExceptions = FileReadException.class)
+    public void testParallelLoadRejectsLineLongerThanChunkLimit() throws Exception {
+        Path file = Files.createTempFile("tetrahedrons", ".txt");
+        Files.writeString(file, "0 0 0 1 0 0 0 1 0 0 0 1\n" + " ".repeat(100) + "0 0 0 1 0 0 0 1 0 0 0 1\n");
+        try {
+            new ParallelTetrahedronLoader(new TetrahedronFactory(), 2, 8, 64).loadShapesFromFile(file.toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
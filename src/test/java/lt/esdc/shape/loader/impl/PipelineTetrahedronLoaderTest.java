@@ -0,0 +1,123 @@
+package lt.esdc.shape.loader.impl;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.factory.TetrahedronFactory;
+import lt.esdc.shape.loader.PipelineStageStatistics;
+import lt.esdc.shape.repository.TetrahedronRepository;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PipelineTetrahedronLoaderTest {
+    private static final int QUEUE_CAPACITY = 4;
+
+    @AfterMethod
+    public void tearDown() {
+        TetrahedronRepository.getInstance().clear();
+    }
+
+    @Test
+    public void testPipelineLoadsAllValidLines() throws Exception {
+        Path file = writeShapes(200, "broken line\n");
+        PipelineTetrahedronLoader pipeline = new PipelineTetrahedronLoader(new TetrahedronFactory(), 2, 2,
+                QUEUE_CAPACITY);
+
+        List<Tetrahedron> loaded = pipeline.loadShapesFromFile(file.toString());
+
+        Assert.assertEquals(loaded.size(), 200);
+        Assert.assertEquals(pipeline.getStatistics().get(0).getProcessed(), 201);
+        Assert.assertEquals(pipeline.getStatistics().get(3).getProcessed(), 200);
+        Files.delete(file);
+    }
+
+    @Test
+    public void testSlowStageThrottlesReader() throws Exception {
+        Path file = writeShapes(1_000, "");
+        CountDownLatch release = new CountDownLatch(1);
+        TetrahedronFactory blockingFactory = new TetrahedronFactory() {
+            @Override
+            public Tetrahedron createShape(double[] parameters) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.createShape(parameters);
+            }
+        };
+        PipelineTetrahedronLoader pipeline = new PipelineTetrahedronLoader(blockingFactory, 1, 1, QUEUE_CAPACITY);
+
+        CompletableFuture<List<Tetrahedron>> load = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pipeline.loadShapesFromFile(file.toString());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        PipelineStageStatistics read = awaitReadStalled(pipeline);
+
+        // Every queue is full and each worker holds one item; nothing more may have been read.
+        Assert.assertTrue(read.getProcessed() <= 2L * QUEUE_CAPACITY + 3, "Read " + read.getProcessed() + " lines");
+        release.countDown();
+        Assert.assertEquals(load.get(30, TimeUnit.SECONDS).size(), 1_000);
+        Files.delete(file);
+    }
+
+    @Test
+    public void testFailingStageIsRethrown() throws Exception {
+        Path file = writeShapes(500, "");
+        AtomicInteger created = new AtomicInteger();
+        TetrahedronFactory failingFactory = new TetrahedronFactory() {
+            @Override
+            public Tetrahedron createShape(double[] parameters) {
+                if (created.incrementAndGet() == 10) {
+                    throw new IllegalArgumentException("factory failure");
+                }
+                return super.createShape(parameters);
+            }
+        };
+        PipelineTetrahedronLoader pipeline = new PipelineTetrahedronLoader(failingFactory, 2, 2, QUEUE_CAPACITY);
+
+        IllegalArgumentException failure = Assert.expectThrows(IllegalArgumentException.class,
+                () -> pipeline.loadShapesFromFile(file.toString()));
+        Assert.assertEquals(failure.getMessage(), "factory failure");
+        Files.delete(file);
+    }
+
+    private static PipelineStageStatistics awaitReadStalled(PipelineTetrahedronLoader pipeline)
+            throws InterruptedException {
+        long previous = -1;
+        while (true) {
+            Thread.sleep(100);
+            List<PipelineStageStatistics> statistics = pipeline.getStatistics();
+            if (statistics.isEmpty()) {
+                continue;
+            }
+            long processed = statistics.get(0).getProcessed();
+            if (processed > 0 && processed == previous) {
+                return statistics.get(0);
+            }
+            previous = processed;
+        }
+    }
+
+    private static Path writeShapes(int count, String trailer) throws Exception {
+        Path file = Files.createTempFile("tetrahedrons", ".txt");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            content.append(i).append(" 0 0 ").append(i + 1).append(" 0 0 ").append(i).append(" 1 0 ")
+                    .append(i).append(" 0 1\n");
+        }
+        content.append(trailer);
+        Files.writeString(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,62 @@
+package lt.esdc.shape.loader.impl;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.exception.ShapeValidationException;
+import lt.esdc.shape.factory.TetrahedronFactory;
+import org.testng.Assert;
+import lt.esdc.shape.repository.TetrahedronRepository;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TetrahedronLoaderTest {
+
+    private TetrahedronLoader loader;
+
+    @BeforeClass
+    public void setUp() {
+        loader = new TetrahedronLoader(new TetrahedronFactory());
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        TetrahedronRepository.getInstance().clear();
+    }
+
+    @Test
+    public void testStreamingSkipsUnparsableLines() throws Exception {
+        Path file = Files.createTempFile("tetrahedrons", ".txt");
+        Files.writeString(file, """
+                0.0 0.0 0.0 1.0 0.0 0.0 0.0 1.0 0.0 0.0 0.0 1.0
+
+                not a tetrahedron
+                1.0 1.0 1.0 2.0 1.0 1.0 1.0 2.0 1.0 1.5 1.5 2.0
+                """);
+        List<Tetrahedron> received = new ArrayList<>();
+        List<Long> progress = new ArrayList<>();
+
+        long loaded = loader.loadShapesFromFileStreaming(file.toString(), received::add,
+                (linesRead, shapesLoaded) -> progress.add(linesRead), 1);
+
+        Assert.assertEquals(loaded, 2);
+        Assert.assertEquals(received.size(), 2);
+        Assert.assertEquals(progress, List.of(1L, 2L, 3L, 3L));
+        Files.delete(file);
+    }
+
+    @Test(expectedExceptions = ShapeValidationException.class)
+    public void testStreamingRejectsInvalidTetrahedron() throws Exception {
+        Path file = Files.createTempFile("tetrahedrons", ".txt");
+        Files.writeString(file, "0.0 0.0 0.0 1.0 0.0 0.0 0.0 1.0 0.0 1.0 1.0 0.0\n");
+        try {
+            loader.loadShapesFromFileStreaming(file.toString(), tetrahedron -> { }, (linesRead, shapesLoaded) -> { });
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
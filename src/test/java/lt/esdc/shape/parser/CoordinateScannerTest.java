@@ -0,0 +1,92 @@
+package lt.esdc.shape.parser;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class CoordinateScannerTest {
+
+    private static final String LINE = "0.0 0.0 1.0 1.0 0.0 0.0 0.0 1.0 0.0 0.5 0.5 0.5";
+    /**
+     * Far below one byte per scanned line, so any per-line allocation fails the check.
+     */
+    private static final long MAX_ALLOCATED_BYTES = 16 * 1024;
+    private CoordinateScanner scanner;
+    private double[] target;
+
+    @BeforeMethod
+    public void setUp() {
+        scanner = new CoordinateScanner();
+        target = new double[12];
+    }
+
+    @DataProvider
+    public Object[][] tokens() {
+        return new Object[][]{
+                {"0"}, {"-0.0"}, {"+1.5"}, {"3.14159"}, {"-2.718281828459045"}, {".5"}, {"5."},
+                {"1e10"}, {"1.25E-7"}, {"123456789012345678901234"}, {"1e300"}, {"4.9e-324"},
+                {"0.1"}, {"0.30000000000000004"}, {"1d"}, {"NaN"}, {"-Infinity"}, {"0x1p3"}
+        };
+    }
+
+    @Test(dataProvider = "tokens")
+    public void testScanMatchesParseDouble(String token) {
+        int count = scanner.scan("  " + token + "\t", target);
+
+        Assert.assertEquals(count, 1);
+        Assert.assertEquals(Double.doubleToRawLongBits(target[0]), Double.doubleToRawLongBits(Double.parseDouble(token)));
+    }
+
+    @Test
+    public void testScanFullLine() {
+        int count = scanner.scan(LINE, target);
+
+        Assert.assertEquals(count, 12);
+        Assert.assertEquals(target[2], 1.0);
+        Assert.assertEquals(target[11], 0.5);
+    }
+
+    @Test
+    public void testScanRejectsMalformedLines() {
+        Assert.assertEquals(scanner.scan("1.0 abc 2.0", target), CoordinateScanner.INVALID);
+        Assert.assertEquals(scanner.scan("1.0 1e 2.0", target), CoordinateScanner.INVALID);
+        Assert.assertEquals(scanner.scan(LINE + " 1.0", target), CoordinateScanner.INVALID);
+        Assert.assertEquals(scanner.scan("   ", target), 0);
+    }
+
+    @Test
+    public void testScanByteBuffer() {
+        ByteBuffer buffer = ByteBuffer.wrap(("xx" + LINE + "\n").getBytes(StandardCharsets.US_ASCII));
+
+        int count = scanner.scan(buffer, 2, 2 + LINE.length(), target);
+
+        Assert.assertEquals(count, 12);
+        Assert.assertEquals(target[9], 0.5);
+        Assert.assertEquals(buffer.position(), 0);
+    }
+
+    @Test
+    public void testScanDoesNotAllocatePerLine() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int lines = 200_000;
+        for (int i = 0; i < lines; i++) {
+            scanner.scan(LINE, target);
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < lines; i++) {
+            scanner.scan(LINE, target);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        Assert.assertTrue(allocated < MAX_ALLOCATED_BYTES,
+                "Expected no per-line allocation but got " + allocated + " bytes for " + lines + " lines");
+    }
+}
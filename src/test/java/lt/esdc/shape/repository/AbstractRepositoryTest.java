@@ -0,0 +1,53 @@
+package lt.esdc.shape.repository;
+
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixture shared by the tests of the repository singleton, which empty it before and after every test.
+ */
+public abstract class AbstractRepositoryTest {
+    /**
+     * First numeric ID of fixture shapes, far above the IDs the shared generator hands out during a test run.
+     */
+    protected static final long FIRST_ID = 987_654_000L;
+    protected TetrahedronRepository repository;
+
+    @BeforeMethod
+    public void clearRepository() {
+        repository = TetrahedronRepository.getInstance();
+        repository.clear();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void clearRepositoryAfterTest() {
+        repository.clear();
+    }
+
+    /**
+     * Creates a right-angled Tetrahedron with unit legs along x and y, whose volume is {@code height / 6}.
+     *
+     * @param offset the offset of its numeric ID from {@link #FIRST_ID}
+     * @param height its leg along z
+     */
+    protected static Tetrahedron shape(long offset, double height) {
+        return new Tetrahedron(FIRST_ID + offset, new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0),
+                new Point(0, 0, height));
+    }
+
+    /**
+     * Creates {@code count} Tetrahedrons of the given height with consecutive numeric IDs from {@link #FIRST_ID}.
+     */
+    protected static List<Tetrahedron> shapes(int count, double height) {
+        List<Tetrahedron> shapes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            shapes.add(shape(i, height));
+        }
+        return shapes;
+    }
+}
@@ -0,0 +1,190 @@
+package lt.esdc.shape.repository;
+
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.impl.WarehouseObserver;
+import lt.esdc.shape.specification.impl.VolumeRangeTetrahedronSpecification;
+import lt.esdc.shape.warehouse.Warehouse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TetrahedronRepositoryConcurrencyTest {
+    private static final long FIRST_ID = 7_000_000_000L;
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int SHAPES_PER_WRITER = 250;
+    private static final int EDITS_PER_SHAPE = 4;
+    private static final long SHARED_FIRST_ID = FIRST_ID + 100_000;
+    private static final int SHARED_SHAPES = 16;
+    private static final int SHARED_EDITS = 500;
+
+    @Test
+    public void testConcurrentWritesAndReads() throws Exception {
+        TetrahedronRepository repository = TetrahedronRepository.getInstance();
+        Warehouse warehouse = Warehouse.getInstance();
+        VolumeRangeTetrahedronSpecification range =
+                new VolumeRangeTetrahedronSpecification(new TetrahedronCalculatorImpl(), 1.0e6, 2.0e6);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<String> tornRecords = new ConcurrentLinkedQueue<>();
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            long firstId = FIRST_ID + (long) w * SHAPES_PER_WRITER;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < SHAPES_PER_WRITER; i++) {
+                    Tetrahedron tetrahedron = shape(firstId + i, height(0));
+                    Assert.assertTrue(repository.add(tetrahedron));
+                    for (int edit = 1; edit <= EDITS_PER_SHAPE; edit++) {
+                        tetrahedron.setPointD(new Point(0, 0, height(edit)));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    for (Tetrahedron tetrahedron : repository.query(range)) {
+                        Warehouse.ShapeParameters parameters = warehouse.getParameters(tetrahedron.getNumericId());
+                        if (parameters != null && !isConsistent(parameters)) {
+                            tornRecords.add(tetrahedron.getId() + " " + parameters);
+                        }
+                    }
+                    repository.findById(Tetrahedron.ID_PREFIX + FIRST_ID);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Assert.assertTrue(tornRecords.isEmpty(), "Torn records: " + tornRecords);
+        for (long id = FIRST_ID; id < FIRST_ID + WRITERS * SHAPES_PER_WRITER; id++) {
+            Tetrahedron stored = repository.findById(Tetrahedron.ID_PREFIX + id).orElseThrow();
+            Assert.assertEquals(stored.getPointD().z(), height(EDITS_PER_SHAPE));
+            Assert.assertEquals(warehouse.getParameters(id).volume(), height(EDITS_PER_SHAPE) * 1.0e4 / 6, 1e-6);
+            Assert.assertTrue(repository.removeById(stored.getId()));
+        }
+    }
+
+    @Test
+    public void testConcurrentEditsOfSameShapeLeaveCurrentMetrics() throws Exception {
+        TetrahedronRepository repository = TetrahedronRepository.getInstance();
+        Warehouse warehouse = Warehouse.getInstance();
+        List<Tetrahedron> shared = new ArrayList<>();
+        for (int i = 0; i < SHARED_SHAPES; i++) {
+            Tetrahedron tetrahedron = shape(SHARED_FIRST_ID + i, height(0));
+            repository.add(tetrahedron);
+            shared.add(tetrahedron);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int edit = 0; edit < SHARED_EDITS; edit++) {
+                    for (Tetrahedron tetrahedron : shared) {
+                        tetrahedron.setPointD(new Point(0, 0, height(edit % 7 + writer)));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (Tetrahedron tetrahedron : shared) {
+            Assert.assertEquals(warehouse.getParameters(tetrahedron.getNumericId()),
+                    new TetrahedronCalculatorImpl().computeAll(tetrahedron), tetrahedron.getId());
+            Assert.assertTrue(repository.remove(tetrahedron));
+        }
+    }
+
+    @Test
+    public void testDelayedUpdateDoesNotOverwriteNewerMetrics() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        AtomicReference<Thread> pausedThread = new AtomicReference<>();
+        Tetrahedron tetrahedron = new Tetrahedron(SHARED_FIRST_ID + SHARED_SHAPES, new Point(0, 0, 0),
+                new Point(100, 0, 0), new Point(0, 100, 0), new Point(0, 0, height(0))) {
+            @Override
+            public Point getPointD() {
+                Point point = super.getPointD();
+                if (pausedThread.compareAndSet(Thread.currentThread(), null)) {
+                    reading.countDown();
+                    try {
+                        resume.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return point;
+            }
+        };
+        tetrahedron.addObserver(new WarehouseObserver());
+
+        Thread slow = new Thread(() -> tetrahedron.setPointD(new Point(0, 0, height(1))));
+        pausedThread.set(slow);
+        slow.start();
+        reading.await();
+        Thread fast = new Thread(() -> tetrahedron.setPointD(new Point(0, 0, height(2))));
+        fast.start();
+        fast.join(200);
+        resume.countDown();
+        slow.join();
+        fast.join();
+
+        Assert.assertEquals(Warehouse.getInstance().getParameters(tetrahedron.getNumericId()),
+                new TetrahedronCalculatorImpl().computeAll(tetrahedron));
+        Warehouse.getInstance().remove(tetrahedron.getNumericId());
+    }
+
+    private static double height(int edit) {
+        return 600 + edit * 100;
+    }
+
+    private static Tetrahedron shape(long id, double height) {
+        return new Tetrahedron(id, new Point(0, 0, 0), new Point(100, 0, 0), new Point(0, 100, 0),
+                new Point(0, 0, height));
+    }
+
+    /**
+     * Every shape has the same base, so the volume determines the height and with it the perimeter.
+     */
+    private static boolean isConsistent(Warehouse.ShapeParameters parameters) {
+        double height = parameters.volume() * 6 / 1.0e4;
+        double perimeter = 200 + 100 * Math.sqrt(2) + height + 2 * Math.hypot(100, height);
+        return Math.abs(parameters.perimeter() - perimeter) < 1e-6;
+    }
+}
@@ -0,0 +1,33 @@
+package lt.esdc.shape.repository;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.repository.page.Page;
+import lt.esdc.shape.specification.impl.IdSetTetrahedronSpecification;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TetrahedronRepositoryPagingTest extends AbstractRepositoryTest {
+
+    @Test
+    public void testQueryPageAndStream() {
+        List<Tetrahedron> added = shapes(5, 1);
+        repository.addAll(added);
+        IdSetTetrahedronSpecification matching = new IdSetTetrahedronSpecification(
+                added.stream().mapToLong(Tetrahedron::getNumericId).toArray());
+
+        List<Tetrahedron> paged = new ArrayList<>();
+        Page page = repository.queryPage(matching, 0, 2);
+        paged.addAll(page.items());
+        while (page.hasNext()) {
+            page = repository.queryPage(matching, page.nextCursor(), 2);
+            paged.addAll(page.items());
+        }
+
+        Assert.assertEquals(paged, added);
+        Assert.assertEquals(repository.stream(matching).limit(2).toList(), added.subList(0, 2));
+        Assert.assertEquals(repository.query(matching, 3, 10), added.subList(3, 5));
+    }
+}
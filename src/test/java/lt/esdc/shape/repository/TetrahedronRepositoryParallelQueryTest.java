@@ -0,0 +1,43 @@
+package lt.esdc.shape.repository;
+
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.repository.parallel.ParallelQueryExecutor;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+public class TetrahedronRepositoryParallelQueryTest extends AbstractRepositoryTest {
+
+    @Test
+    public void testQueryTimesOut() {
+        repository.addAll(shapes(2_000, 1));
+        TetrahedronSpecification slow = tetrahedron -> {
+            LockSupport.parkNanos(100_000);
+            return true;
+        };
+
+        Assert.assertThrows(TimeoutException.class, () -> repository.query(slow, 20, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testShutdownReleasesPoolsAndLaterQueriesStartNewOnes() {
+        List<Tetrahedron> added = shapes(100, 1);
+        repository.addAll(added);
+        repository.configureParallelQuery(2, 0);
+        ParallelQueryExecutor configured = repository.getQueryExecutor();
+        TetrahedronSpecification any = tetrahedron -> true;
+        Assert.assertEquals(repository.query(any), added);
+
+        repository.shutdown();
+
+        Assert.assertTrue(configured.isShutdown());
+        Assert.assertEquals(repository.query(any), added);
+        Assert.assertNotSame(repository.getQueryExecutor(), configured);
+        Assert.assertEquals(repository.getQueryExecutor().getThreshold(), ParallelQueryExecutor.DEFAULT_THRESHOLD);
+    }
+}
@@ -0,0 +1,51 @@
+package lt.esdc.shape.repository;
+
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.repository.plan.QueryPlan;
+import lt.esdc.shape.specification.impl.VolumeRangeTetrahedronSpecification;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TetrahedronRepositoryRangeQueryTest extends AbstractRepositoryTest {
+
+    @Test
+    public void testVolumeRangeQueryUsesCurrentPoints() {
+        Tetrahedron small = new Tetrahedron("range_small", new Point(0, 0, 0), new Point(100, 0, 0),
+                new Point(0, 100, 0), new Point(0, 0, 100));
+        Tetrahedron large = new Tetrahedron("range_large", new Point(0, 0, 0), new Point(200, 0, 0),
+                new Point(0, 200, 0), new Point(0, 0, 200));
+        repository.add(large);
+        repository.add(small);
+        VolumeRangeTetrahedronSpecification range =
+                new VolumeRangeTetrahedronSpecification(new TetrahedronCalculatorImpl(), 1.0e5, 2.0e5);
+
+        Assert.assertEquals(repository.query(range), List.of(small));
+
+        large.setPointB(new Point(50, 0, 0));
+        Assert.assertEquals(repository.query(range), List.of(small));
+        large.setPointB(new Point(20, 0, 0));
+        Assert.assertEquals(repository.query(range), List.of(large, small));
+
+        repository.remove(small);
+        Assert.assertEquals(repository.query(range), List.of(large));
+    }
+
+    @Test
+    public void testIndexRangeResultsKeepRepositoryOrder() {
+        List<Tetrahedron> added = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            added.add(shape(i, 600_000 - 6 * i));
+        }
+        repository.addAll(added);
+        VolumeRangeTetrahedronSpecification range =
+                new VolumeRangeTetrahedronSpecification(new TetrahedronCalculatorImpl(), 99_990, 100_000);
+
+        Assert.assertEquals(repository.explain(range).getAccessPath(), QueryPlan.AccessPath.INDEX_RANGE);
+        Assert.assertEquals(repository.query(range), added);
+    }
+}
@@ -9,16 +9,14 @@ import org.testng.annotations.Test;
 
 import java.util.List;
 
-public class TetrahedronRepositoryTest {
+public class TetrahedronRepositoryTest extends AbstractRepositoryTest {
 
-    private TetrahedronRepository tetrahedronRepository;
     private Tetrahedron tetrahedronOne;
     private Tetrahedron tetrahedronThree;
     private IdTetrahedronSpecification specification;
 
     @BeforeMethod
     public void setUp() {
-        tetrahedronRepository = TetrahedronRepository.getInstance();
         tetrahedronOne = new Tetrahedron("id1", new Point(1, 1, 1), new Point(2, 1, 1), new Point(1, 3, 1), new Point(1, 1, 4));
         tetrahedronThree = new Tetrahedron("id3", new Point(1, 1, 1), new Point(2, 1, 1), new Point(1, 3, 1), new Point(1, 1, 4));
         specification = new IdTetrahedronSpecification("id1");
@@ -26,41 +24,68 @@ public class TetrahedronRepositoryTest {
 
     @Test
     public void testAdd() {
-        boolean result = tetrahedronRepository.add(tetrahedronOne);
+        boolean result = repository.add(tetrahedronOne);
 
         Assert.assertTrue(result);
 
-        List<Tetrahedron> allTetrahedrons = tetrahedronRepository.getAllTetrahedrons();
+        List<Tetrahedron> allTetrahedrons = repository.getAllTetrahedrons();
         Assert.assertTrue(allTetrahedrons.contains(tetrahedronOne));
     }
 
     @Test
     public void testRemove() {
-        tetrahedronRepository.add(tetrahedronThree);
+        repository.add(tetrahedronThree);
 
-        boolean result = tetrahedronRepository.remove(tetrahedronThree);
+        boolean result = repository.remove(tetrahedronThree);
 
         Assert.assertTrue(result);
 
-        List<Tetrahedron> allTetrahedrons = tetrahedronRepository.getAllTetrahedrons();
+        List<Tetrahedron> allTetrahedrons = repository.getAllTetrahedrons();
         Assert.assertFalse(allTetrahedrons.contains(tetrahedronThree));
     }
 
     @Test
     public void testQuery() {
-        tetrahedronRepository.add(tetrahedronOne);
+        repository.add(tetrahedronOne);
 
-        List<Tetrahedron> result = tetrahedronRepository.query(specification);
+        List<Tetrahedron> result = repository.query(specification);
 
         Assert.assertTrue(result.contains(tetrahedronOne));
     }
 
     @Test
     public void testGetAllTetrahedrons() {
-        tetrahedronRepository.add(tetrahedronOne);
+        repository.add(tetrahedronOne);
 
-        List<Tetrahedron> result = tetrahedronRepository.getAllTetrahedrons();
+        List<Tetrahedron> result = repository.getAllTetrahedrons();
 
         Assert.assertTrue(result.contains(tetrahedronOne));
     }
+
+    @Test
+    public void testFindAndRemoveById() {
+        Tetrahedron generated = shape(321, 1);
+        repository.add(generated);
+
+        Assert.assertEquals(repository.findById("tetrahedron_987654321").orElseThrow(), generated);
+        Assert.assertEquals(repository.query(new IdTetrahedronSpecification(generated.getId())), List.of(generated));
+        Assert.assertTrue(repository.findById("tetrahedron_0987654321").isEmpty());
+
+        Assert.assertTrue(repository.removeById(generated.getId()));
+        Assert.assertTrue(repository.findById(generated.getId()).isEmpty());
+        Assert.assertFalse(repository.removeById(generated.getId()));
+    }
+
+    @Test
+    public void testAddRejectsNumericIdCollision() {
+        Tetrahedron first = shape(7, 1);
+        repository.add(first);
+
+        Assert.assertFalse(repository.add(first));
+        Assert.assertFalse(repository.add(shape(7, 1)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> repository.add(shape(7, 2)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> repository.addAll(List.of(shape(8, 1), shape(7, 3))));
+        Assert.assertEquals(repository.getAllTetrahedrons(), List.of(first, shape(8, 1)));
+        Assert.assertEquals(repository.findById(first.getId()).orElseThrow().getPointD(), new Point(0, 0, 1));
+    }
 }
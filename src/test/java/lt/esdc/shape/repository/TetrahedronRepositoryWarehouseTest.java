@@ -0,0 +1,76 @@
+package lt.esdc.shape.repository;
+
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.repository.aggregate.MetricStatistics;
+import lt.esdc.shape.repository.recompute.MetricRecomputer;
+import lt.esdc.shape.warehouse.Warehouse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TetrahedronRepositoryWarehouseTest extends AbstractRepositoryTest {
+
+    @Test
+    public void testAddPopulatesWarehouse() {
+        Tetrahedron added = shape(0, 6);
+        repository.add(added);
+
+        Assert.assertEquals(Warehouse.getInstance().getVolume(added.getNumericId()), 1.0, 1e-12);
+        added.setPointD(new Point(0, 0, 12));
+        Assert.assertEquals(Warehouse.getInstance().getVolume(added.getNumericId()), 2.0, 1e-12);
+
+        repository.remove(added);
+        Assert.assertFalse(Warehouse.getInstance().contains(added.getNumericId()));
+    }
+
+    @Test
+    public void testRecomputeAllRestoresWarehouse() {
+        Warehouse warehouse = Warehouse.getInstance();
+        List<Tetrahedron> added = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Tetrahedron tetrahedron = shape(i, 6 * i);
+            repository.add(tetrahedron);
+            warehouse.putParameters(tetrahedron.getNumericId(), 0, 0, 0);
+            added.add(tetrahedron);
+        }
+
+        repository.configureRecomputation(2, 2);
+        try {
+            Assert.assertEquals(repository.recomputeAll(), added.size());
+        } finally {
+            repository.configureRecomputation(Runtime.getRuntime().availableProcessors(),
+                    MetricRecomputer.DEFAULT_CHUNK_SIZE);
+        }
+
+        for (int i = 1; i <= added.size(); i++) {
+            Tetrahedron tetrahedron = added.get(i - 1);
+            Assert.assertEquals(warehouse.getVolume(tetrahedron.getNumericId()), i, 1e-12);
+            Assert.assertEquals(warehouse.getParameters(tetrahedron.getNumericId()),
+                    new TetrahedronCalculatorImpl().computeAll(tetrahedron));
+        }
+    }
+
+    @Test
+    public void testRecomputeAllRefreshesIndexesAndAggregates() {
+        List<Tetrahedron> added = shapes(3, 6);
+        repository.addAll(added);
+        for (Tetrahedron tetrahedron : added) {
+            Warehouse.getInstance().putParameters(tetrahedron.getNumericId(), 0, 0, 50);
+        }
+        repository.getMetricIndex().reindexAll(added);
+        repository.getAggregates().updateAll(added);
+        Assert.assertEquals(repository.getMetricIndex().range(ShapeMetric.VOLUME, 1, 1).length, 0);
+
+        repository.recomputeAll();
+
+        Assert.assertEquals(repository.getMetricIndex().range(ShapeMetric.VOLUME, 1, 1).length, added.size());
+        MetricStatistics volumes = repository.getAggregates().getStatistics(ShapeMetric.VOLUME);
+        Assert.assertEquals(volumes.sum(), added.size(), 1e-12);
+        Assert.assertEquals(volumes.max(), 1.0, 1e-12);
+    }
+}
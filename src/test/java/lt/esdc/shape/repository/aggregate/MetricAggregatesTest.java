@@ -0,0 +1,103 @@
+package lt.esdc.shape.repository.aggregate;
+
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.repository.TetrahedronRepository;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+public class MetricAggregatesTest {
+    private static final double[] VOLUME_BOUNDS = {1, 10, 100};
+
+    @Test
+    public void testIncrementalAggregatesMatchRecomputation() {
+        MetricAggregates aggregates = new MetricAggregates();
+        aggregates.setHistogramBounds(ShapeMetric.VOLUME, VOLUME_BOUNDS);
+        Random random = new Random(20);
+        List<Tetrahedron> live = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Tetrahedron tetrahedron = shape(6_000_000L + i, random);
+            aggregates.add(tetrahedron);
+            live.add(tetrahedron);
+        }
+        for (int i = 0; i < 300; i++) {
+            Tetrahedron edited = live.get(random.nextInt(live.size()));
+            edited.setPointD(new Point(random.nextDouble(), random.nextDouble(), 1 + random.nextInt(300)));
+            aggregates.update(edited);
+        }
+        for (int i = 0; i < 150; i++) {
+            aggregates.remove(live.remove(random.nextInt(live.size())).getNumericId());
+        }
+        aggregates.update(shape(5_999_999L, random));
+
+        assertMatchesRecomputation(aggregates, live);
+        for (Tetrahedron tetrahedron : new ArrayList<>(live)) {
+            aggregates.remove(tetrahedron.getNumericId());
+        }
+        MetricStatistics empty = aggregates.getStatistics(ShapeMetric.AREA);
+        Assert.assertEquals(empty, new MetricStatistics(0, 0.0, Double.NaN, Double.NaN));
+        Assert.assertEquals(aggregates.getHistogram(ShapeMetric.VOLUME), new long[VOLUME_BOUNDS.length + 1]);
+    }
+
+    @Test
+    public void testRepositoryKeepsAggregatesCurrent() {
+        TetrahedronRepository repository = TetrahedronRepository.getInstance();
+        MetricAggregates aggregates = repository.getAggregates();
+        aggregates.setHistogramBounds(ShapeMetric.VOLUME, VOLUME_BOUNDS);
+        Tetrahedron added = new Tetrahedron(6_100_000L, new Point(0, 0, 0), new Point(1, 0, 0),
+                new Point(0, 1, 0), new Point(0, 0, 6));
+        repository.add(added);
+        added.setPointD(new Point(0, 0, 600));
+
+        assertMatchesRecomputation(aggregates, repository.getAllTetrahedrons());
+        Assert.assertTrue(repository.remove(added));
+        assertMatchesRecomputation(aggregates, repository.getAllTetrahedrons());
+    }
+
+    private static void assertMatchesRecomputation(MetricAggregates aggregates, Collection<Tetrahedron> tetrahedrons) {
+        TetrahedronCalculatorImpl calculator = new TetrahedronCalculatorImpl();
+        for (ShapeMetric metric : ShapeMetric.values()) {
+            double[] values = tetrahedrons.stream().mapToDouble(t -> metric.compute(calculator, t)).toArray();
+            MetricStatistics statistics = aggregates.getStatistics(metric);
+            double sum = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (double value : values) {
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            Assert.assertEquals(statistics.count(), values.length, metric.name());
+            Assert.assertEquals(statistics.sum(), sum, Math.abs(sum) * 1e-12, metric.name());
+            if (values.length > 0) {
+                Assert.assertEquals(statistics.mean(), sum / values.length, Math.abs(sum) * 1e-12, metric.name());
+                Assert.assertEquals(statistics.min(), min, metric.name());
+                Assert.assertEquals(statistics.max(), max, metric.name());
+            } else {
+                Assert.assertTrue(Double.isNaN(statistics.min()) && Double.isNaN(statistics.max()), metric.name());
+            }
+        }
+        long[] expectedHistogram = new long[VOLUME_BOUNDS.length + 1];
+        for (Tetrahedron tetrahedron : tetrahedrons) {
+            double volume = calculator.computeVolume(tetrahedron);
+            int bucket = 0;
+            while (bucket < VOLUME_BOUNDS.length && volume >= VOLUME_BOUNDS[bucket]) {
+                bucket++;
+            }
+            expectedHistogram[bucket]++;
+        }
+        Assert.assertEquals(aggregates.getHistogram(ShapeMetric.VOLUME), expectedHistogram);
+    }
+
+    private static Tetrahedron shape(long id, Random random) {
+        return new Tetrahedron(id, new Point(0, 0, 0), new Point(1 + random.nextInt(10), 0, 0),
+                new Point(0, 1 + random.nextInt(10), 0), new Point(0, 0, 1 + random.nextInt(30)));
+    }
+}
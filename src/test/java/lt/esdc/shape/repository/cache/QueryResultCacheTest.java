@@ -0,0 +1,117 @@
+package lt.esdc.shape.repository.cache;
+
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.impl.AreaRangeTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.VolumeRangeTetrahedronSpecification;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class QueryResultCacheTest {
+
+    @Test
+    public void testInvalidationDropsOnlyAffectedEntries() {
+        QueryResultCache cache = new QueryResultCache(8);
+        Tetrahedron small = shape(9_200_000_001L, 6);
+        Tetrahedron large = shape(9_200_000_002L, 600);
+        TetrahedronSpecification smallVolumes = volumes(0, 10);
+        TetrahedronSpecification largeVolumes = volumes(50, 150);
+        cache.put(smallVolumes, List.of(small), cache.getModificationCount());
+        cache.put(largeVolumes, List.of(large), cache.getModificationCount());
+
+        Assert.assertEquals(cache.get(volumes(0, 10)), List.of(small));
+        Assert.assertNull(cache.get(new AreaRangeTetrahedronSpecification(new TetrahedronCalculatorImpl(), 0, 10)));
+
+        large.setPointD(new Point(0, 0, 1200));
+        cache.invalidate(large);
+        Assert.assertEquals(cache.get(smallVolumes), List.of(small));
+        Assert.assertNull(cache.get(largeVolumes));
+
+        Tetrahedron added = shape(9_200_000_003L, 12);
+        cache.invalidate(added);
+        Assert.assertNull(cache.get(smallVolumes));
+
+        Assert.assertEquals(cache.getStatistics(), new QueryCacheStatistics(2, 3, 0, 2, 0));
+    }
+
+    @Test
+    public void testConcurrentChangeAndEvictionAreCounted() {
+        QueryResultCache cache = new QueryResultCache(2);
+        long started = cache.getModificationCount();
+        cache.invalidateRemoved(1);
+        cache.put(volumes(0, 1), List.of(), started);
+        Assert.assertNull(cache.get(volumes(0, 1)));
+
+        for (int i = 0; i < 3; i++) {
+            cache.put(volumes(0, i), List.of(), cache.getModificationCount());
+        }
+        cache.get(volumes(0, 1));
+        cache.setCapacity(1);
+
+        Assert.assertEquals(cache.get(volumes(0, 1)), List.of());
+        Assert.assertNull(cache.get(volumes(0, 2)));
+        Assert.assertEquals(cache.getStatistics(), new QueryCacheStatistics(2, 2, 2, 0, 1));
+    }
+
+    @Test
+    public void testSpecificationsWithoutValueEqualityAreNotCached() {
+        QueryResultCache cache = new QueryResultCache(8);
+        TetrahedronSpecification lambda = tetrahedron -> true;
+
+        Assert.assertEquals(cache.put(lambda, List.of(), cache.getModificationCount()), List.of());
+        Assert.assertNull(cache.get(lambda));
+        Assert.assertEquals(cache.getStatistics(), new QueryCacheStatistics(0, 0, 0, 0, 0));
+    }
+
+    @Test
+    public void testInvalidationSkipsSpecificationsOutsideMetricBounds() {
+        QueryResultCache cache = new QueryResultCache(8);
+        CountingSpecification counting = new CountingSpecification();
+        TetrahedronSpecification bounded = volumes(0, 10).and(counting);
+        TetrahedronSpecification unbounded = counting.not();
+        cache.put(bounded, List.of(), cache.getModificationCount());
+        cache.put(unbounded, List.of(), cache.getModificationCount());
+
+        cache.invalidate(shape(9_200_000_004L, 600));
+        Assert.assertEquals(counting.checks, 1);
+        Assert.assertEquals(cache.get(bounded), List.of());
+
+        cache.invalidate(shape(9_200_000_005L, 6));
+        Assert.assertEquals(counting.checks, 3);
+        Assert.assertNull(cache.get(bounded));
+        Assert.assertEquals(cache.get(unbounded), List.of());
+    }
+
+    private static TetrahedronSpecification volumes(double min, double max) {
+        return new VolumeRangeTetrahedronSpecification(new TetrahedronCalculatorImpl(), min, max);
+    }
+
+    /**
+     * Cacheable specification satisfied by every Tetrahedron that counts how often it is checked.
+     */
+    private static class CountingSpecification implements TetrahedronSpecification {
+        private int checks;
+
+        @Override
+        public boolean isSatisfiedBy(Tetrahedron tetrahedron) {
+            checks++;
+            return true;
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return true;
+        }
+    }
+
+    /**
+     * The volume is {@code height / 6}.
+     */
+    private static Tetrahedron shape(long id, double height) {
+        return new Tetrahedron(id, new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, height));
+    }
+}
@@ -0,0 +1,109 @@
+package lt.esdc.shape.repository.index;
+
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MetricIndexTest {
+
+    @Test
+    public void testRangesMatchBruteForceAcrossBlockSplitsAndRemovals() {
+        MetricIndex index = new MetricIndex();
+        Map<Long, Double> volumes = new HashMap<>();
+        Random random = new Random(42);
+        for (long id = 1; id <= 5_000; id++) {
+            double height = 6 * (1 + random.nextInt(100));
+            index.index(shape(id, height));
+            volumes.put(id, height / 6);
+        }
+        for (long id = 1; id <= 5_000; id += 3) {
+            index.unindex(id);
+            volumes.remove(id);
+        }
+        for (long id = 2; id <= 5_000; id += 7) {
+            double height = 6 * (1 + random.nextInt(100));
+            index.reindex(shape(id, height));
+            volumes.computeIfPresent(id, (key, volume) -> height / 6);
+        }
+
+        Assert.assertEquals(index.size(), volumes.size());
+        Assert.assertEquals(index.min(ShapeMetric.VOLUME), volumes.values().stream().min(Double::compare).orElseThrow());
+        Assert.assertEquals(index.max(ShapeMetric.VOLUME), volumes.values().stream().max(Double::compare).orElseThrow());
+        for (double[] bounds : new double[][]{{1, 1}, {10, 20}, {0, 1000}, {99.5, 100}, {50, 40}}) {
+            long[] expected = volumes.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= bounds[0] && entry.getValue() <= bounds[1])
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                    .mapToLong(Map.Entry::getKey)
+                    .toArray();
+            Assert.assertEquals(index.range(ShapeMetric.VOLUME, bounds[0], bounds[1]), expected, Arrays.toString(bounds));
+        }
+    }
+
+    @Test
+    public void testMinAndMaxOfEmptyIndexAreNaN() {
+        MetricIndex index = new MetricIndex();
+        index.index(shape(1, 6));
+        index.unindex(1);
+
+        Assert.assertTrue(Double.isNaN(index.min(ShapeMetric.AREA)));
+        Assert.assertTrue(Double.isNaN(index.max(ShapeMetric.AREA)));
+    }
+
+    @Test
+    public void testDelayedReindexDoesNotStoreOlderMetrics() throws InterruptedException {
+        MetricIndex index = new MetricIndex();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        AtomicReference<Thread> pausedThread = new AtomicReference<>();
+        Tetrahedron tetrahedron = new Tetrahedron(1, new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0),
+                new Point(0, 0, 6)) {
+            @Override
+            public Point getPointD() {
+                Point point = super.getPointD();
+                if (pausedThread.compareAndSet(Thread.currentThread(), null)) {
+                    reading.countDown();
+                    try {
+                        resume.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return point;
+            }
+        };
+        index.index(tetrahedron);
+
+        Thread slow = new Thread(() -> {
+            tetrahedron.setPointD(new Point(0, 0, 12));
+            index.reindex(tetrahedron);
+        });
+        pausedThread.set(slow);
+        slow.start();
+        reading.await();
+        Thread fast = new Thread(() -> {
+            tetrahedron.setPointD(new Point(0, 0, 18));
+            index.reindex(tetrahedron);
+        });
+        fast.start();
+        fast.join(200);
+        resume.countDown();
+        slow.join();
+        fast.join();
+
+        Assert.assertEquals(index.range(ShapeMetric.VOLUME, 3, 3), new long[]{1});
+        Assert.assertEquals(index.size(), 1);
+    }
+
+    private static Tetrahedron shape(long id, double height) {
+        return new Tetrahedron(id, new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, height));
+    }
+}
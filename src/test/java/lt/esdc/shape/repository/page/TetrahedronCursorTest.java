@@ -0,0 +1,75 @@
+package lt.esdc.shape.repository.page;
+
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.store.TetrahedronStore;
+import lt.esdc.shape.store.impl.ColumnarTetrahedronStore;
+import lt.esdc.shape.store.impl.ObjectTetrahedronStore;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TetrahedronCursorTest {
+    private static final long FIRST_ID = 9_100_000_000L;
+
+    @DataProvider
+    public Object[][] stores() {
+        return new Object[][]{{new ObjectTetrahedronStore()}, {new ColumnarTetrahedronStore()}};
+    }
+
+    @Test(dataProvider = "stores")
+    public void testPagesResumeAcrossRemovals(TetrahedronStore store) {
+        for (int i = 0; i < 500; i++) {
+            store.add(shape(FIRST_ID + i));
+        }
+        for (int i = 0; i < 500; i += 3) {
+            store.removeById(FIRST_ID + i);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        int cursor = 0;
+        do {
+            TetrahedronCursor page = new TetrahedronCursor(store, t -> t.getNumericId() % 2 == 0, cursor);
+            int taken = 0;
+            for (; taken < 25 && page.hasNext(); taken++) {
+                seen.add(page.next().getNumericId());
+            }
+            cursor = taken == 25 ? page.getPosition() : Page.END;
+            if (cursor != Page.END) {
+                store.removeById(FIRST_ID + 1);
+            }
+        } while (cursor != Page.END);
+
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            if (i % 3 != 0 && i % 2 == 0) {
+                expected.add(FIRST_ID + i);
+            }
+        }
+        Assert.assertEquals(seen, expected);
+    }
+
+    @Test
+    public void testFirstMatchesTouchOnlyFirstBatch() {
+        TetrahedronStore store = new ObjectTetrahedronStore();
+        for (int i = 0; i < 10_000; i++) {
+            store.add(shape(FIRST_ID + i));
+        }
+        AtomicInteger checked = new AtomicInteger();
+        TetrahedronCursor cursor = new TetrahedronCursor(store, t -> checked.incrementAndGet() > 0, 0);
+
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(cursor.next().getNumericId(), FIRST_ID + i);
+        }
+        Assert.assertEquals(checked.get(), 20);
+        Assert.assertEquals(cursor.getPosition(), 20);
+    }
+
+    private static Tetrahedron shape(long id) {
+        return new Tetrahedron(id, new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, 1));
+    }
+}
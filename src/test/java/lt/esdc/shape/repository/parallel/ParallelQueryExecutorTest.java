@@ -0,0 +1,84 @@
+package lt.esdc.shape.repository.parallel;
+
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.impl.VolumeRangeTetrahedronSpecification;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class ParallelQueryExecutorTest {
+
+    @Test
+    public void testParallelFilterKeepsSequentialOrder() {
+        List<Tetrahedron> candidates = shapes(20_000);
+        TetrahedronSpecification filter = new VolumeRangeTetrahedronSpecification(new TetrahedronCalculatorImpl(), 2, 4);
+        ParallelQueryExecutor sequential = new ParallelQueryExecutor(4, Integer.MAX_VALUE);
+        ParallelQueryExecutor parallel = new ParallelQueryExecutor(4, 0);
+
+        Assert.assertFalse(sequential.isParallel(candidates.size(), filter));
+        Assert.assertTrue(parallel.isParallel(candidates.size(), filter));
+        List<Tetrahedron> expected = sequential.filter(candidates, filter, QueryControl.unbounded());
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(parallel.filter(candidates, filter, QueryControl.unbounded()), expected);
+
+        parallel.shutdown();
+        sequential.shutdown();
+        Assert.assertThrows(RejectedExecutionException.class,
+                () -> parallel.filter(candidates, filter, QueryControl.unbounded()));
+        Assert.assertThrows(RejectedExecutionException.class,
+                () -> sequential.filter(candidates, filter, QueryControl.unbounded()));
+    }
+
+    @Test
+    public void testWorkOfHugeInputsDoesNotOverflow() {
+        ParallelQueryExecutor executor = new ParallelQueryExecutor(2, Integer.MAX_VALUE);
+        TetrahedronSpecification computed = tetrahedron -> true;
+        TetrahedronSpecification cached = new VolumeRangeTetrahedronSpecification(new TetrahedronCalculatorImpl(), 0, 1);
+
+        Assert.assertTrue(executor.isParallel(Integer.MAX_VALUE, computed));
+        Assert.assertTrue(executor.isParallel(Integer.MAX_VALUE, cached));
+        Assert.assertFalse(executor.isParallel(Integer.MAX_VALUE / 2, cached));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testCancelledAndTimedOutFiltersStop() {
+        List<Tetrahedron> candidates = shapes(100_000);
+        ParallelQueryExecutor executor = new ParallelQueryExecutor(2, 0);
+        TetrahedronSpecification slow = tetrahedron -> {
+            LockSupport.parkNanos(10_000);
+            return true;
+        };
+        QueryControl cancelled = QueryControl.unbounded();
+        cancelled.cancel();
+        Assert.assertThrows(CancellationException.class, () -> executor.filter(candidates, slow, cancelled));
+        Assert.assertFalse(cancelled.isTimedOut());
+
+        QueryControl timed = QueryControl.withTimeout(50, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        Assert.assertThrows(CancellationException.class, () -> executor.filter(candidates, slow, timed));
+        Assert.assertTrue(timed.isTimedOut());
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        executor.shutdown();
+    }
+
+    private static List<Tetrahedron> shapes(int count) {
+        Random random = new Random(7);
+        List<Tetrahedron> shapes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            shapes.add(new Tetrahedron(9_300_000_000L + i, new Point(0, 0, 0), new Point(1, 0, 0),
+                    new Point(0, 1, 0), new Point(0, 0, 36 * random.nextDouble())));
+        }
+        return shapes;
+    }
+}
@@ -0,0 +1,123 @@
+package lt.esdc.shape.repository.plan;
+
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.repository.TetrahedronRepository;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.impl.AreaRangeTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.IdSetTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.IdTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.VolumeRangeTetrahedronSpecification;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+public class QueryPlannerTest {
+    private final TetrahedronRepository repository = TetrahedronRepository.getInstance();
+    private final TetrahedronCalculatorImpl calculator = new TetrahedronCalculatorImpl();
+    private final List<Tetrahedron> added = new ArrayList<>();
+
+    @BeforeClass
+    public void setUp() {
+        for (int i = 1; i <= 60; i++) {
+            Tetrahedron tetrahedron = new Tetrahedron(8_000_000L + i, new Point(0, 0, 0), new Point(1 + i % 5, 0, 0),
+                    new Point(0, 1 + i % 7, 0), new Point(0, 0, i));
+            repository.add(tetrahedron);
+            added.add(tetrahedron);
+        }
+    }
+
+    @AfterClass
+    public void tearDown() {
+        added.forEach(repository::remove);
+    }
+
+    @Test
+    public void testMostSelectiveRangeUsesIndexAndCheapFiltersRunFirst() {
+        TetrahedronSpecification smallVolume = new VolumeRangeTetrahedronSpecification(calculator, 0, 20);
+        TetrahedronSpecification narrowArea = new AreaRangeTetrahedronSpecification(calculator, 30, 20);
+        TetrahedronSpecification computed = tetrahedron -> tetrahedron.getPointD().z() > 10;
+        TetrahedronSpecification notFirst = new IdTetrahedronSpecification(added.get(0).getId()).not();
+        TetrahedronSpecification query = computed.and(smallVolume).and(notFirst).and(narrowArea);
+
+        QueryPlan plan = repository.explain(query);
+
+        Assert.assertEquals(plan.getAccessPath(), QueryPlan.AccessPath.INDEX_RANGE);
+        Assert.assertSame(plan.getAccessSpecification(), narrowArea);
+        List<TetrahedronSpecification> order = plan.getFilterSteps().stream().map(QueryPlan.Step::specification).toList();
+        Assert.assertEquals(order.size(), 3);
+        Assert.assertSame(order.get(0), smallVolume);
+        Assert.assertTrue(order.indexOf(computed) > 0, order.toString());
+        Assert.assertTrue(plan.toString().startsWith("INDEX_RANGE area in [20.0, 30.0]"), plan.toString());
+        assertMatchesScan(query);
+    }
+
+    @Test
+    public void testIdConjunctUsesIdLookup() {
+        Tetrahedron target = added.get(5);
+        TetrahedronSpecification query = new VolumeRangeTetrahedronSpecification(calculator, 0, 1e9)
+                .and(new IdTetrahedronSpecification(target.getId()));
+
+        QueryPlan plan = repository.explain(query);
+
+        Assert.assertEquals(plan.getAccessPath(), QueryPlan.AccessPath.ID_LOOKUP);
+        Assert.assertEquals(plan.getFilterSteps().size(), 1);
+        Assert.assertEquals(repository.query(query), List.of(target));
+    }
+
+    @Test
+    public void testIdSetConjunctUsesIdSetLookupInRepositoryOrder() {
+        TetrahedronSpecification query = new VolumeRangeTetrahedronSpecification(calculator, 0, 1e9)
+                .and(new IdSetTetrahedronSpecification(added.get(40).getNumericId(), 7_999_999L,
+                        added.get(3).getNumericId(), added.get(20).getNumericId()));
+
+        QueryPlan plan = repository.explain(query);
+
+        Assert.assertEquals(plan.getAccessPath(), QueryPlan.AccessPath.ID_SET_LOOKUP);
+        Assert.assertEquals(plan.getFilterSteps().size(), 1);
+        Assert.assertEquals(repository.query(query),
+                repository.getAllTetrahedrons().stream().filter(query::isSatisfiedBy).toList());
+    }
+
+    @Test
+    public void testDisjunctionIsScanned() {
+        TetrahedronSpecification query = new VolumeRangeTetrahedronSpecification(calculator, 0, 2)
+                .or(new AreaRangeTetrahedronSpecification(calculator, 15, 10).and(tetrahedron -> true).not());
+
+        QueryPlan plan = repository.explain(query);
+
+        Assert.assertEquals(plan.getAccessPath(), QueryPlan.AccessPath.FULL_SCAN);
+        Assert.assertNull(plan.getAccessSpecification());
+        assertMatchesScan(query);
+    }
+
+    @Test
+    public void testCompilableConjunctsUseColumnScan() {
+        QueryPlanner planner = new QueryPlanner(repository.getAggregates());
+        TetrahedronSpecification volume = new VolumeRangeTetrahedronSpecification(calculator, 0, 1e9);
+        TetrahedronSpecification notFirst = new IdTetrahedronSpecification(added.get(0).getId()).not();
+        TetrahedronSpecification computed = tetrahedron -> tetrahedron.getPointD().z() > 10;
+
+        QueryPlan plan = planner.plan(volume.and(computed).and(notFirst), 1_000_000, true);
+
+        Assert.assertEquals(plan.getAccessPath(), QueryPlan.AccessPath.COLUMN_SCAN);
+        Assert.assertNotNull(plan.getColumnPredicate());
+        Assert.assertEquals(plan.getFilterSteps().stream().map(QueryPlan.Step::specification).toList(),
+                List.of(computed));
+        Assert.assertEquals(planner.plan(volume.and(computed), 1_000_000, false).getAccessPath(),
+                QueryPlan.AccessPath.INDEX_RANGE);
+    }
+
+    private void assertMatchesScan(TetrahedronSpecification query) {
+        List<Tetrahedron> expected = repository.getAllTetrahedrons().stream().filter(query::isSatisfiedBy).toList();
+        List<Tetrahedron> found = repository.query(query);
+        Assert.assertEquals(found.size(), expected.size());
+        Assert.assertEquals(new HashSet<>(found), new HashSet<>(expected));
+    }
+}
@@ -0,0 +1,142 @@
+package lt.esdc.shape.repository.snapshot;
+
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.impl.ShapeVersionObserver;
+import lt.esdc.shape.repository.TetrahedronRepository;
+import lt.esdc.shape.store.TetrahedronStore;
+import lt.esdc.shape.store.impl.ObjectTetrahedronStore;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class RepositorySnapshotTest {
+    private TetrahedronRepository repository;
+    private Tetrahedron tetrahedron;
+
+    @BeforeMethod
+    public void setUp() {
+        repository = TetrahedronRepository.getInstance();
+        tetrahedron = new Tetrahedron(5_000_000_001L, new Point(0, 0, 0), new Point(1, 0, 0),
+                new Point(0, 1, 0), new Point(0, 0, 1));
+        repository.add(tetrahedron);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        repository.removeById(tetrahedron.getId());
+    }
+
+    @Test
+    public void testSnapshotIsIsolatedFromLaterEdits() {
+        RepositorySnapshot before = repository.snapshot();
+        tetrahedron.setPointD(new Point(0, 0, 6));
+        RepositorySnapshot after = repository.snapshot();
+
+        Tetrahedron old = before.findById(tetrahedron.getId()).orElseThrow();
+        Assert.assertEquals(old.getPointD(), new Point(0, 0, 1));
+        Assert.assertEquals(before.getParameters(tetrahedron.getNumericId()).volume(), 1.0 / 6, 1e-12);
+        Assert.assertEquals(after.findById(tetrahedron.getId()).orElseThrow().getPointD(), new Point(0, 0, 6));
+        Assert.assertEquals(after.getParameters(tetrahedron.getNumericId()).volume(), 1.0, 1e-12);
+        Assert.assertTrue(after.getVersion() > before.getVersion());
+    }
+
+    @Test
+    public void testSnapshotIsReusedUntilRepositoryChanges() {
+        RepositorySnapshot first = repository.snapshot();
+
+        Assert.assertSame(repository.snapshot(), first);
+        tetrahedron.setPointD(new Point(0, 0, 2));
+        Assert.assertNotSame(repository.snapshot(), first);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testSnapshotTetrahedronsAreReadOnly() {
+        repository.snapshot().findById(tetrahedron.getId()).orElseThrow().setPointA(new Point(5, 5, 5));
+    }
+
+    @Test
+    public void testEditsAreCopiedOnlyForOpenSnapshots() {
+        TetrahedronStore store = new ObjectTetrahedronStore();
+        ShapeVersionTable table = new ShapeVersionTable();
+        store.registerObserver(new ShapeVersionObserver(table));
+        List<Tetrahedron> shapes = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            Tetrahedron shape = new Tetrahedron(5_000_002_000L + id, new Point(0, 0, 0), new Point(1, 0, 0),
+                    new Point(0, 1, 0), new Point(0, 0, 1));
+            store.add(shape);
+            shapes.add(shape);
+        }
+        Tetrahedron named = new Tetrahedron("snapshot_named", new Point(0, 0, 0), new Point(1, 0, 0),
+                new Point(0, 1, 0), new Point(0, 0, 1));
+        store.add(named);
+        shapes.get(0).setPointD(new Point(0, 0, 2));
+
+        RepositorySnapshot snapshot = open(table, store, Map.of(named.getId(), named.getNumericId()));
+        for (int i = 0; i < 10; i++) {
+            shapes.get(i).setPointD(new Point(0, 0, 3));
+            shapes.get(i).setPointD(new Point(0, 0, 4));
+        }
+        named.setPointD(new Point(0, 0, 5));
+
+        Assert.assertEquals(snapshot.getCopyCount(), 11);
+        Assert.assertEquals(snapshot.findById(shapes.get(0).getId()).orElseThrow().getPointD(), new Point(0, 0, 2));
+        Assert.assertEquals(snapshot.findById(shapes.get(5).getId()).orElseThrow().getPointD(), new Point(0, 0, 1));
+        Assert.assertEquals(snapshot.findById("snapshot_named").orElseThrow().getPointD(), new Point(0, 0, 1));
+        Assert.assertEquals(snapshot.getParameters(named.getNumericId()).volume(), 1.0 / 6, 1e-12);
+        Assert.assertTrue(snapshot.findById(Tetrahedron.ID_PREFIX + named.getNumericId()).isEmpty());
+        Assert.assertEquals(snapshot.getCopyCount(), 11);
+        Assert.assertEquals(table.getOpenSnapshotCount(), 1);
+    }
+
+    @Test
+    public void testSnapshotSeesOnlyStatesTheEditsPassedThrough() throws Exception {
+        List<Tetrahedron> shapes = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            Tetrahedron shape = new Tetrahedron(5_000_001_000L + id, new Point(0, 0, 0), new Point(1, 0, 0),
+                    new Point(0, 1, 0), new Point(0, 0, 1));
+            shapes.add(shape);
+        }
+        repository.addAll(shapes);
+        ExecutorService editor = Executors.newSingleThreadExecutor();
+        Future<?> edits = editor.submit(() -> {
+            for (int round = 2; round < 40; round++) {
+                for (Tetrahedron shape : shapes) {
+                    shape.setPointD(new Point(0, 0, round));
+                }
+            }
+        });
+        while (!edits.isDone()) {
+            RepositorySnapshot snapshot = repository.snapshot();
+            List<Tetrahedron> copies = snapshot.getAllTetrahedrons().stream()
+                    .filter(copy -> copy.getNumericId() > 5_000_001_000L && copy.getNumericId() <= 5_000_001_200L)
+                    .toList();
+            double first = copies.get(0).getPointD().z();
+            double previous = first;
+            for (Tetrahedron copy : copies) {
+                double height = copy.getPointD().z();
+                Assert.assertTrue(height <= previous && height >= first - 1, "Not a state the edits passed through");
+                Assert.assertEquals(snapshot.getParameters(copy.getNumericId()).volume(), height / 6, 1e-12);
+                previous = height;
+            }
+        }
+        edits.get(10, TimeUnit.SECONDS);
+        editor.shutdown();
+        shapes.forEach(repository::remove);
+    }
+
+    private static RepositorySnapshot open(ShapeVersionTable table, TetrahedronStore store, Map<String, Long> names) {
+        long[] numericIds = store.stream().mapToLong(Tetrahedron::getNumericId).toArray();
+        return table.open(numericIds, names, store, new ReentrantReadWriteLock().readLock());
+    }
+}
@@ -0,0 +1,62 @@
+package lt.esdc.shape.repository.sort;
+
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.comparator.TetrahedronByIdComparator;
+import lt.esdc.shape.comparator.TetrahedronByVolumeComparator;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class TetrahedronKeySorterTest {
+
+    @Test
+    public void testEncodingKeepsDoubleOrder() {
+        double[] values = {Double.NaN, Double.POSITIVE_INFINITY, 1.5, Double.MIN_VALUE, 0.0, -0.0, -1.5,
+                Double.NEGATIVE_INFINITY, -Double.MAX_VALUE};
+        for (double left : values) {
+            for (double right : values) {
+                Assert.assertEquals(Long.signum(Long.compare(SortKey.encode(left), SortKey.encode(right))),
+                        Integer.signum(Double.compare(left, right)), left + " vs " + right);
+            }
+        }
+    }
+
+    @Test
+    public void testMultiKeySortMatchesComparators() {
+        Random random = new Random(18);
+        List<Tetrahedron> tetrahedrons = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            double height = 1 + random.nextInt(20);
+            tetrahedrons.add(new Tetrahedron(4_000_000L + random.nextInt(1_000_000), new Point(0, 0, 0),
+                    new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, height)));
+        }
+        List<Tetrahedron> expected = new ArrayList<>(tetrahedrons);
+        expected.sort(new TetrahedronByVolumeComparator().reversed().thenComparing(new TetrahedronByIdComparator()));
+
+        List<Tetrahedron> sorted = TetrahedronKeySorter.sort(tetrahedrons,
+                SortKey.byMetric(ShapeMetric.VOLUME).reversed(), SortKey.byNumericId());
+
+        Assert.assertEquals(sorted, expected);
+    }
+
+    @Test
+    public void testParallelPermutationIsStable() {
+        int size = TetrahedronKeySorter.PARALLEL_THRESHOLD * 4 + 17;
+        Random random = new Random(81);
+        long[][] columns = {random.longs(size, -50, 50).toArray()};
+        Integer[] expected = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+        Arrays.sort(expected, Comparator.comparingLong(i -> columns[0][i]));
+
+        int[] order = TetrahedronKeySorter.sortedPermutation(columns, size, true);
+
+        Assert.assertEquals(IntStream.of(order).boxed().toArray(Integer[]::new), expected);
+    }
+}
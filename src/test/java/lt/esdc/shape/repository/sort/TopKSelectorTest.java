@@ -0,0 +1,62 @@
+package lt.esdc.shape.repository.sort;
+
+import lt.esdc.shape.action.ShapeMetric;
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.comparator.TetrahedronByAreaComparator;
+import lt.esdc.shape.comparator.TetrahedronByVolumeComparator;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.impl.VolumeRangeTetrahedronSpecification;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TopKSelectorTest {
+
+    @Test
+    public void testSelectMatchesSortPrefix() {
+        List<Tetrahedron> tetrahedrons = shapes(300, 19);
+        TetrahedronSpecification filter = new VolumeRangeTetrahedronSpecification(new TetrahedronCalculatorImpl(), 2, 15);
+        List<Tetrahedron> expected = tetrahedrons.stream()
+                .filter(filter::isSatisfiedBy)
+                .sorted(new TetrahedronByVolumeComparator().reversed())
+                .limit(10)
+                .toList();
+
+        Assert.assertEquals(TopKSelector.select(tetrahedrons, 10, SortKey.byMetric(ShapeMetric.VOLUME).reversed(),
+                filter, false), expected);
+        Assert.assertEquals(TopKSelector.select(tetrahedrons, 10, new TetrahedronByVolumeComparator().reversed(),
+                filter, false), expected);
+        Assert.assertEquals(TopKSelector.select(tetrahedrons, 0, SortKey.byNumericId(), null, false), List.of());
+        Assert.assertEquals(TopKSelector.select(tetrahedrons.subList(0, 3), 5, SortKey.byNumericId(), null, false),
+                tetrahedrons.subList(0, 3));
+    }
+
+    @Test
+    public void testParallelSelectMatchesSequential() {
+        List<Tetrahedron> tetrahedrons = shapes(TetrahedronKeySorter.PARALLEL_THRESHOLD * 2 + 5, 91);
+        List<Tetrahedron> expected = tetrahedrons.stream()
+                .sorted(new TetrahedronByAreaComparator())
+                .limit(100)
+                .toList();
+
+        Assert.assertEquals(TopKSelector.select(tetrahedrons, 100, SortKey.byMetric(ShapeMetric.AREA), null, true),
+                expected);
+        Assert.assertEquals(TopKSelector.select(tetrahedrons, 100, new TetrahedronByAreaComparator(), null, true),
+                expected);
+    }
+
+    private static List<Tetrahedron> shapes(int count, long seed) {
+        Random random = new Random(seed);
+        List<Tetrahedron> tetrahedrons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tetrahedrons.add(new Tetrahedron(5_000_000L + i, new Point(0, 0, 0), new Point(1 + random.nextInt(4), 0, 0),
+                    new Point(0, 1 + random.nextInt(4), 0), new Point(0, 0, 1 + random.nextInt(6))));
+        }
+        return tetrahedrons;
+    }
+}
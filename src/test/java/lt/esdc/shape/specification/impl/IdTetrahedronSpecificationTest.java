@@ -0,0 +1,22 @@
+package lt.esdc.shape.specification.impl;
+
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class IdTetrahedronSpecificationTest {
+
+    @Test
+    public void testNullIdIsComparableAndMatchesNothing() {
+        IdTetrahedronSpecification nullId = new IdTetrahedronSpecification(null);
+        Tetrahedron named = new Tetrahedron("named", new Point(0, 0, 0), new Point(1, 0, 0),
+                new Point(0, 1, 0), new Point(0, 0, 1));
+
+        Assert.assertEquals(nullId, new IdTetrahedronSpecification(null));
+        Assert.assertEquals(nullId.hashCode(), new IdTetrahedronSpecification(null).hashCode());
+        Assert.assertNotEquals(nullId, new IdTetrahedronSpecification("named"));
+        Assert.assertNotEquals(new IdTetrahedronSpecification("named"), nullId);
+        Assert.assertFalse(nullId.isSatisfiedBy(named));
+    }
+}
@@ -0,0 +1,144 @@
+package lt.esdc.shape.store.impl;
+
+import lt.esdc.shape.action.impl.TetrahedronCalculatorImpl;
+import lt.esdc.shape.comparator.TetrahedronByVolumeComparator;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.specification.TetrahedronSpecification;
+import lt.esdc.shape.specification.impl.AreaRangeTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.IdSetTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.IdTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.PerimeterRangeTetrahedronSpecification;
+import lt.esdc.shape.specification.impl.VolumeRangeTetrahedronSpecification;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ColumnarTetrahedronStoreTest {
+
+    private ColumnarTetrahedronStore store;
+    private Tetrahedron small;
+    private Tetrahedron large;
+
+    @BeforeMethod
+    public void setUp() {
+        store = new ColumnarTetrahedronStore();
+        small = new Tetrahedron(101, new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, 1));
+        large = new Tetrahedron(102, new Point(0, 0, 0), new Point(3, 0, 0), new Point(0, 3, 0), new Point(0, 0, 3));
+    }
+
+    @Test
+    public void testViewsEqualAddedShapes() {
+        store.add(large);
+        store.add(small);
+
+        List<Tetrahedron> views = store.toList();
+
+        Assert.assertEquals(views, List.of(large, small));
+        Assert.assertEquals(views.get(0).getId(), large.getId());
+        Assert.assertEquals(store.getVolume(0), 4.5, 1e-9);
+    }
+
+    @Test
+    public void testEditThroughViewUpdatesColumnsAndNotifies() {
+        List<Tetrahedron> notified = new ArrayList<>();
+        store.registerObserver(shape -> notified.add((Tetrahedron) shape));
+        store.add(small);
+
+        Tetrahedron view = store.toList().get(0);
+        view.setPointD(new Point(0, 0, 2));
+
+        Assert.assertEquals(store.toList().get(0).getPointD(), new Point(0, 0, 2));
+        Assert.assertEquals(store.getVolume(0), 1.0 / 3.0, 1e-9);
+        Assert.assertEquals(notified.size(), 1);
+    }
+
+    @Test
+    public void testEditOfOriginalIsSynchronized() {
+        store.add(small);
+
+        small.setPointB(new Point(2, 0, 0));
+
+        Assert.assertEquals(store.toList().get(0).getPointB(), new Point(2, 0, 0));
+    }
+
+    @Test
+    public void testSortAndRemoveReuseSlots() {
+        store.add(large);
+        store.add(small);
+
+        store.sort(new TetrahedronByVolumeComparator());
+        Assert.assertEquals(store.toList(), List.of(small, large));
+
+        Tetrahedron staleView = store.toList().get(0);
+        Assert.assertTrue(store.remove(small));
+        Assert.assertEquals(store.size(), 1);
+        Assert.assertThrows(IllegalStateException.class, staleView::getPointA);
+
+        store.add(new Tetrahedron("named", new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, 1)));
+        Assert.assertEquals(store.getSlotCount(), 2);
+        Assert.assertEquals(store.toList().get(1).getId(), "named");
+    }
+
+    @Test
+    public void testCompiledSelectionMatchesObjectFilter() {
+        TetrahedronCalculatorImpl calculator = new TetrahedronCalculatorImpl();
+        for (int i = 0; i < 150; i++) {
+            store.add(new Tetrahedron(1_000 + i, new Point(0, 0, 0), new Point(1 + i % 4, 0, 0),
+                    new Point(0, 1 + i % 3, 0), new Point(0, 0, 1 + i % 11)));
+        }
+        for (int i = 0; i < 150; i += 7) {
+            store.removeById(1_000 + i);
+        }
+        store.add(new Tetrahedron(2_000, new Point(0, 0, 0), new Point(2, 0, 0), new Point(0, 2, 0), new Point(0, 0, 2)));
+        List<TetrahedronSpecification> specifications = List.of(
+                new VolumeRangeTetrahedronSpecification(calculator, 1, 5),
+                new VolumeRangeTetrahedronSpecification(calculator, 1, 5)
+                        .and(new AreaRangeTetrahedronSpecification(calculator, 20, 5).not()),
+                new IdSetTetrahedronSpecification(1_003, 1_007, 1_064, 2_000, 9_999)
+                        .or(new PerimeterRangeTetrahedronSpecification(calculator, 0, 6)),
+                new IdTetrahedronSpecification("tetrahedron_1100").not());
+
+        for (TetrahedronSpecification specification : specifications) {
+            List<Tetrahedron> expected = store.toList().stream().filter(specification::isSatisfiedBy).toList();
+            Assert.assertEquals(store.select(specification.compile()), expected, specification.toString());
+        }
+    }
+
+    @Test
+    public void testCompiledIdSelectionSkipsNamedShapes() {
+        Tetrahedron named = new Tetrahedron("named", new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0),
+                new Point(0, 0, 1));
+        store.add(named);
+        store.add(small);
+        TetrahedronSpecification hiddenId = new IdTetrahedronSpecification("tetrahedron_" + named.getNumericId());
+
+        List<Tetrahedron> expected = store.toList().stream().filter(hiddenId::isSatisfiedBy).toList();
+        Assert.assertEquals(expected, List.of());
+        Assert.assertEquals(store.select(hiddenId.compile()), expected);
+        Assert.assertEquals(store.select(hiddenId.not().compile()).size(), 2);
+    }
+
+    @Test
+    public void testApplyOrderRejectsForeignAndMissingShapes() {
+        Tetrahedron named = new Tetrahedron("named", new Point(0, 0, 0), new Point(2, 0, 0), new Point(0, 2, 0),
+                new Point(0, 0, 2));
+        store.add(small);
+        store.add(named);
+        store.add(large);
+        store.removeById(small.getNumericId());
+        List<Tetrahedron> views = store.toList();
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> store.applyOrder(views.subList(0, 1)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> store.applyOrder(List.of(named, large)));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> store.applyOrder(List.of(views.get(0), views.get(0))));
+
+        store.applyOrder(List.of(views.get(1), views.get(0)));
+        Assert.assertEquals(store.toList().get(1).getId(), "named");
+        Assert.assertEquals(store.toList().get(0).getId(), large.getId());
+    }
+}
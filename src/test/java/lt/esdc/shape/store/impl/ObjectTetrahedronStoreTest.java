@@ -0,0 +1,62 @@
+package lt.esdc.shape.store.impl;
+
+import lt.esdc.shape.entity.AbstractShape;
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import lt.esdc.shape.observer.ShapeObserver;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ObjectTetrahedronStoreTest {
+
+    private ObjectTetrahedronStore store;
+    private Tetrahedron small;
+
+    @BeforeMethod
+    public void setUp() {
+        store = new ObjectTetrahedronStore();
+        small = new Tetrahedron(201, new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, 1));
+    }
+
+    @Test
+    public void testObserversRegisteredAfterAddAreNotifiedInOrder() {
+        List<String> events = new ArrayList<>();
+        store.registerObserver(recorder("first", events));
+        store.add(small);
+        store.registerObserver(recorder("second", events));
+
+        small.setPointD(new Point(0, 0, 2));
+
+        Assert.assertEquals(events, List.of("first before", "second before", "first update", "second update"));
+    }
+
+    @Test
+    public void testRemovedShapeNoLongerNotifies() {
+        List<String> events = new ArrayList<>();
+        store.registerObserver(recorder("first", events));
+        store.add(small);
+        store.removeById(small.getNumericId());
+
+        small.setPointD(new Point(0, 0, 2));
+
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    private static ShapeObserver recorder(String name, List<String> events) {
+        return new ShapeObserver() {
+            @Override
+            public void beforeUpdate(AbstractShape abstractShape) {
+                events.add(name + " before");
+            }
+
+            @Override
+            public void update(AbstractShape abstractShape) {
+                events.add(name + " update");
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package lt.esdc.shape.store.impl;
+
+import lt.esdc.shape.entity.Point;
+import lt.esdc.shape.entity.Tetrahedron;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OffHeapTetrahedronStoreTest {
+
+    @Test
+    public void testRecordsRoundTripAndMemoryIsReleased() {
+        OffHeapTetrahedronStore store = new OffHeapTetrahedronStore();
+        List<Tetrahedron> added = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            Tetrahedron tetrahedron = new Tetrahedron(i, new Point(i, 0, 0), new Point(i + 1, 0, 0),
+                    new Point(i, 1, 0), new Point(i, 0, 1));
+            store.add(tetrahedron);
+            added.add(tetrahedron);
+        }
+
+        Assert.assertEquals(store.toList(), added);
+        Assert.assertEquals(store.getVolume(42), 1.0 / 6.0, 1e-9);
+        Assert.assertEquals(store.getUsedBytes(), 10_000L * 128);
+        long reserved = store.getOffHeapBytes();
+        Assert.assertTrue(reserved >= store.getUsedBytes());
+
+        for (Tetrahedron tetrahedron : added) {
+            Assert.assertTrue(store.remove(tetrahedron));
+        }
+
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertEquals(store.getOffHeapBytes(), 0);
+
+        store.add(added.get(0));
+        Assert.assertEquals(store.toList().get(0), added.get(0));
+        store.close();
+    }
+
+    @Test
+    public void testSegmentIsFreedOnlyWhenAllItsRecordsAreRemoved() {
+        OffHeapTetrahedronStore store = new OffHeapTetrahedronStore();
+        for (int i = 1; i <= 8192 + 1; i++) {
+            store.add(shape(i));
+        }
+        Assert.assertEquals(store.getOffHeapBytes(), 2L * 8192 * 128);
+
+        for (int i = 2; i <= 8192; i++) {
+            store.removeById(i);
+        }
+        Assert.assertEquals(store.getOffHeapBytes(), 2L * 8192 * 128);
+
+        store.removeById(1);
+        Assert.assertEquals(store.getOffHeapBytes(), 8192L * 128);
+        Assert.assertEquals(store.getUsedBytes(), 128);
+        store.close();
+    }
+
+    @Test
+    public void testStoreRejectsUseAfterClose() {
+        OffHeapTetrahedronStore store = new OffHeapTetrahedronStore();
+        Tetrahedron tetrahedron = shape(1);
+        store.add(tetrahedron);
+        store.close();
+        store.close();
+
+        Assert.assertThrows(IllegalStateException.class, () -> store.add(shape(2)));
+        Assert.assertThrows(IllegalStateException.class, () -> store.findById(1));
+        Assert.assertThrows(IllegalStateException.class, store::toList);
+        Assert.assertThrows(IllegalStateException.class, store::size);
+        Assert.assertThrows(IllegalStateException.class, store::getOffHeapBytes);
+        tetrahedron.setPointA(new Point(-1, 0, 0));
+    }
+
+    private static Tetrahedron shape(long id) {
+        return new Tetrahedron(id, new Point(id, 0, 0), new Point(id + 1, 0, 0), new Point(id, 1, 0), new Point(id, 0, 1));
+    }
+}
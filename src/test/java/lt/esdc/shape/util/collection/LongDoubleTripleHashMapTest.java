@@ -0,0 +1,55 @@
+package lt.esdc.shape.util.collection;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+
+public class LongDoubleTripleHashMapTest {
+    /**
+     * Far below one byte per update, so any per-update allocation fails the check.
+     */
+    private static final long MAX_ALLOCATED_BYTES = 16 * 1024;
+
+    @Test
+    public void testPutGetRemoveAcrossResizes() {
+        LongDoubleTripleHashMap map = new LongDoubleTripleHashMap(4);
+        for (long key = 0; key < 10_000; key++) {
+            map.put(key, key, key * 2, key * 3);
+        }
+        for (long key = 0; key < 10_000; key += 2) {
+            Assert.assertTrue(map.remove(key));
+        }
+
+        Assert.assertEquals(map.size(), 5_000);
+        double[] record = new double[LongDoubleTripleHashMap.COMPONENTS];
+        for (long key = 1; key < 10_000; key += 2) {
+            Assert.assertTrue(map.get(key, record));
+            Assert.assertEquals(record, new double[]{key, key * 2, key * 3});
+        }
+        Assert.assertFalse(map.containsKey(0));
+        Assert.assertTrue(Double.isNaN(map.get(4, 1)));
+        Assert.assertEquals(map.get(9_999, 2), 29_997.0);
+    }
+
+    @Test
+    public void testUpdateDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        LongDoubleTripleHashMap map = new LongDoubleTripleHashMap(1024);
+        int updates = 200_000;
+        for (int i = 0; i < updates; i++) {
+            map.put(i & 1023, i, i, i);
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < updates; i++) {
+            map.put(i & 1023, i, i, i);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        Assert.assertTrue(allocated < MAX_ALLOCATED_BYTES,
+                "Expected no per-update allocation but got " + allocated + " bytes for " + updates + " updates");
+    }
+}
@@ -0,0 +1,18 @@
+package lt.esdc.shape.action.impl;
+
+import lt.esdc.shape.action.CalculatorFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class VectorBatchCalculatorTest extends AbstractBatchCalculatorTest {
+
+    @Test
+    public void testVectorCalculatorMatchesReference() {
+        assertMatchesReference(new VectorBatchCalculator());
+    }
+
+    @Test
+    public void testFactoryPrefersVectorCalculator() {
+        Assert.assertTrue(CalculatorFactory.getBatchCalculator() instanceof VectorBatchCalculator);
+    }
+}
@@ -0,0 +1,137 @@
+package lt.esdc.shape.action.impl;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import lt.esdc.shape.action.BatchShapeCalculator;
+import lt.esdc.shape.action.ShapeMetric;
+
+/**
+ * Batch calculator that computes the metrics of as many Tetrahedrons as fit in the preferred vector shape
+ * of the host at once, using the incubating Vector API. Each lane follows the arithmetic of
+ * {@link TetrahedronCalculatorImpl#computeAll} operation by operation, without fused multiply-adds,
+ * and the remaining Tetrahedrons are handed to the {@link ScalarBatchCalculator}.
+ * The work is split into one short loop per edge and face over cache-sized blocks: a single loop computing
+ * everything exceeds the JIT's inlining limits, and every vector operation left out of line boxes its operands.
+ * Only load this class after checking that the {@code jdk.incubator.vector} module is present.
+ * It lives in its own source root, compiled only by the {@code vector} build profile, so that the default build
+ * neither needs the incubator module nor warns about it; {@link lt.esdc.shape.action.CalculatorFactory} loads it
+ * by name when it is there.
+ */
+public class VectorBatchCalculator implements BatchShapeCalculator {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int BLOCK_SIZE = 512;
+    private static final int POINT_A = 0;
+    private static final int POINT_B = 1;
+    private static final int POINT_C = 2;
+    private static final int POINT_D = 3;
+    private final ScalarBatchCalculator tailCalculator = new ScalarBatchCalculator();
+
+    /**
+     * @return the number of Tetrahedrons processed by one vector operation
+     */
+    @Override
+    public int getLaneCount() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public void computeAll(double[][] coordinates, double[][] metrics, int from, int to) {
+        double[] perimeters = metrics[ShapeMetric.PERIMETER.ordinal()];
+        double[] areas = metrics[ShapeMetric.AREA.ordinal()];
+        double[] volumes = metrics[ShapeMetric.VOLUME.ordinal()];
+        int upper = from + SPECIES.loopBound(to - from);
+        for (int blockStart = from; blockStart < upper; blockStart += BLOCK_SIZE) {
+            int blockEnd = Math.min(blockStart + BLOCK_SIZE, upper);
+            addEdgeLength(coordinates, perimeters, blockStart, blockEnd, POINT_A, POINT_B, true);
+            addEdgeLength(coordinates, perimeters, blockStart, blockEnd, POINT_A, POINT_C, false);
+            addEdgeLength(coordinates, perimeters, blockStart, blockEnd, POINT_A, POINT_D, false);
+            addEdgeLength(coordinates, perimeters, blockStart, blockEnd, POINT_B, POINT_C, false);
+            addEdgeLength(coordinates, perimeters, blockStart, blockEnd, POINT_B, POINT_D, false);
+            addEdgeLength(coordinates, perimeters, blockStart, blockEnd, POINT_C, POINT_D, false);
+            addFaceArea(coordinates, areas, blockStart, blockEnd, POINT_A, POINT_B, POINT_C, true);
+            addFaceArea(coordinates, areas, blockStart, blockEnd, POINT_A, POINT_B, POINT_D, false);
+            addFaceArea(coordinates, areas, blockStart, blockEnd, POINT_A, POINT_C, POINT_D, false);
+            addFaceArea(coordinates, areas, blockStart, blockEnd, POINT_B, POINT_C, POINT_D, false);
+            halve(areas, blockStart, blockEnd);
+            computeVolumes(coordinates, volumes, blockStart, blockEnd);
+        }
+        tailCalculator.computeAll(coordinates, metrics, upper, to);
+    }
+
+    /**
+     * Adds the length of edge {@code pq} to the target, or stores it if {@code first}.
+     * The edge is taken as the difference of the edges from A, exactly as the scalar implementation does.
+     */
+    private static void addEdgeLength(double[][] coordinates, double[] target, int from, int to,
+                                      int p, int q, boolean first) {
+        for (int i = from; i < to; i += SPECIES.length()) {
+            DoubleVector length = magnitude(edge(coordinates, p, q, 0, i), edge(coordinates, p, q, 1, i),
+                    edge(coordinates, p, q, 2, i));
+            (first ? length : DoubleVector.fromArray(SPECIES, target, i).add(length)).intoArray(target, i);
+        }
+    }
+
+    /**
+     * Adds twice the area of face {@code pqr} to the target, or stores it if {@code first}.
+     */
+    private static void addFaceArea(double[][] coordinates, double[] target, int from, int to,
+                                    int p, int q, int r, boolean first) {
+        for (int i = from; i < to; i += SPECIES.length()) {
+            DoubleVector normal = crossMagnitude(edge(coordinates, p, q, 0, i), edge(coordinates, p, q, 1, i),
+                    edge(coordinates, p, q, 2, i), edge(coordinates, p, r, 0, i), edge(coordinates, p, r, 1, i),
+                    edge(coordinates, p, r, 2, i));
+            (first ? normal : DoubleVector.fromArray(SPECIES, target, i).add(normal)).intoArray(target, i);
+        }
+    }
+
+    private static void halve(double[] target, int from, int to) {
+        for (int i = from; i < to; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, target, i).mul(0.5).intoArray(target, i);
+        }
+    }
+
+    private static void computeVolumes(double[][] coordinates, double[] volumes, int from, int to) {
+        for (int i = from; i < to; i += SPECIES.length()) {
+            DoubleVector abX = edge(coordinates, POINT_A, POINT_B, 0, i);
+            DoubleVector abY = edge(coordinates, POINT_A, POINT_B, 1, i);
+            DoubleVector abZ = edge(coordinates, POINT_A, POINT_B, 2, i);
+            DoubleVector acX = edge(coordinates, POINT_A, POINT_C, 0, i);
+            DoubleVector acY = edge(coordinates, POINT_A, POINT_C, 1, i);
+            DoubleVector acZ = edge(coordinates, POINT_A, POINT_C, 2, i);
+            DoubleVector adX = edge(coordinates, POINT_A, POINT_D, 0, i);
+            DoubleVector adY = edge(coordinates, POINT_A, POINT_D, 1, i);
+            DoubleVector adZ = edge(coordinates, POINT_A, POINT_D, 2, i);
+
+            DoubleVector acdX = acY.mul(adZ).sub(acZ.mul(adY));
+            DoubleVector acdY = acZ.mul(adX).sub(acX.mul(adZ));
+            DoubleVector acdZ = acX.mul(adY).sub(acY.mul(adX));
+            abX.mul(acdX).add(abY.mul(acdY)).add(abZ.mul(acdZ))
+                    .lanewise(VectorOperators.ABS)
+                    .div(6.0)
+                    .intoArray(volumes, i);
+        }
+    }
+
+    /**
+     * Loads one axis of edge {@code pq}: {@code q - A} when p is A, {@code (q - A) - (p - A)} otherwise.
+     */
+    private static DoubleVector edge(double[][] coordinates, int p, int q, int axis, int index) {
+        DoubleVector a = load(coordinates, axis, index);
+        DoubleVector edge = load(coordinates, q * 3 + axis, index).sub(a);
+        return p == POINT_A ? edge : edge.sub(load(coordinates, p * 3 + axis, index).sub(a));
+    }
+
+    private static DoubleVector load(double[][] coordinates, int column, int index) {
+        return DoubleVector.fromArray(SPECIES, coordinates[column], index);
+    }
+
+    private static DoubleVector magnitude(DoubleVector x, DoubleVector y, DoubleVector z) {
+        return x.mul(x).add(y.mul(y)).add(z.mul(z)).lanewise(VectorOperators.SQRT);
+    }
+
+    private static DoubleVector crossMagnitude(DoubleVector x1, DoubleVector y1, DoubleVector z1,
+                                               DoubleVector x2, DoubleVector y2, DoubleVector z2) {
+        return magnitude(y1.mul(z2).sub(z1.mul(y2)), z1.mul(x2).sub(x1.mul(z2)), x1.mul(y2).sub(y1.mul(x2)));
+    }
+}